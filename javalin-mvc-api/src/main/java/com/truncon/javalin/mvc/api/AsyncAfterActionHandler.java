@@ -0,0 +1,34 @@
+package com.truncon.javalin.mvc.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Defines the interface for handlers called after a controller action completes that need to
+ * wait on I/O without blocking the request thread. When a route uses an asynchronous handler,
+ * the response is sent once the returned future completes.
+ */
+public interface AsyncAfterActionHandler extends AfterActionHandler {
+    /**
+     * Performs a task after a controller action completes, including actions returning a
+     * {@link CompletableFuture}, in which case the handler is called once that future completes.
+     * The exception is handled the same way as by {@link AfterActionHandler#executeAfter}.
+     * @param context The request context being processed.
+     * @param arguments The String constant arguments defined on the annotation.
+     * @param exception The exception that was thrown by the action; otherwise, null.
+     * @return a future completed with the exception to be processed by the next handler.
+     */
+    CompletableFuture<Exception> executeAfterAsync(HttpContext context, String[] arguments, Exception exception);
+
+    /**
+     * Performs the task synchronously, waiting for {@link #executeAfterAsync} to complete. The generated
+     * routes never call this method.
+     * @param context The request context being processed.
+     * @param arguments The String constant arguments defined on the annotation.
+     * @param exception The exception that was thrown by the action; otherwise, null.
+     * @return the exception to be processed by the next handler.
+     */
+    @Override
+    default Exception executeAfter(HttpContext context, String[] arguments, Exception exception) {
+        return executeAfterAsync(context, arguments, exception).join();
+    }
+}
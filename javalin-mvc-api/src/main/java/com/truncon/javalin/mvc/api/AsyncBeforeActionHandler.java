@@ -0,0 +1,31 @@
+package com.truncon.javalin.mvc.api;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Defines the interface for handlers called before a controller action executes that need to
+ * wait on I/O, such as a remote call, without blocking the request thread. When a route uses an
+ * asynchronous handler, the action only runs once the returned future completes.
+ */
+public interface AsyncBeforeActionHandler extends BeforeActionHandler {
+    /**
+     * Performs a task before a controller action executes. The request can be cancelled by completing
+     * the future with false. If the future completes exceptionally, the request fails with that exception.
+     * @param context The request context being processed.
+     * @param arguments The String constant arguments defined on the annotation.
+     * @return a future completed with false if the request should be cancelled; otherwise, true.
+     */
+    CompletableFuture<Boolean> executeBeforeAsync(HttpContext context, String[] arguments);
+
+    /**
+     * Performs the task synchronously, waiting for {@link #executeBeforeAsync} to complete. The generated
+     * routes never call this method.
+     * @param context The request context being processed.
+     * @param arguments The String constant arguments defined on the annotation.
+     * @return false if the request should be cancelled; otherwise, true.
+     */
+    @Override
+    default boolean executeBefore(HttpContext context, String[] arguments) {
+        return executeBeforeAsync(context, arguments).join();
+    }
+}
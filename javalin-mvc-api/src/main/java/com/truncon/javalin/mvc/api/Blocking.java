@@ -0,0 +1,24 @@
+package com.truncon.javalin.mvc.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that an action method, or every action method of a controller, blocks (e.g., on a
+ * database call). Parameter binding, the action, its result and its {@link After} handlers are run
+ * on an executor instead of the server's request thread, and the response is sent asynchronously
+ * once they complete. {@link Before} handlers still run on the request thread. Actions that already
+ * return a {@code CompletableFuture} are not affected.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface Blocking {
+    /**
+     * Gets the name of the executor to run the action on, as registered with
+     * {@code BlockingExecutors.register}. By default, the default executor is used.
+     * @return the name of the executor.
+     */
+    String value() default "";
+}
@@ -0,0 +1,41 @@
+package com.truncon.javalin.mvc.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the responses of an action method in memory, keyed by the request values its parameters
+ * are bound from. {@link Before} handlers run for every request, but when a response is cached, the
+ * controller is not created, the parameters are not bound, and neither the action nor its
+ * {@link After} handlers run; the status code, headers and body are sent as they were recorded.
+ *
+ * Only successful (2xx) responses whose body is returned by the result are cached. Responses that set
+ * cookies or have a Content-Encoding are never cached. The action cannot accept parameters giving it
+ * access to the whole request or response (e.g., {@link HttpContext}), and cannot return void.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cached {
+    /**
+     * Gets how long a response is cached for, in the given unit. A value of zero or less keeps
+     * responses until they are evicted to make room for others.
+     * @return the time to live.
+     */
+    long ttl() default 60;
+
+    /**
+     * Gets the unit of the time to live.
+     * @return the unit.
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * Gets the maximum number of responses cached for the action. The least recently used responses
+     * are evicted first, with responses requested more than once outliving the others.
+     * @return the maximum number of responses.
+     */
+    int maxEntries() default 1000;
+}
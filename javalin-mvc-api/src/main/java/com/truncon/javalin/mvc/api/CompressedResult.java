@@ -0,0 +1,313 @@
+package com.truncon.javalin.mvc.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compresses the response generated by another result, using the encoding negotiated with the
+ * Accept-Encoding header of the request. gzip and deflate are always supported, and Brotli is
+ * supported when jvm-brotli is on the classpath.
+ *
+ * The payload of a {@link ContentResult} or a {@link JsonResult} can also be cached under a key. The
+ * payload is serialized and compressed once per version, and the cached bytes are sent as long as
+ * the same version is requested, so payloads that rarely change are not rebuilt for every request.
+ * JSON payloads are cached separately for each binary format clients ask for instead of JSON.
+ *
+ * The ETag and Last-Modified validators of a {@link ContentResult} or a {@link JsonResult} are honored
+ * whether or not the payload is cached. Since a compressed response is a different representation of
+ * the content, the content coding is appended to its entity tag, unless the payload is too small to be
+ * compressed and is sent as-is.
+ */
+public final class CompressedResult implements ActionResult {
+    /**
+     * Content smaller than this is sent as-is, since it would fit in a single packet anyway.
+     */
+    private static final int MIN_COMPRESSED_SIZE = 1500;
+    private static final Map<String, Payload> CACHE = new ConcurrentHashMap<>();
+    private static volatile int maxCacheEntries = 1000;
+
+    private final ActionResult result;
+    private final String cacheKey;
+    private final String version;
+
+    /**
+     * Initializes a new instance of a CompressedResult.
+     * @param result The result to compress.
+     */
+    public CompressedResult(ActionResult result) {
+        this.result = Objects.requireNonNull(result);
+        this.cacheKey = null;
+        this.version = null;
+    }
+
+    /**
+     * Initializes a new instance of a CompressedResult, whose compressed payload is cached. The
+     * result is only serialized when nothing is cached under the key for the given version.
+     * @param result The result to compress, which must be a {@link ContentResult} or a non-streaming
+     *               {@link JsonResult}.
+     * @param cacheKey The key to cache the payload under.
+     * @param version The version of the payload. A different version replaces the cached payload.
+     */
+    public CompressedResult(ActionResult result, String cacheKey, String version) {
+        this.result = Objects.requireNonNull(result);
+        this.cacheKey = Objects.requireNonNull(cacheKey);
+        this.version = Objects.requireNonNull(version);
+        boolean isCacheable = result instanceof ContentResult
+            || (result instanceof JsonResult && !((JsonResult) result).isStreaming());
+        if (!isCacheable) {
+            throw new IllegalArgumentException("Only content and non-streaming JSON results can be cached.");
+        }
+    }
+
+    /**
+     * Sets the maximum number of cached payloads. Once it is reached, caching another payload evicts
+     * the least recently used one.
+     * @param maxCacheEntries The maximum number of cached payloads.
+     */
+    public static void setMaxCacheEntries(int maxCacheEntries) {
+        CompressedResult.maxCacheEntries = Math.max(1, maxCacheEntries);
+    }
+
+    /**
+     * Removes the payload cached under the given key.
+     * @param cacheKey The key the payload is cached under.
+     */
+    public static void evict(String cacheKey) {
+        CACHE.remove(cacheKey);
+    }
+
+    /**
+     * Removes every cached payload.
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Sends the compressed response.
+     * @param context The request context.
+     */
+    public void execute(HttpContext context) {
+        Object content = compress(context);
+        if (content instanceof InputStream) {
+            context.getResponse().setStreamBody((InputStream) content);
+        } else if (content instanceof String) {
+            context.getResponse().setTextBody((String) content);
+        }
+    }
+
+    /**
+     * Sets the headers synchronously, then returns the compressed content to be sent asynchronously.
+     * @param context The request context.
+     * @return the compressed content or null if the wrapped result sent its content directly.
+     */
+    public Object executeAsync(HttpContext context) {
+        return compress(context);
+    }
+
+    private Object compress(HttpContext context) {
+        HttpResponse response = context.getResponse();
+        // Other headers the response varies by, such as Accept, may already be listed.
+        response.addHeader("Vary", "Accept-Encoding");
+        String encoding = ContentEncoding.negotiate(context.getRequest().getHeader("Accept-Encoding"));
+        if (cacheKey != null) {
+            return getPayload().getVariant(result, context).send(context, result, encoding);
+        }
+        Object content;
+        if (result instanceof ContentResult) {
+            content = ((ContentResult) result).executeAsync(context, encoding);
+        } else if (result instanceof JsonResult) {
+            content = ((JsonResult) result).executeAsync(context, encoding);
+        } else {
+            content = result.executeAsync(context);
+        }
+        if (encoding == null) {
+            return content;
+        }
+        byte[] bytes;
+        if (content instanceof String) {
+            bytes = ((String) content).getBytes(StandardCharsets.UTF_8);
+        } else if (content instanceof InputStream) {
+            bytes = readAllBytes((InputStream) content);
+        } else {
+            return content;
+        }
+        if (bytes.length < MIN_COMPRESSED_SIZE) {
+            return new ByteArrayInputStream(bytes);
+        }
+        response.setHeader("Content-Encoding", encoding);
+        return new ByteArrayInputStream(ContentEncoding.compress(bytes, encoding));
+    }
+
+    private Payload getPayload() {
+        // Hits only read the map, so they never wait on the lock of its bin.
+        Payload payload = CACHE.get(cacheKey);
+        if (payload == null || !payload.version.equals(version)) {
+            payload = CACHE.compute(cacheKey, (k, p) -> p != null && p.version.equals(version) ? p : new Payload(version));
+            evictLeastRecentlyUsed(cacheKey);
+        }
+        payload.lastUsed = System.nanoTime();
+        return payload;
+    }
+
+    private static void evictLeastRecentlyUsed(String cacheKey) {
+        // Payloads are only added when a key or version is first requested, so the scan is rare.
+        while (CACHE.size() > maxCacheEntries) {
+            Map.Entry<String, Payload> oldest = null;
+            for (Map.Entry<String, Payload> entry : CACHE.entrySet()) {
+                boolean isOlder = oldest == null || entry.getValue().lastUsed - oldest.getValue().lastUsed < 0;
+                if (!entry.getKey().equals(cacheKey) && isOlder) {
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            CACHE.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    /**
+     * Gets the content coding a payload is sent in.
+     * @param encoding The negotiated encoding, or null.
+     * @param length The size of the payload, in bytes.
+     * @return the encoding, or null if the payload is too small to be compressed.
+     */
+    static String getCoding(String encoding, long length) {
+        return length < MIN_COMPRESSED_SIZE ? null : encoding;
+    }
+
+    /**
+     * Gets the content coding text is sent in.
+     * @param encoding The negotiated encoding, or null.
+     * @param content The text, which is sent as UTF-8.
+     * @return the encoding, or null if the text is too small to be compressed.
+     */
+    static String getCoding(String encoding, String content) {
+        if (encoding == null || content == null) {
+            return null;
+        }
+        // Every character takes at least one byte, so only short text has to be encoded to be measured.
+        if (content.length() >= MIN_COMPRESSED_SIZE) {
+            return encoding;
+        }
+        return getCoding(encoding, content.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static byte[] readAllBytes(InputStream stream) {
+        try (InputStream input = stream) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int count;
+            while ((count = input.read(chunk)) != -1) {
+                buffer.write(chunk, 0, count);
+            }
+            return buffer.toByteArray();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static final class Payload {
+        private final String version;
+        private final Map<String, Variant> variants = new ConcurrentHashMap<>();
+        private volatile long lastUsed;
+
+        public Payload(String version) {
+            this.version = version;
+        }
+
+        public Variant getVariant(ActionResult result, HttpContext context) {
+            String contentType = "text/plain";
+            if (result instanceof JsonResult) {
+                String binaryFormat = context.getBinaryFormat();
+                contentType = binaryFormat == null ? "application/json" : binaryFormat;
+            }
+            return variants.computeIfAbsent(contentType, t -> new Variant(t, result, context));
+        }
+    }
+
+    private static final class Variant {
+        private final int statusCode;
+        private final String contentType;
+        private final byte[] content;
+        private final String hash;
+        private final Map<String, byte[]> encodedContent = new ConcurrentHashMap<>();
+
+        public Variant(String contentType, ActionResult result, HttpContext context) {
+            this.contentType = contentType;
+            if (result instanceof ContentResult) {
+                ContentResult contentResult = (ContentResult) result;
+                this.statusCode = contentResult.getStatusCode();
+                this.content = toBytes(contentResult.getContent());
+                this.hash = ConditionalRequests.hash(content);
+            } else {
+                JsonResult jsonResult = (JsonResult) result;
+                this.statusCode = jsonResult.getStatusCode();
+                if (contentType.equals("application/json")) {
+                    String json = context.toJson(jsonResult.getData());
+                    this.content = toBytes(json);
+                    this.hash = ConditionalRequests.hash(content);
+                } else {
+                    this.content = context.toBinary(jsonResult.getData(), contentType);
+                    this.hash = ConditionalRequests.hash(content);
+                }
+            }
+        }
+
+        private static byte[] toBytes(String value) {
+            return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        public InputStream send(HttpContext context, ActionResult result, String encoding) {
+            HttpResponse response = context.getResponse();
+            response.setStatusCode(statusCode);
+            String coding = getCoding(encoding, content.length);
+            String tag = getTag(result, coding);
+            if (ConditionalRequests.sendNotModified(context, statusCode, tag, getLastModified(result))) {
+                return null;
+            }
+            response.setContentType(contentType);
+            if (coding == null) {
+                return new ByteArrayInputStream(content);
+            }
+            byte[] encoded = encodedContent.computeIfAbsent(coding, e -> ContentEncoding.compress(content, e));
+            response.setHeader("Content-Encoding", coding);
+            return new ByteArrayInputStream(encoded);
+        }
+
+        private String getTag(ActionResult result, String coding) {
+            // The validators are read from the current result, since only the payload is cached.
+            String tag;
+            if (result instanceof ContentResult) {
+                ContentResult contentResult = (ContentResult) result;
+                tag = contentResult.getETag();
+                if (tag == null && contentResult.isComputeETag()) {
+                    tag = hash;
+                }
+            } else {
+                JsonResult jsonResult = (JsonResult) result;
+                tag = jsonResult.getETag();
+                if (tag != null && !contentType.equals("application/json")) {
+                    tag = ConditionalRequests.forRepresentation(tag, contentType);
+                } else if (tag == null && jsonResult.isComputeETag()) {
+                    tag = hash;
+                }
+            }
+            return ConditionalRequests.forRepresentation(tag, coding);
+        }
+
+        private static Long getLastModified(ActionResult result) {
+            return result instanceof ContentResult
+                ? ((ContentResult) result).getLastModified()
+                : ((JsonResult) result).getLastModified();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.truncon.javalin.mvc.api;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Evaluates the If-None-Match and If-Modified-Since headers of a request against the validators of
+ * a response, so results can answer with a 304 (Not Modified) instead of resending their content.
+ * Only what the core module needs is public; the rest is used by the results in this package.
+ */
+public final class ConditionalRequests {
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Sets the ETag and Last-Modified headers, then sends a 304 (Not Modified) response if the
+     * client's copy is current. Only successful responses to GET and HEAD requests are answered
+     * with a 304; for other methods, the action has already run by the time its result is sent,
+     * so only the validators are set.
+     * @param context The request context.
+     * @param statusCode The status code of the response.
+     * @param etag The quoted entity tag, or null.
+     * @param lastModified The time the content was last modified, in milliseconds, or null.
+     * @return true if a 304 was sent instead of the content; otherwise, false.
+     */
+    public static boolean sendNotModified(HttpContext context, int statusCode, String etag, Long lastModified) {
+        if (etag == null && lastModified == null) {
+            return false;
+        }
+        HttpResponse response = context.getResponse();
+        if (etag != null) {
+            response.setHeader("ETag", etag);
+        }
+        if (lastModified != null) {
+            response.setHeader("Last-Modified", formatDate(lastModified));
+        }
+        if (statusCode < 200 || statusCode >= 300) {
+            return false;
+        }
+        HttpRequest request = context.getRequest();
+        String method = request.getMethod();
+        if (!"GET".equalsIgnoreCase(method) && !"HEAD".equalsIgnoreCase(method)) {
+            return false;
+        }
+        if (!isNotModified(request, etag, lastModified)) {
+            return false;
+        }
+        response.setStatusCode(304);
+        return true;
+    }
+
+    /**
+     * Gets whether the client's copy is current. If-None-Match takes precedence over If-Modified-Since.
+     * @param request The request.
+     * @param etag The quoted entity tag, or null.
+     * @param lastModified The time the content was last modified, in milliseconds, or null.
+     * @return true if the content has not changed; otherwise, false.
+     */
+    static boolean isNotModified(HttpRequest request, String etag, Long lastModified) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            return etag != null && isMatch(ifNoneMatch, etag);
+        }
+        Long ifModifiedSince = parseDate(request.getHeader("If-Modified-Since"));
+        return ifModifiedSince != null && lastModified != null && lastModified <= ifModifiedSince;
+    }
+
+    private static boolean isMatch(String header, String etag) {
+        for (String value : header.split(",")) {
+            String trimmed = value.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes a strong entity tag from the UTF-8 encoding of the text, the bytes actually sent, using
+     * the 64-bit FNV-1a hash. The text is encoded as it is hashed, rather than copied into a new array.
+     * @param content The content.
+     * @return the quoted entity tag.
+     */
+    static String hash(String content) {
+        long hash = FNV_OFFSET_BASIS;
+        if (content != null) {
+            int index = 0;
+            while (index != content.length()) {
+                int codePoint = content.codePointAt(index);
+                index += Character.charCount(codePoint);
+                if (codePoint < 0x80) {
+                    hash = mix(hash, codePoint);
+                } else if (codePoint < 0x800) {
+                    hash = mix(hash, 0xc0 | (codePoint >> 6));
+                    hash = mix(hash, 0x80 | (codePoint & 0x3f));
+                } else if (Character.isSurrogate((char) codePoint)) {
+                    // The encoder replaces unpaired surrogates with a question mark.
+                    hash = mix(hash, '?');
+                } else if (codePoint < 0x10000) {
+                    hash = mix(hash, 0xe0 | (codePoint >> 12));
+                    hash = mix(hash, 0x80 | ((codePoint >> 6) & 0x3f));
+                    hash = mix(hash, 0x80 | (codePoint & 0x3f));
+                } else {
+                    hash = mix(hash, 0xf0 | (codePoint >> 18));
+                    hash = mix(hash, 0x80 | ((codePoint >> 12) & 0x3f));
+                    hash = mix(hash, 0x80 | ((codePoint >> 6) & 0x3f));
+                    hash = mix(hash, 0x80 | (codePoint & 0x3f));
+                }
+            }
+        }
+        return quote(Long.toHexString(hash));
+    }
+
+    /**
+     * Computes a strong entity tag from binary content, using the 64-bit FNV-1a hash.
+     * @param content The content.
+     * @return the quoted entity tag.
+     */
+    static String hash(byte[] content) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte value : content) {
+            hash = mix(hash, value & 0xff);
+        }
+        return quote(Long.toHexString(hash));
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    /**
+     * Gets the entity tag of one representation of the content, by appending the name of its format
+     * or content coding to the entity tag of the content. Representations sent in different formats
+     * or codings must not share a strong entity tag, or a cache could revalidate one with the other.
+     * @param etag The quoted entity tag, or null.
+     * @param variant The media type or content coding of the representation, or null for the default one.
+     * @return the quoted entity tag of the representation, or null if the tag is null.
+     */
+    static String forRepresentation(String etag, String variant) {
+        if (etag == null || variant == null) {
+            return etag;
+        }
+        String name = variant.substring(variant.lastIndexOf('/') + 1);
+        if (name.startsWith("x-")) {
+            name = name.substring(2);
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + name + "\"";
+    }
+
+    /**
+     * Quotes the entity tag, unless it is already quoted.
+     * @param etag The entity tag.
+     * @return the quoted entity tag, or null if the tag is null.
+     */
+    static String quote(String etag) {
+        if (etag == null || (etag.length() > 1 && etag.startsWith("\"") && etag.endsWith("\""))) {
+            return etag;
+        }
+        return "\"" + etag + "\"";
+    }
+
+    /**
+     * Truncates the time to seconds, the precision of HTTP dates.
+     * @param instant The time.
+     * @return the time in milliseconds, or null if the time is null.
+     */
+    static Long truncate(Instant instant) {
+        return instant == null ? null : instant.getEpochSecond() * 1000;
+    }
+
+    /**
+     * Formats the time as an HTTP date.
+     * @param millis The time in milliseconds.
+     * @return the HTTP date.
+     */
+    static String formatDate(long millis) {
+        return HTTP_DATE.format(Instant.ofEpochMilli(millis));
+    }
+
+    /**
+     * Parses an HTTP date.
+     * @param value The HTTP date, or null.
+     * @return the time in milliseconds, or null if the date is missing or invalid.
+     */
+    public static Long parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), HTTP_DATE).toInstant().toEpochMilli();
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+}
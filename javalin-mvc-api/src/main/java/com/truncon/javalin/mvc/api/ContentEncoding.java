@@ -0,0 +1,125 @@
+package com.truncon.javalin.mvc.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Negotiates and applies the content codings supported by {@link CompressedResult}. Brotli is only
+ * offered when the jvm-brotli library, the same one Javalin uses, is on the classpath.
+ */
+final class ContentEncoding {
+    static final String BROTLI = "br";
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    private static final Constructor<?> BROTLI_STREAM = loadBrotli();
+
+    private ContentEncoding() {
+    }
+
+    /**
+     * Picks the encoding the client prefers, using the server's preference of br, gzip, then
+     * deflate to break ties.
+     * @param acceptEncoding The value of the Accept-Encoding header.
+     * @return the encoding, or null if the content should be sent as-is.
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        Map<String, Double> weights = new HashMap<>();
+        for (String value : acceptEncoding.split(",")) {
+            String[] parts = value.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.isEmpty()) {
+                weights.put(coding, getQuality(parts));
+            }
+        }
+        String[] candidates = BROTLI_STREAM == null
+            ? new String[] { GZIP, DEFLATE }
+            : new String[] { BROTLI, GZIP, DEFLATE };
+        Double wildcard = weights.getOrDefault("*", 0d);
+        String encoding = null;
+        double best = 0;
+        for (String candidate : candidates) {
+            double weight = weights.getOrDefault(candidate, wildcard);
+            if (weight > best) {
+                encoding = candidate;
+                best = weight;
+            }
+        }
+        return encoding;
+    }
+
+    private static double getQuality(String[] parts) {
+        for (int index = 1; index < parts.length; ++index) {
+            String parameter = parts[index].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException exception) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Compresses the content using the given encoding.
+     * @param content The content to compress.
+     * @param encoding The encoding returned by {@link #negotiate(String)}.
+     * @return the compressed content.
+     */
+    public static byte[] compress(byte[] content, String encoding) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(32, content.length / 4));
+        try (OutputStream stream = open(buffer, encoding)) {
+            stream.write(content);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static OutputStream open(OutputStream output, String encoding) throws IOException {
+        switch (encoding) {
+            case GZIP:
+                return new GZIPOutputStream(output);
+            case DEFLATE:
+                return new DeflaterOutputStream(output);
+            case BROTLI:
+                try {
+                    return (OutputStream) BROTLI_STREAM.newInstance(output);
+                } catch (InvocationTargetException exception) {
+                    Throwable cause = exception.getCause();
+                    throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                } catch (ReflectiveOperationException exception) {
+                    throw new IOException(exception);
+                }
+            default:
+                throw new IllegalArgumentException("Unsupported content encoding: " + encoding);
+        }
+    }
+
+    private static Constructor<?> loadBrotli() {
+        try {
+            Class<?> loader = Class.forName("com.nixxcode.jvmbrotli.common.BrotliLoader");
+            if (!Boolean.TRUE.equals(loader.getMethod("isBrotliAvailable").invoke(null))) {
+                return null;
+            }
+            Class<?> stream = Class.forName("com.nixxcode.jvmbrotli.enc.BrotliOutputStream");
+            return stream.getConstructor(OutputStream.class);
+        } catch (ReflectiveOperationException | LinkageError exception) {
+            return null;
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.truncon.javalin.mvc.api;
 
+import java.time.Instant;
+
 /**
- * Generates a plain text (text/plain) response.
+ * Generates a plain text (text/plain) response. The response can carry an ETag and a Last-Modified
+ * header, in which case GET and HEAD requests whose copy is current are answered with a 304 (Not Modified).
  */
 public final class ContentResult implements ActionResult {
     private final String content;
     private final int statusCode;
+    private String etag;
+    private boolean computeETag;
+    private Long lastModified;
 
     /**
      * Instantiates a new instance of a ContentResult for the given content.
@@ -26,23 +32,97 @@ public final class ContentResult implements ActionResult {
     }
 
     /**
-     * Sets the content as the response with the status code.
+     * Gets the content to send as a response.
+     * @return the content.
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Gets the status code of the response.
+     * @return the status code.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Sets the entity tag of the content, such as a version number. It is quoted if necessary.
+     * @param etag The entity tag.
+     * @return this ContentResult for further configuration.
+     */
+    public ContentResult setETag(String etag) {
+        this.etag = ConditionalRequests.quote(etag);
+        return this;
+    }
+
+    /**
+     * Sets whether the entity tag is computed by hashing the content, when no entity tag is set.
+     * @param computeETag true to compute the entity tag; otherwise, false.
+     * @return this ContentResult for further configuration.
+     */
+    public ContentResult setComputeETag(boolean computeETag) {
+        this.computeETag = computeETag;
+        return this;
+    }
+
+    /**
+     * Sets the time the content was last modified.
+     * @param lastModified The time the content was last modified.
+     * @return this ContentResult for further configuration.
+     */
+    public ContentResult setLastModified(Instant lastModified) {
+        this.lastModified = ConditionalRequests.truncate(lastModified);
+        return this;
+    }
+
+    /**
+     * Sets the content as the response with the status code, or responds with a 304 (Not Modified)
+     * if the client's copy is current.
      * @param context The request context.
      */
     public void execute(HttpContext context) {
-        HttpResponse response = context.getResponse();
-        response.setStatusCode(statusCode);
-        response.setTextBody(content);
+        if (!isNotModified(context, null)) {
+            context.getResponse().setTextBody(content);
+        }
     }
 
     /**
      * Sets the status code and returns the content to be sent asynchronously.
      * @param context The request context.
-     * @return the content.
+     * @return the content or null if the client's copy is current.
      */
     public Object executeAsync(HttpContext context) {
-        HttpResponse response = context.getResponse();
-        response.setStatusCode(statusCode);
-        return content;
+        return executeAsync(context, null);
+    }
+
+    /**
+     * Sets the status code and returns the content to be sent asynchronously in the given content coding.
+     * @param context The request context.
+     * @param encoding The negotiated content coding, or null. Content too small to be compressed is sent as-is.
+     * @return the content or null if the client's copy is current.
+     */
+    Object executeAsync(HttpContext context, String encoding) {
+        return isNotModified(context, encoding) ? null : content;
+    }
+
+    private boolean isNotModified(HttpContext context, String encoding) {
+        context.getResponse().setStatusCode(statusCode);
+        String tag = etag == null && computeETag ? ConditionalRequests.hash(content) : etag;
+        tag = ConditionalRequests.forRepresentation(tag, CompressedResult.getCoding(encoding, content));
+        return ConditionalRequests.sendNotModified(context, statusCode, tag, lastModified);
+    }
+
+    String getETag() {
+        return etag;
+    }
+
+    boolean isComputeETag() {
+        return computeETag;
+    }
+
+    Long getLastModified() {
+        return lastModified;
     }
 }
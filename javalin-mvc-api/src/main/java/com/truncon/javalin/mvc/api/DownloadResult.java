@@ -1,6 +1,7 @@
 package com.truncon.javalin.mvc.api;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Objects;
 
 /**
@@ -8,6 +9,7 @@ import java.util.Objects;
  */
 public final class DownloadResult implements ActionResult {
     private final InputStream inputStream;
+    private final Path path;
     private String contentType;
     private String fileName;
 
@@ -26,6 +28,28 @@ public final class DownloadResult implements ActionResult {
      */
     public DownloadResult(InputStream inputStream, String contentType) {
         this.inputStream = Objects.requireNonNull(inputStream);
+        this.path = null;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Initializes a new instance of a DownloadResult for a file with the default MIME type of
+     * application/octet-stream. The file is sent the same way as a {@link FileResult}.
+     * @param path The path of the file to respond with.
+     */
+    public DownloadResult(Path path) {
+        this(path, null);
+    }
+
+    /**
+     * Initializes a new instance of a DownloadResult for a file with the specified content type.
+     * The file is sent the same way as a {@link FileResult}.
+     * @param path The path of the file to respond with.
+     * @param contentType The MIME type of the content.
+     */
+    public DownloadResult(Path path, String contentType) {
+        this.inputStream = null;
+        this.path = Objects.requireNonNull(path);
         this.contentType = contentType;
     }
 
@@ -66,10 +90,14 @@ public final class DownloadResult implements ActionResult {
     }
 
     /**
-     * Sends the stream as a response to the request with the specified MIME type.
+     * Sends the stream or file as a response to the request with the specified MIME type.
      * @param context The request context.
      */
     public void execute(HttpContext context) {
+        if (path != null) {
+            getFileResult().execute(context);
+            return;
+        }
         HttpResponse response = context.getResponse();
         setSynchronousSettings(response);
         response.setStreamBody(inputStream);
@@ -81,11 +109,18 @@ public final class DownloadResult implements ActionResult {
      * @return the stream.
      */
     public Object executeAsync(HttpContext context) {
+        if (path != null) {
+            return getFileResult().executeAsync(context);
+        }
         HttpResponse response = context.getResponse();
         setSynchronousSettings(response);
         return inputStream;
     }
 
+    private FileResult getFileResult() {
+        return new FileResult(path, contentType).setAttachment(fileName);
+    }
+
     private void setSynchronousSettings(HttpResponse response) {
         String disposition = "attachment;";
         if (!isEmpty(fileName)) {
@@ -0,0 +1,221 @@
+package com.truncon.javalin.mvc.api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * Generates a response containing the contents of a file. The file is sent without being copied
+ * through the heap, and the response supports conditional requests, using the ETag and Last-Modified
+ * headers, as well as single byte range requests.
+ */
+public final class FileResult implements ActionResult {
+    private final Path path;
+    private String contentType;
+    private boolean attachment;
+    private String fileName;
+
+    /**
+     * Initializes a new instance of a FileResult with the default MIME type of application/octet-stream.
+     * @param path The path of the file to respond with.
+     */
+    public FileResult(Path path) {
+        this(path, null);
+    }
+
+    /**
+     * Initializes a new instance of a FileResult with the specified content type.
+     * @param path The path of the file to respond with.
+     * @param contentType The MIME type of the content.
+     */
+    public FileResult(Path path, String contentType) {
+        this.path = Objects.requireNonNull(path);
+        this.contentType = contentType;
+    }
+
+    /**
+     * Gets the path of the file to respond with.
+     * @return the path.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the MIME type of the response.
+     * @return the content type.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Sets the MIME type of the response.
+     * @param contentType the content type.
+     * @return this FileResult for further configuration.
+     */
+    public FileResult setContentType(String contentType) {
+        this.contentType = contentType;
+        return this;
+    }
+
+    /**
+     * Gets whether the browser will prompt the user to download the file.
+     * @return true if the file is sent as an attachment; otherwise, false.
+     */
+    public boolean isAttachment() {
+        return attachment;
+    }
+
+    /**
+     * Gets the name that will be displayed in the browser download dialog.
+     * @return the file name.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Prompts the user to download the file, displaying the given name in the browser download dialog.
+     * @param fileName The name of the file that will be displayed in the browser download dialog, or null.
+     * @return this FileResult for further configuration.
+     */
+    public FileResult setAttachment(String fileName) {
+        this.attachment = true;
+        this.fileName = fileName;
+        return this;
+    }
+
+    /**
+     * Sends the file, or the requested range of the file, as the response to the request.
+     * @param context The request context.
+     */
+    public void execute(HttpContext context) {
+        HttpRequest request = context.getRequest();
+        HttpResponse response = context.getResponse();
+        BasicFileAttributes attributes = readAttributes();
+        long size = attributes.size();
+        // HTTP dates only have a precision of seconds.
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000 * 1000;
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+        response.setHeader("Accept-Ranges", "bytes");
+        if (ConditionalRequests.sendNotModified(context, 200, etag, lastModified)) {
+            return;
+        }
+        setSynchronousSettings(response);
+
+        long offset = 0;
+        long length = size;
+        String range = request.getHeader("Range");
+        if (range != null && isRangeCurrent(request, etag, lastModified)) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setStatusCode(416);
+                response.setHeader("Content-Range", "bytes */" + size);
+                return;
+            }
+            if (bounds.length == 2) {
+                offset = bounds[0];
+                length = bounds[1] - bounds[0] + 1;
+                response.setStatusCode(206);
+                response.setHeader("Content-Range", "bytes " + bounds[0] + "-" + bounds[1] + "/" + size);
+            }
+        }
+        if ("HEAD".equalsIgnoreCase(request.getMethod())) {
+            response.setHeader("Content-Length", Long.toString(length));
+        } else {
+            response.setFileBody(path, offset, length);
+        }
+    }
+
+    /**
+     * Sends the file as the response. The file is written directly to the response, so there is
+     * no content left to send asynchronously.
+     * @param context The request context.
+     * @return null.
+     */
+    public Object executeAsync(HttpContext context) {
+        execute(context);
+        return null;
+    }
+
+    private BasicFileAttributes readAttributes() {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void setSynchronousSettings(HttpResponse response) {
+        if (attachment) {
+            String disposition = "attachment;";
+            if (!isEmpty(fileName)) {
+                disposition += "fileName=" + fileName;
+            }
+            response.setHeader("Content-Disposition", disposition);
+        }
+        String contentType = isEmpty(this.contentType) ? "application/octet-stream" : this.contentType;
+        response.setContentType(contentType);
+    }
+
+    private static boolean isRangeCurrent(HttpRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.trim().startsWith("\"")) {
+            return ifRange.trim().equals(etag);
+        }
+        Long date = ConditionalRequests.parseDate(ifRange);
+        return date != null && date == lastModified;
+    }
+
+    /**
+     * Parses a byte range, such as 0-499, 500- or -500. Requests for multiple ranges are
+     * answered with the whole file.
+     * @return the first and last byte of the range; an empty array if the whole file is sent;
+     * null if the range cannot be satisfied.
+     */
+    private static long[] parseRange(String header, long size) {
+        String value = header.trim();
+        if (!value.startsWith("bytes=") || value.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String range = value.substring("bytes=".length()).trim();
+        int dash = range.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = range.substring(0, dash).trim();
+            String last = range.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start < 0 || start >= size || end < start) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException exception) {
+            return new long[0];
+        }
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.trim().length() == 0;
+    }
+}
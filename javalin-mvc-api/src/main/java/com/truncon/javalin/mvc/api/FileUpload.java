@@ -6,6 +6,7 @@ import java.io.InputStream;
  * Represents a file that was uploaded.
  */
 public final class FileUpload {
+    private final String name;
     private final InputStream stream;
     private final String contentType;
     private final String fileName;
@@ -17,11 +18,31 @@ public final class FileUpload {
      * @param fileName The name of the file (optional).
      */
     public FileUpload(InputStream stream, String contentType, String fileName) {
+        this(null, stream, contentType, fileName);
+    }
+
+    /**
+     * Instantiates a new instance of a FileUpload for a named form field.
+     * @param name The name of the form field the file was uploaded with.
+     * @param stream The stream containing the file contents.
+     * @param contentType The type of the stream contents.
+     * @param fileName The name of the file (optional).
+     */
+    public FileUpload(String name, InputStream stream, String contentType, String fileName) {
+        this.name = name;
         this.stream = stream;
         this.contentType = contentType;
         this.fileName = fileName;
     }
 
+    /**
+     * Gets the name of the form field the file was uploaded with, if known.
+     * @return the name of the form field.
+     */
+    public String getName() {
+        return name;
+    }
+
     /**
      * Gets the stream containing the file contents.
      * @return the stream.
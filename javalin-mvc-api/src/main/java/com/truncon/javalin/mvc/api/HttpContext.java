@@ -34,6 +34,20 @@ public interface HttpContext {
      */
     <T> T fromJson(String json, Class<T>  dataClass);
 
+    /**
+     * Gets the binary format the client asked for in its Accept header, in place of JSON.
+     * @return the media type of the binary format, or null if JSON should be sent.
+     */
+    String getBinaryFormat();
+
+    /**
+     * Serializes the given object in a binary format.
+     * @param data The object to serialize.
+     * @param mediaType The media type of the binary format, as returned by {@link #getBinaryFormat()}.
+     * @return the serialized object.
+     */
+    byte[] toBinary(Object data, String mediaType);
+
     /**
      * Gets access to the underlying implementation of the context.
      * @return An object.
@@ -112,7 +112,8 @@ public interface HttpRequest {
     String getBodyAsText();
 
     /**
-     * Gets the request body as a deserialized JSON document.
+     * Gets the request body as a deserialized JSON document. When the Content-Type of the request
+     * names a registered binary format, such as MessagePack, the body is deserialized from that format.
      * @param bodyCls The {@link Class} of the object to deserialize.
      * @param <T> The type of the object to deserialize.
      * @return the deserialized JSON document.
@@ -175,4 +176,12 @@ public interface HttpRequest {
      * @return the file.
      */
     FileUpload getFile(String name);
+
+    /**
+     * Gets the parts of a multi-part request as they arrive, without buffering the whole request
+     * first. Other form fields and files should not be read from the request when using the stream.
+     * The stream should be closed once it is no longer needed, to delete the parts written to disk.
+     * @return the stream of parts.
+     */
+    MultipartStream getMultipartStream();
 }
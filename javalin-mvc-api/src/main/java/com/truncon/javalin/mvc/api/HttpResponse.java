@@ -1,6 +1,7 @@
 package com.truncon.javalin.mvc.api;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 
 /**
  * Provides functionality for sending a response.
@@ -28,6 +29,14 @@ public interface HttpResponse {
      */
     HttpResponse setHeader(String name, String value);
 
+    /**
+     * Adds a header to the response, keeping the values it already has.
+     * @param name The name of the header being added.
+     * @param value The value to add to the header.
+     * @return The current response object.
+     */
+    HttpResponse addHeader(String name, String value);
+
     /**
      * Sets the body of the response to a String, with a MIME type of text/plain.
      * @param content The content to respond with.
@@ -49,6 +58,16 @@ public interface HttpResponse {
      */
     HttpResponse setJsonBody(Object data);
 
+    /**
+     * Serializes the object as JSON directly to the response stream, with a MIME type of application/JSON,
+     * rather than building the entire document in memory first. An {@link java.util.Iterator} or
+     * {@link java.util.stream.Stream} is written as a JSON array, one element at a time. The status code
+     * and headers must be set beforehand, since the response is committed once the body is written.
+     * @param data The object to serialize as JSON.
+     * @return The current response object.
+     */
+    HttpResponse streamJsonBody(Object data);
+
     /**
      * Sets the body of the response as the contents of the given stream. The MIME type must be set separately.
      * @param stream The stream to use as the body of the response.
@@ -56,6 +75,16 @@ public interface HttpResponse {
      */
     HttpResponse setStreamBody(InputStream stream);
 
+    /**
+     * Writes a region of the given file as the body of the response, without copying it through the heap.
+     * The Content-Length is set to the length of the region. The MIME type must be set separately.
+     * @param path The path of the file.
+     * @param offset The position of the first byte to send.
+     * @param length The number of bytes to send.
+     * @return The current response object.
+     */
+    HttpResponse setFileBody(Path path, long offset, long length);
+
     /**
      * Sets response headers indicating that the user should go to a different URL.
      * The default status code (TEMPORARY) will be used.
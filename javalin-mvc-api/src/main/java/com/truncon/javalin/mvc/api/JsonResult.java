@@ -1,11 +1,28 @@
 package com.truncon.javalin.mvc.api;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.stream.BaseStream;
+
 /**
- * Generates a JSON (application/json) response.
+ * Generates a JSON (application/json) response. {@link Iterator} and {@link java.util.stream.Stream}
+ * payloads are always streamed as JSON arrays. Other payloads are sent in a binary format instead, such
+ * as MessagePack, when the client asks for it in its Accept header and the format is available.
+ *
+ * The response can carry an ETag and a Last-Modified header, in which case GET and HEAD requests whose
+ * copy is current are answered with a 304 (Not Modified). When the entity tag or the modification time
+ * is set up front, the object is not serialized at all for such requests. An entity tag that is set up
+ * front is suffixed with the binary format the object is sent in, so each format has its own tag.
  */
 public final class JsonResult implements ActionResult {
     private final Object data;
     private final int statusCode;
+    private final boolean streaming;
+    private String etag;
+    private boolean computeETag;
+    private Long lastModified;
 
     /**
      * Initializes a new instance of a JsonResult.
@@ -21,28 +38,184 @@ public final class JsonResult implements ActionResult {
      * @param statusCode The status code of the response.
      */
     public JsonResult(Object data, int statusCode) {
+        this(data, statusCode, false);
+    }
+
+    /**
+     * Initializes a new instance of a JsonResult.
+     * @param data The object to serialize as JSON.
+     * @param statusCode The status code of the response.
+     * @param streaming Whether the object should be serialized directly to the response stream,
+     *                  rather than being buffered in memory first.
+     */
+    public JsonResult(Object data, int statusCode, boolean streaming) {
         this.data = data;
         this.statusCode = statusCode;
+        this.streaming = streaming || data instanceof Iterator || data instanceof BaseStream;
+    }
+
+    /**
+     * Gets the object to serialize as JSON.
+     * @return the object.
+     */
+    public Object getData() {
+        return data;
+    }
+
+    /**
+     * Gets the status code of the response.
+     * @return the status code.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Gets whether the object is serialized directly to the response stream.
+     * @return true if the object is streamed; otherwise, false.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Sets the entity tag of the object, such as a version number. It is quoted if necessary.
+     * @param etag The entity tag.
+     * @return this JsonResult for further configuration.
+     */
+    public JsonResult setETag(String etag) {
+        this.etag = ConditionalRequests.quote(etag);
+        return this;
+    }
+
+    /**
+     * Sets whether the entity tag is computed by hashing the JSON document, when no entity tag is set.
+     * Streamed objects are sent before they are fully serialized, so their entity tag is never computed.
+     * @param computeETag true to compute the entity tag; otherwise, false.
+     * @return this JsonResult for further configuration.
+     */
+    public JsonResult setComputeETag(boolean computeETag) {
+        this.computeETag = computeETag;
+        return this;
+    }
+
+    /**
+     * Sets the time the object was last modified.
+     * @param lastModified The time the object was last modified.
+     * @return this JsonResult for further configuration.
+     */
+    public JsonResult setLastModified(Instant lastModified) {
+        this.lastModified = ConditionalRequests.truncate(lastModified);
+        return this;
     }
 
     /**
-     * Sets the JSON serialized object as the response with the status code.
+     * Sets the JSON serialized object as the response with the status code, or responds with a
+     * 304 (Not Modified) if the client's copy is current.
      * @param context The request context.
      */
     public void execute(HttpContext context) {
         HttpResponse response = context.getResponse();
         response.setStatusCode(statusCode);
-        response.setJsonBody(data);
+        if (ConditionalRequests.sendNotModified(context, statusCode, getTag(context, null, null), lastModified)) {
+            return;
+        }
+        if (streaming) {
+            response.streamJsonBody(data);
+        } else if (isHashed()) {
+            Object content = serialize(context, null);
+            if (content instanceof String) {
+                response.setTextBody((String) content);
+            } else if (content instanceof InputStream) {
+                response.setStreamBody((InputStream) content);
+            }
+        } else {
+            response.setJsonBody(data);
+        }
     }
 
     /**
-     * Sets the status code and returns the JSON serialized object to be sent asynchronously.
+     * Sets the status code and content type, then returns the JSON serialized object to be sent asynchronously.
+     * When streaming, the object is written to the response immediately instead.
      * @param context The request context.
-     * @return the JSON document.
+     * @return the JSON document, the binary document or null if the object was streamed or the client's
+     * copy is current.
      */
     public Object executeAsync(HttpContext context) {
+        return executeAsync(context, null);
+    }
+
+    /**
+     * Sets the status code and content type, then returns the serialized object to be sent asynchronously
+     * in the given content coding. When streaming, the object is written to the response immediately instead.
+     * @param context The request context.
+     * @param encoding The negotiated content coding, or null. Documents too small to be compressed, and
+     *                 streamed objects, are sent as-is.
+     * @return the JSON document, the binary document or null if the object was streamed or the client's
+     * copy is current.
+     */
+    Object executeAsync(HttpContext context, String encoding) {
         HttpResponse response = context.getResponse();
         response.setStatusCode(statusCode);
-        return context.toJson(data);
+        // Whether the document is compressed depends on its size, so its entity tag is only known before
+        // it is serialized when it is sent as-is.
+        boolean isTagKnown = streaming || encoding == null;
+        if (isTagKnown && ConditionalRequests.sendNotModified(context, statusCode, getTag(context, null, null), lastModified)) {
+            return null;
+        }
+        if (streaming) {
+            response.streamJsonBody(data);
+            return null;
+        }
+        return serialize(context, encoding);
+    }
+
+    private String getTag(HttpContext context, String hash, String coding) {
+        String tag = hash;
+        if (etag != null) {
+            // Streamed objects are always sent as JSON, while others are sent in the negotiated format.
+            tag = streaming ? etag : ConditionalRequests.forRepresentation(etag, context.getBinaryFormat());
+        }
+        return ConditionalRequests.forRepresentation(tag, coding);
+    }
+
+    private Object serialize(HttpContext context, String encoding) {
+        HttpResponse response = context.getResponse();
+        String binaryFormat = context.getBinaryFormat();
+        boolean isChecked = !isHashed() && encoding == null;
+        if (binaryFormat != null) {
+            byte[] content = context.toBinary(data, binaryFormat);
+            String hash = isHashed() ? ConditionalRequests.hash(content) : null;
+            String tag = getTag(context, hash, CompressedResult.getCoding(encoding, content.length));
+            if (!isChecked && ConditionalRequests.sendNotModified(context, statusCode, tag, lastModified)) {
+                return null;
+            }
+            response.setContentType(binaryFormat);
+            return new ByteArrayInputStream(content);
+        }
+        String json = context.toJson(data);
+        String hash = isHashed() ? ConditionalRequests.hash(json) : null;
+        String tag = getTag(context, hash, CompressedResult.getCoding(encoding, json));
+        if (!isChecked && ConditionalRequests.sendNotModified(context, statusCode, tag, lastModified)) {
+            return null;
+        }
+        response.setContentType("application/json");
+        return json;
+    }
+
+    private boolean isHashed() {
+        return computeETag && etag == null;
+    }
+
+    String getETag() {
+        return etag;
+    }
+
+    boolean isComputeETag() {
+        return computeETag;
+    }
+
+    Long getLastModified() {
+        return lastModified;
     }
 }
@@ -0,0 +1,35 @@
+package com.truncon.javalin.mvc.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Provides the parts of a multi-part request one at a time, as they are read from the request.
+ * The contents of a part can only be read until the next part is requested. Action methods can
+ * accept a MultipartStream parameter to process large uploads while they are still arriving.
+ */
+public interface MultipartStream extends Closeable {
+    /**
+     * Gets the next part of the request. Any unread content of the previous part is skipped.
+     * @return the next part, or null if there are no more parts.
+     * @throws IOException if the request cannot be read or is malformed.
+     */
+    FileUpload next() throws IOException;
+
+    /**
+     * Gets the next part with the given name. The parts before it are held aside, in memory or in a
+     * temporary file depending on their size, and are returned by later calls to this method or
+     * to {@link #next()}.
+     * @param name The name of the form field.
+     * @return the part, or null if there are no more parts with that name.
+     * @throws IOException if the request cannot be read or is malformed.
+     */
+    FileUpload getPart(String name) throws IOException;
+
+    /**
+     * Releases the parts held aside, deleting their temporary files, including those of parts already returned.
+     * @throws IOException if a temporary file cannot be deleted.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,25 @@
+package com.truncon.javalin.mvc.api;
+
+/**
+ * Receives timings from the generated route handlers. An implementation can be passed to the
+ * generated {@code ControllerRegistry} to find out whether requests spend their time binding
+ * parameters, in {@link Before} or {@link After} handlers, in the action or in producing the result.
+ * The methods are called on the request threads, so implementations must be thread-safe and fast.
+ */
+public interface RouteMetrics {
+    /**
+     * Called once for each route, when the routes are registered.
+     * @param routeId The ID identifying the route in subsequent calls to {@link #record}.
+     * @param method The HTTP method of the route (e.g., GET).
+     * @param route The path of the route.
+     */
+    void registerRoute(int routeId, String method, String route);
+
+    /**
+     * Records the time taken by part of a request.
+     * @param routeId The ID of the route handling the request.
+     * @param phase The part of the request that was timed.
+     * @param elapsedNanos The elapsed time, in nanoseconds.
+     */
+    void record(int routeId, RoutePhase phase, long elapsedNanos);
+}
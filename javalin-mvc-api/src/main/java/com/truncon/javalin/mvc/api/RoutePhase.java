@@ -0,0 +1,27 @@
+package com.truncon.javalin.mvc.api;
+
+/**
+ * Identifies the part of handling a request that is being timed by {@link RouteMetrics}.
+ */
+public enum RoutePhase {
+    /**
+     * The {@link Before} handlers are executing.
+     */
+    Before,
+    /**
+     * The action method parameters are being bound from the request.
+     */
+    Binding,
+    /**
+     * The action method is executing.
+     */
+    Action,
+    /**
+     * The result of the action method is being written to the response.
+     */
+    Result,
+    /**
+     * The {@link After} handlers are executing.
+     */
+    After
+}
@@ -0,0 +1,17 @@
+package com.truncon.javalin.mvc.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that a controller, WebSocket controller, {@link BeforeActionHandler} or
+ * {@link AfterActionHandler} holds no per-request state. A single instance is created
+ * when the routes are registered and it is shared by every request, so the class must
+ * be thread-safe.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Stateless {
+}
@@ -0,0 +1,89 @@
+package com.truncon.javalin.mvc.api.ws;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A read-only view of the data of a binary message. The view shares the buffer the message was read
+ * into, so no bytes are copied unless {@link #toByteArray()} or {@link #copyTo(byte[], int)} is called.
+ * The view is only valid while the message is being handled; handlers that keep the data around, or
+ * hand it to another thread, must copy it first.
+ */
+public final class BinaryFrame {
+    private final byte[] data;
+    private final int offset;
+    private final int length;
+
+    /**
+     * Initializes a new instance of a BinaryFrame.
+     * @param data The buffer holding the data.
+     * @param offset The offset into the buffer at the start of the data.
+     * @param length The number of bytes making up the data.
+     */
+    public BinaryFrame(byte[] data, int offset, int length) {
+        Objects.requireNonNull(data);
+        if (offset < 0 || length < 0 || offset > data.length - length) {
+            throw new IndexOutOfBoundsException("The frame lies outside of the buffer.");
+        }
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Gets the number of bytes in the frame.
+     * @return the length of the frame.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the byte at the given position in the frame.
+     * @param index The zero-based position in the frame.
+     * @return the byte.
+     */
+    public byte getByte(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        }
+        return data[offset + index];
+    }
+
+    /**
+     * Gets a read-only {@link ByteBuffer} over the frame, positioned at its first byte.
+     * @return the buffer.
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(data, offset, length).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets an {@link InputStream} reading the frame.
+     * @return the stream.
+     */
+    public InputStream asInputStream() {
+        return new ByteArrayInputStream(data, offset, length);
+    }
+
+    /**
+     * Copies the frame into the given array.
+     * @param target The array to copy the frame into.
+     * @param targetOffset The offset into the array to copy the frame to.
+     */
+    public void copyTo(byte[] target, int targetOffset) {
+        System.arraycopy(data, offset, target, targetOffset, length);
+    }
+
+    /**
+     * Copies the frame into a new array.
+     * @return the array.
+     */
+    public byte[] toByteArray() {
+        byte[] result = new byte[length];
+        copyTo(result, 0);
+        return result;
+    }
+}
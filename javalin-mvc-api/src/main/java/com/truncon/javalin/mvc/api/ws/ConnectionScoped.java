@@ -0,0 +1,17 @@
+package com.truncon.javalin.mvc.api.ws;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Indicates that a WebSocket controller should be retrieved from a dependency injection scope
+ * that is created when a client connects and reused for every message of that connection,
+ * rather than from a new scope for every message. The scope is discarded once the connection
+ * is closed.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConnectionScoped {
+}
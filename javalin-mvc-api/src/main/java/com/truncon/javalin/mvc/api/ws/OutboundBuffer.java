@@ -0,0 +1,56 @@
+package com.truncon.javalin.mvc.api.ws;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures the buffer holding the messages sent asynchronously to the sessions of a WebSocket
+ * controller, e.g., with {@link WsResponse#sendTextAsync(String)} or by a broadcast. Every session has
+ * its own buffer. Controllers without this annotation use the default values.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface OutboundBuffer {
+    /**
+     * Gets the maximum number of bytes buffered for a session. Text is counted by the size of its
+     * UTF-8 encoding. A single message larger than this is still accepted once the buffer is empty.
+     * @return the maximum number of buffered bytes.
+     */
+    long maxBytes() default 1024 * 1024;
+
+    /**
+     * Gets what happens when a message is sent while the buffer of a session is full.
+     * @return the overflow policy.
+     */
+    WsOverflowPolicy overflowPolicy() default WsOverflowPolicy.DROP_OLDEST;
+
+    /**
+     * Gets how long queued messages wait for others to be sent along with them, in the given unit.
+     * A value of zero hands every message to the connection immediately.
+     * @return the flush delay.
+     */
+    long flushDelay() default 5;
+
+    /**
+     * Gets the number of queued bytes at which the queued messages are handed to the connection
+     * without waiting for the flush delay.
+     * @return the number of queued bytes.
+     */
+    int flushThreshold() default 8 * 1024;
+
+    /**
+     * Gets how long a sender waits for room in the buffer under {@link WsOverflowPolicy#BLOCK}, in the
+     * given unit, before the session is closed as if the policy were {@link WsOverflowPolicy#CLOSE}.
+     * @return the block timeout.
+     */
+    long blockTimeout() default 30_000;
+
+    /**
+     * Gets the unit of the flush delay and of the block timeout.
+     * @return the unit.
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
@@ -1,5 +1,7 @@
 package com.truncon.javalin.mvc.api.ws;
 
+import java.nio.ByteBuffer;
+
 /**
  * Provides information about a received binary message.
  */
@@ -22,4 +24,18 @@ public interface WsBinaryMessageContext extends WsContext {
      * @return The number of bytes.
      */
     Integer getLength();
+
+    /**
+     * Gets a read-only view of the binary data, without copying it.
+     * @return the frame.
+     */
+    BinaryFrame getFrame();
+
+    /**
+     * Gets a read-only {@link ByteBuffer} over the binary data, without copying it.
+     * @return the buffer, positioned at the first byte of the data.
+     */
+    default ByteBuffer getBuffer() {
+        return getFrame().asByteBuffer();
+    }
 }
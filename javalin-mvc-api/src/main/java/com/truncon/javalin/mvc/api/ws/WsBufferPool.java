@@ -0,0 +1,98 @@
+package com.truncon.javalin.mvc.api.ws;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pools direct {@link ByteBuffer}s for outbound binary messages. Heap buffers are copied into a
+ * temporary direct buffer by every socket write, while direct buffers are written as-is, but direct
+ * buffers are expensive to allocate, so they are reused rather than left to the garbage collector.
+ *
+ * Buffers are grouped by capacity, rounded up to a power of two. Pass the pool to a
+ * {@link WsByteBufferResult} and the buffer is returned to the pool once it is written.
+ */
+public final class WsBufferPool {
+    private static final int MIN_CAPACITY_SHIFT = 10;
+    private static final int MAX_CAPACITY_SHIFT = 24;
+
+    private final int maxPooledBuffers;
+    private final Bucket[] buckets = new Bucket[MAX_CAPACITY_SHIFT - MIN_CAPACITY_SHIFT + 1];
+
+    /**
+     * Initializes a new instance of a WsBufferPool that keeps up to 64 idle buffers of each capacity.
+     */
+    public WsBufferPool() {
+        this(64);
+    }
+
+    /**
+     * Initializes a new instance of a WsBufferPool.
+     * @param maxPooledBuffers The maximum number of idle buffers kept for each capacity.
+     */
+    public WsBufferPool(int maxPooledBuffers) {
+        this.maxPooledBuffers = maxPooledBuffers;
+        for (int index = 0; index != buckets.length; ++index) {
+            buckets[index] = new Bucket();
+        }
+    }
+
+    /**
+     * Gets a direct buffer with at least the given capacity. The limit of the buffer is set to the
+     * requested capacity. Buffers larger than 16 MB are allocated without being pooled.
+     * @param capacity The number of bytes needed.
+     * @return the buffer.
+     */
+    public ByteBuffer acquire(int capacity) {
+        int shift = getShift(capacity);
+        if (shift > MAX_CAPACITY_SHIFT) {
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        Bucket bucket = buckets[shift - MIN_CAPACITY_SHIFT];
+        ByteBuffer buffer = bucket.buffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(1 << shift);
+        } else {
+            bucket.count.decrementAndGet();
+        }
+        // Called through Buffer, whose methods are not overridden by ByteBuffer on Java 8.
+        ((Buffer) buffer).clear();
+        ((Buffer) buffer).limit(capacity);
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer obtained from {@link #acquire(int)} to the pool. The buffer must not be used afterward.
+     * @param buffer The buffer.
+     */
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (!buffer.isDirect() || Integer.bitCount(capacity) != 1) {
+            return;
+        }
+        int shift = Integer.numberOfTrailingZeros(capacity);
+        if (shift < MIN_CAPACITY_SHIFT || shift > MAX_CAPACITY_SHIFT) {
+            return;
+        }
+        Bucket bucket = buckets[shift - MIN_CAPACITY_SHIFT];
+        if (bucket.count.incrementAndGet() > maxPooledBuffers) {
+            bucket.count.decrementAndGet();
+            return;
+        }
+        bucket.buffers.offer(buffer);
+    }
+
+    private static int getShift(int capacity) {
+        if (capacity <= 1 << MIN_CAPACITY_SHIFT) {
+            return MIN_CAPACITY_SHIFT;
+        }
+        return Integer.SIZE - Integer.numberOfLeadingZeros(capacity - 1);
+    }
+
+    private static final class Bucket {
+        private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger count = new AtomicInteger();
+    }
+}
@@ -7,6 +7,7 @@ import java.nio.ByteBuffer;
  */
 public final class WsByteBufferResult implements WsActionResult {
     private final ByteBuffer data;
+    private final WsBufferPool pool;
 
     /**
      * Initializes a new instance of a WsByteArrayResult.
@@ -14,6 +15,18 @@ public final class WsByteBufferResult implements WsActionResult {
      */
     public WsByteBufferResult(ByteBuffer buffer) {
         this.data = buffer;
+        this.pool = null;
+    }
+
+    /**
+     * Initializes a new instance of a WsByteBufferResult whose buffer was acquired from a pool. The data
+     * is sent asynchronously, and the buffer is returned to the pool once it is written.
+     * @param buffer The data to send.
+     * @param pool The pool the buffer was acquired from.
+     */
+    public WsByteBufferResult(ByteBuffer buffer, WsBufferPool pool) {
+        this.data = buffer;
+        this.pool = pool;
     }
 
     /**
@@ -22,6 +35,10 @@ public final class WsByteBufferResult implements WsActionResult {
      */
     public void execute(WsContext context) {
         WsResponse response = context.getResponse();
-        response.sendBinary(data);
+        if (pool == null) {
+            response.sendBinary(data);
+        } else {
+            response.sendBinaryAsync(data).whenComplete((result, exception) -> pool.release(data));
+        }
     }
 }
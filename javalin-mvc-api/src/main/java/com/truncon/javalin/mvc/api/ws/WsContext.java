@@ -34,6 +34,12 @@ public interface WsContext {
      */
     <T> T fromJson(String json, Class<T>  dataClass);
 
+    /**
+     * Gets the ID of the WebSocket session, which stays the same for every event of a connection.
+     * @return the session ID.
+     */
+    String getSessionId();
+
     /**
      * Gets access to the underlying implementation of the context.
      * @return An object.
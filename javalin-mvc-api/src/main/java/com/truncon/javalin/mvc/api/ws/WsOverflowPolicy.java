@@ -0,0 +1,24 @@
+package com.truncon.javalin.mvc.api.ws;
+
+/**
+ * Determines what happens when a message is sent asynchronously while the outbound buffer of a
+ * WebSocket session is full, because the client is reading slower than messages are produced.
+ */
+public enum WsOverflowPolicy {
+    /**
+     * Discards the oldest messages that have not been handed to the connection yet, to make room for
+     * the new message. When the messages already handed to the connection fill the buffer by themselves,
+     * the new message is discarded instead. The futures of the discarded messages are cancelled.
+     */
+    DROP_OLDEST,
+    /**
+     * Blocks the sending thread until the client has read enough to make room for the new message. If
+     * the client does not catch up within the block timeout, the session is closed as with {@link #CLOSE}.
+     */
+    BLOCK,
+    /**
+     * Closes the session with a 1008 (Policy Violation) status code. The futures of the new message and
+     * of the messages still buffered complete exceptionally.
+     */
+    CLOSE
+}
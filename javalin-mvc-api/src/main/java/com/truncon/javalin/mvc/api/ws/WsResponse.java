@@ -1,6 +1,7 @@
 package com.truncon.javalin.mvc.api.ws;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Provides functionality for sending a WebSocket response.
@@ -43,4 +44,50 @@ public interface WsResponse {
      * @param buffer A {@link ByteBuffer} wrapping the data to send.
      */
     void sendBinary(ByteBuffer buffer);
+
+    /**
+     * Queues textual content to be sent to the client. Messages queued in quick succession are handed
+     * to the connection together, either after a short delay or once enough of them are buffered. The
+     * messages are sent in the order they are queued.
+     * @param content The text to send.
+     * @return a future completed once the message is written, or exceptionally if it cannot be sent.
+     */
+    CompletableFuture<Void> sendTextAsync(String content);
+
+    /**
+     * Queues the given object, serialized as JSON, to be sent to the client.
+     * @param data The object to send as JSON.
+     * @return a future completed once the message is written, or exceptionally if it cannot be sent.
+     */
+    CompletableFuture<Void> sendJsonAsync(Object data);
+
+    /**
+     * Queues binary data to be sent to the client.
+     * @param data A byte array containing the data to send.
+     * @return a future completed once the message is written, or exceptionally if it cannot be sent.
+     */
+    default CompletableFuture<Void> sendBinaryAsync(byte[] data) {
+        return sendBinaryAsync(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Queues binary data to be sent to the client. The buffer must not be modified until the returned
+     * future completes.
+     * @param buffer A {@link ByteBuffer} wrapping the data to send.
+     * @return a future completed once the message is written, or exceptionally if it cannot be sent.
+     */
+    CompletableFuture<Void> sendBinaryAsync(ByteBuffer buffer);
+
+    /**
+     * Gets the number of asynchronously sent messages that have not been written to the client yet.
+     * @return the number of buffered messages.
+     */
+    int getBufferedMessageCount();
+
+    /**
+     * Gets the size of the asynchronously sent messages that have not been written to the client yet.
+     * Text is counted by the size of its UTF-8 encoding.
+     * @return the number of buffered bytes.
+     */
+    long getBufferedByteCount();
 }
@@ -0,0 +1,78 @@
+package com.truncon.javalin.mvc.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.truncon.javalin.mvc.ControllerRegistry;
+import com.truncon.javalin.mvc.test.DaggerWebContainer;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import io.javalin.plugin.json.JavalinJackson;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates Javalin contexts and captures the handlers generated for the test application.
+ */
+final class Contexts {
+    private static final Method SET_PATH_PARAMS = getPathParamSetter();
+
+    private Contexts() {
+    }
+
+    /**
+     * Configures Jackson the same way the test application does.
+     */
+    public static void configureJson() {
+        ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new ParameterNamesModule())
+            .registerModule(new Jdk8Module())
+            .registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_WITH_ZONE_ID, true);
+        JavalinJackson.configure(mapper);
+    }
+
+    public static Context create(HttpServletRequest request) {
+        return create(request, Collections.emptyMap());
+    }
+
+    public static Context create(HttpServletRequest request, Map<String, String> pathParameters) {
+        Context context = new Context(request, MockServlet.response(), Collections.emptyMap());
+        // Javalin normally sets the path parameters when matching the route; the setter is Kotlin-internal.
+        try {
+            SET_PATH_PARAMS.invoke(context, pathParameters);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException(exception);
+        }
+        return context;
+    }
+
+    /**
+     * Registers the generated ControllerRegistry of the test application, without starting a server.
+     * @return the handlers, keyed by HTTP method and route (e.g., "GET /api/values").
+     */
+    public static Map<String, Handler> getHandlers() {
+        Javalin app = Javalin.create(config -> config.showJavalinBanner = false);
+        Map<String, Handler> handlers = new HashMap<>();
+        app.events(events -> events.handlerAdded(info ->
+            handlers.put(info.getHttpMethod() + " " + info.getPath(), (Handler)info.getHandler())));
+        ControllerRegistry registry = new ControllerRegistry(() -> DaggerWebContainer.builder().build());
+        registry.register(app);
+        return handlers;
+    }
+
+    private static Method getPathParamSetter() {
+        try {
+            return Context.class.getMethod("setPathParamMap$javalin", Map.class);
+        } catch (NoSuchMethodException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
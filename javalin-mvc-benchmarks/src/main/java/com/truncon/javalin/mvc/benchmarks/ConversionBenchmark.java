@@ -0,0 +1,115 @@
+package com.truncon.javalin.mvc.benchmarks;
+
+import com.truncon.javalin.mvc.ConversionUtils;
+import com.truncon.javalin.mvc.Converter;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converting raw request values to each supported parameter type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+    private static final Map<String, Class<?>> TYPES = new HashMap<>();
+    private static final Map<String, String> VALUES = new HashMap<>();
+
+    static {
+        addType("String", String.class, "Hello");
+        addType("boolean", boolean.class, "true");
+        addType("Boolean", Boolean.class, "true");
+        addType("int", int.class, "12345");
+        addType("Integer", Integer.class, "12345");
+        addType("long", long.class, "1234567890123");
+        addType("Long", Long.class, "1234567890123");
+        addType("short", short.class, "123");
+        addType("Short", Short.class, "123");
+        addType("byte", byte.class, "12");
+        addType("Byte", Byte.class, "12");
+        addType("double", double.class, "123.45");
+        addType("Double", Double.class, "123.45");
+        addType("float", float.class, "123.45");
+        addType("Float", Float.class, "123.45");
+        addType("char", char.class, "c");
+        addType("Character", Character.class, "c");
+        addType("BigInteger", BigInteger.class, "12345678901234567890");
+        addType("BigDecimal", BigDecimal.class, "12345678901234567890.123");
+        addType("UUID", UUID.class, "5ad6bb21-a3a3-4f54-9bd5-4eb1e9a1f5c8");
+        addType("Date", Date.class, "2020-03-20T12:34:56.789Z");
+        addType("Instant", Instant.class, "2020-03-20T12:34:56.789Z");
+        addType("ZonedDateTime", ZonedDateTime.class, "2020-03-20T12:34:56.789Z[UTC]");
+        addType("OffsetDateTime", OffsetDateTime.class, "2020-03-20T12:34:56.789Z");
+        addType("LocalDateTime", LocalDateTime.class, "2020-03-20T12:34:56.789");
+        addType("LocalDate", LocalDate.class, "2020-03-20");
+    }
+
+    private static void addType(String name, Class<?> type, String value) {
+        TYPES.put(name, type);
+        VALUES.put(name, value);
+    }
+
+    @Param({
+        "String", "boolean", "Boolean", "int", "Integer", "long", "Long", "short", "Short", "byte", "Byte",
+        "double", "Double", "float", "Float", "char", "Character", "BigInteger", "BigDecimal", "UUID",
+        "Date", "Instant", "ZonedDateTime", "OffsetDateTime", "LocalDateTime", "LocalDate"
+    })
+    public String typeName;
+
+    private Class<?> type;
+    private List<String> value;
+    private Converter<?> converter;
+
+    @Setup
+    public void setup() {
+        type = TYPES.get(typeName);
+        value = Collections.singletonList(VALUES.get(typeName));
+        converter = ConversionUtils.getConverter(type);
+    }
+
+    @State(Scope.Benchmark)
+    public static class ArrayState {
+        @Param({ "1", "16" })
+        public int arrayLength;
+
+        private Class<?> arrayType;
+        private List<String> values;
+        private Converter<?> converter;
+
+        @Setup
+        public void setup(ConversionBenchmark benchmark) {
+            arrayType = Array.newInstance(benchmark.type, 0).getClass();
+            values = Collections.nCopies(arrayLength, benchmark.value.get(0));
+            converter = ConversionUtils.getConverter(arrayType);
+        }
+    }
+
+    @Benchmark
+    public Optional<Object> toParameterValue() {
+        return ConversionUtils.toParameterValue(type, value);
+    }
+
+    @Benchmark
+    public Optional<Object> toParameterValue_array(ArrayState state) {
+        return ConversionUtils.toParameterValue(state.arrayType, state.values);
+    }
+
+    @Benchmark
+    public Object convert() {
+        return converter.convert(value);
+    }
+
+    @Benchmark
+    public Object convert_array(ArrayState state) {
+        return state.converter.convert(state.values);
+    }
+}
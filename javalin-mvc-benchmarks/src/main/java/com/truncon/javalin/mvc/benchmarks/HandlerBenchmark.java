@@ -0,0 +1,72 @@
+package com.truncon.javalin.mvc.benchmarks;
+
+import com.truncon.javalin.mvc.test.controllers.ObjectBodyController;
+import com.truncon.javalin.mvc.test.controllers.ObjectParameterController;
+import com.truncon.javalin.mvc.test.controllers.PrimitiveParameterController;
+import io.javalin.http.Context;
+import io.javalin.http.Handler;
+import org.openjdk.jmh.annotations.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures invoking the handlers generated for the test application end-to-end, from the Javalin
+ * {@link Context} to the serialized result, without the overhead of a server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerBenchmark {
+    private Handler pathHandler;
+    private HttpServletRequest pathRequest;
+    private Handler queryModelHandler;
+    private HttpServletRequest queryModelRequest;
+    private Handler jsonBodyHandler;
+    private HttpServletRequest jsonBodyRequest;
+
+    @Setup
+    public void setup() {
+        Contexts.configureJson();
+        Map<String, Handler> handlers = Contexts.getHandlers();
+
+        pathHandler = handlers.get("GET " + PrimitiveParameterController.INTEGER_ROUTE);
+        pathRequest = MockServlet.request("GET", "/api/primitives/int/12345").build();
+
+        queryModelHandler = handlers.get("GET " + ObjectParameterController.BOXED_QUERY_ROUTE);
+        queryModelRequest = MockServlet.request("GET", ObjectParameterController.BOXED_QUERY_ROUTE)
+            .queryString("string=Hello&integer=12345&boolean=true&uuid=5ad6bb21-a3a3-4f54-9bd5-4eb1e9a1f5c8")
+            .build();
+
+        jsonBodyHandler = handlers.get("POST " + ObjectBodyController.BOXED_BODY_ROUTE);
+        jsonBodyRequest = MockServlet.request("POST", ObjectBodyController.BOXED_BODY_ROUTE)
+            .body("application/json", "{\"string\":\"Hello\",\"integer\":12345,\"boolean\":true}")
+            .build();
+    }
+
+    @Benchmark
+    public Context primitivePathParameter() throws Exception {
+        Context context = Contexts.create(pathRequest, Collections.singletonMap("value", "12345"));
+        pathHandler.handle(context);
+        return context;
+    }
+
+    @Benchmark
+    public Context queryStringModel() throws Exception {
+        Context context = Contexts.create(queryModelRequest);
+        queryModelHandler.handle(context);
+        return context;
+    }
+
+    @Benchmark
+    public Context jsonBodyModel() throws Exception {
+        Context context = Contexts.create(jsonBodyRequest);
+        jsonBodyHandler.handle(context);
+        return context;
+    }
+}
@@ -0,0 +1,50 @@
+package com.truncon.javalin.mvc.benchmarks;
+
+import com.truncon.javalin.mvc.JavalinHttpContext;
+import com.truncon.javalin.mvc.api.HttpContext;
+import com.truncon.javalin.mvc.api.HttpRequest;
+import io.javalin.http.Context;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the request and response accesses a typical generated handler makes: one request access per
+ * parameter and one response access per result. Run with {@code -prof gc} to see the bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpContextBenchmark {
+    private Context context;
+
+    @Setup
+    public void setup() {
+        context = Contexts.create(
+            MockServlet.request("GET", "/api/customers/1")
+                .header("X-Tenant", "acme")
+                .cookie("session", "abc")
+                .queryString("page=2&size=50&sort=name")
+                .build(),
+            Collections.singletonMap("id", "1"));
+    }
+
+    @Benchmark
+    public void accessParameters(Blackhole blackhole) {
+        HttpContext wrapper = new JavalinHttpContext(context);
+        HttpRequest request = wrapper.getRequest();
+        blackhole.consume(request.getPathLookup().get("id"));
+        blackhole.consume(wrapper.getRequest().getQueryLookup().get("page"));
+        blackhole.consume(wrapper.getRequest().getQueryLookup().get("size"));
+        blackhole.consume(wrapper.getRequest().getQueryLookup().get("sort"));
+        blackhole.consume(wrapper.getRequest().getHeaderLookup().get("X-Tenant"));
+        blackhole.consume(wrapper.getRequest().getCookieLookup().get("session"));
+        blackhole.consume(wrapper.getResponse());
+        blackhole.consume(wrapper.getResponse());
+    }
+}
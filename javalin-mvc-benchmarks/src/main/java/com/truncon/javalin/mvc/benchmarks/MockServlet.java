@@ -0,0 +1,264 @@
+package com.truncon.javalin.mvc.benchmarks;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Creates in-memory servlet requests and responses, so handlers can be invoked without a server.
+ * Only the members Javalin and Javalin MVC use while handling a request are implemented; everything
+ * else returns a default value.
+ */
+final class MockServlet {
+    private MockServlet() {
+    }
+
+    public static RequestBuilder request(String method, String path) {
+        return new RequestBuilder(method, path);
+    }
+
+    public static HttpServletResponse response() {
+        Map<String, String> headers = new HashMap<>();
+        int[] status = { 200 };
+        String[] contentType = { null };
+        ServletOutputStream outputStream = new NullServletOutputStream();
+        PrintWriter writer = new PrintWriter(outputStream);
+        return proxy(HttpServletResponse.class, (method, args) -> {
+            switch (method.getName()) {
+                case "setStatus":
+                    status[0] = (Integer)args[0];
+                    return null;
+                case "getStatus":
+                    return status[0];
+                case "setContentType":
+                    contentType[0] = (String)args[0];
+                    return null;
+                case "getContentType":
+                    return contentType[0];
+                case "setHeader":
+                case "addHeader":
+                    headers.put((String)args[0], (String)args[1]);
+                    return null;
+                case "getHeader":
+                    return headers.get((String)args[0]);
+                case "containsHeader":
+                    return headers.containsKey((String)args[0]);
+                case "getHeaderNames":
+                    return headers.keySet();
+                case "getOutputStream":
+                    return outputStream;
+                case "getWriter":
+                    return writer;
+                case "getCharacterEncoding":
+                    return StandardCharsets.UTF_8.name();
+                default:
+                    return null;
+            }
+        });
+    }
+
+    public static final class RequestBuilder {
+        private final String method;
+        private final String path;
+        private final Map<String, String> headers = new LinkedHashMap<>();
+        private final List<Cookie> cookies = new ArrayList<>();
+        private String queryString;
+        private String contentType;
+        private byte[] body = new byte[0];
+
+        private RequestBuilder(String method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+
+        public RequestBuilder header(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        public RequestBuilder cookie(String name, String value) {
+            cookies.add(new Cookie(name, value));
+            return this;
+        }
+
+        public RequestBuilder queryString(String queryString) {
+            this.queryString = queryString;
+            return this;
+        }
+
+        public RequestBuilder body(String contentType, String body) {
+            this.contentType = contentType;
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+            return this;
+        }
+
+        /**
+         * Creates the request. The body can be read any number of times.
+         * @return the request.
+         */
+        public HttpServletRequest build() {
+            Map<String, Object> attributes = new HashMap<>();
+            Cookie[] cookieArray = cookies.isEmpty() ? null : cookies.toArray(new Cookie[0]);
+            return proxy(HttpServletRequest.class, (method, args) -> {
+                switch (method.getName()) {
+                    case "getMethod":
+                        return this.method;
+                    case "getRequestURI":
+                    case "getPathInfo":
+                    case "getServletPath":
+                        return path;
+                    case "getContextPath":
+                        return "";
+                    case "getRequestURL":
+                        return new StringBuffer("http://localhost").append(path);
+                    case "getQueryString":
+                        return queryString;
+                    case "getHeader":
+                        return getHeader((String)args[0]);
+                    case "getHeaders":
+                        String header = getHeader((String)args[0]);
+                        return Collections.enumeration(header == null
+                            ? Collections.emptyList()
+                            : Collections.singletonList(header));
+                    case "getHeaderNames":
+                        return Collections.enumeration(headers.keySet());
+                    case "getCookies":
+                        return cookieArray;
+                    case "getContentType":
+                        return contentType;
+                    case "getContentLength":
+                        return body.length;
+                    case "getContentLengthLong":
+                        return (long)body.length;
+                    case "getCharacterEncoding":
+                        return StandardCharsets.UTF_8.name();
+                    case "getInputStream":
+                        // Every read starts from the beginning, so a request can be replayed.
+                        return new ByteArrayServletInputStream(body);
+                    case "getProtocol":
+                        return "HTTP/1.1";
+                    case "getScheme":
+                        return "http";
+                    case "getServerName":
+                        return "localhost";
+                    case "getServerPort":
+                        return 80;
+                    case "getAttribute":
+                        return attributes.get((String)args[0]);
+                    case "setAttribute":
+                        attributes.put((String)args[0], args[1]);
+                        return null;
+                    case "removeAttribute":
+                        attributes.remove((String)args[0]);
+                        return null;
+                    case "getAttributeNames":
+                        return Collections.enumeration(attributes.keySet());
+                    case "getParameterMap":
+                        return Collections.emptyMap();
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        private String getHeader(String name) {
+            for (Map.Entry<String, String> entry : headers.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(name)) {
+                    return entry.getValue();
+                }
+            }
+            return null;
+        }
+    }
+
+    private interface Invocation {
+        Object invoke(Method method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Invocation invocation) {
+        return (T)Proxy.newProxyInstance(
+            MockServlet.class.getClassLoader(),
+            new Class<?>[] { type },
+            (proxy, method, args) -> {
+                Object result = invocation.invoke(method, args);
+                if (result == null && method.getReturnType().isPrimitive()) {
+                    return getDefault(method.getReturnType());
+                }
+                return result;
+            });
+    }
+
+    private static Object getDefault(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else {
+            return null;
+        }
+    }
+
+    private static final class ByteArrayServletInputStream extends ServletInputStream {
+        private final ByteArrayInputStream stream;
+
+        public ByteArrayServletInputStream(byte[] body) {
+            this.stream = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return stream.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            return stream.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return stream.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+        }
+    }
+
+    private static final class NullServletOutputStream extends ServletOutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.truncon.javalin.mvc.benchmarks;
+
+import com.truncon.javalin.mvc.DefaultModelBinder;
+import com.truncon.javalin.mvc.JavalinHttpContext;
+import com.truncon.javalin.mvc.api.HttpRequest;
+import com.truncon.javalin.mvc.api.ValueSource;
+import io.javalin.http.Context;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures binding a single parameter with {@link DefaultModelBinder#getValue} from each {@link ValueSource}.
+ * A new context and binder are created for each invocation, just like the generated handlers do for each request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBinderBenchmark {
+    private static final int HEADER_COUNT = 40;
+
+    @Param({ "Any", "Path", "Header", "Cookie", "QueryString", "FormData" })
+    public ValueSource valueSource;
+
+    private Context context;
+
+    @Setup
+    public void setup() {
+        MockServlet.RequestBuilder builder = MockServlet.request("GET", "/api/values/1");
+        for (int index = 0; index != HEADER_COUNT; ++index) {
+            builder.header("X-Header-" + index, Integer.toString(index));
+        }
+        builder.header("value", "2")
+            .cookie("value", "3")
+            .queryString("other=0&value=4");
+        if (valueSource == ValueSource.FormData) {
+            builder.body("application/x-www-form-urlencoded", "other=0&value=5");
+        }
+        context = Contexts.create(builder.build(), Collections.singletonMap("value", "1"));
+    }
+
+    @Benchmark
+    public Object getValue() {
+        HttpRequest request = new JavalinHttpContext(context).getRequest();
+        DefaultModelBinder binder = new DefaultModelBinder(request);
+        return binder.getValue("value", Integer.class, valueSource);
+    }
+}
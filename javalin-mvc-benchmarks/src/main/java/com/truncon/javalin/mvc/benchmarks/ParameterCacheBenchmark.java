@@ -0,0 +1,82 @@
+package com.truncon.javalin.mvc.benchmarks;
+
+import com.truncon.javalin.mvc.ParameterCache;
+import com.truncon.javalin.mvc.test.models.BoxedModel;
+import com.truncon.javalin.mvc.test.models.ContactModel;
+import com.truncon.javalin.mvc.test.models.ContactModel$$Binder;
+import com.truncon.javalin.mvc.test.models.PrimitiveModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures binding every property of a model, both reflectively with {@link ParameterCache#bindValues}
+ * and with the binders generated at compile time. Models with private fields that no setter covers,
+ * like {@link PrimitiveModel} and {@link BoxedModel}, are only bound reflectively.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterCacheBenchmark {
+    private Map<String, List<String>> primitiveValues;
+    private Map<String, List<String>> boxedValues;
+    private Map<String, List<String>> contactValues;
+
+    @Setup
+    public void setup() {
+        primitiveValues = new HashMap<>();
+        primitiveValues.put("boolean", Collections.singletonList("true"));
+        primitiveValues.put("integer", Collections.singletonList("12345"));
+        primitiveValues.put("double", Collections.singletonList("123.45"));
+        primitiveValues.put("byte", Collections.singletonList("12"));
+        primitiveValues.put("short", Collections.singletonList("123"));
+        primitiveValues.put("float", Collections.singletonList("123.45"));
+        primitiveValues.put("char", Collections.singletonList("c"));
+        primitiveValues.put("long", Collections.singletonList("1234567890123"));
+
+        boxedValues = new HashMap<>(primitiveValues);
+        boxedValues.remove("char");
+        boxedValues.put("string", Collections.singletonList("Hello"));
+        boxedValues.put("character", Collections.singletonList("c"));
+        boxedValues.put("date", Collections.singletonList("2020-03-20T12:34:56.789Z"));
+        boxedValues.put("instant", Collections.singletonList("2020-03-20T12:34:56.789Z"));
+        boxedValues.put("zonedDateTime", Collections.singletonList("2020-03-20T12:34:56.789Z[UTC]"));
+        boxedValues.put("offsetDateTime", Collections.singletonList("2020-03-20T12:34:56.789Z"));
+        boxedValues.put("localDateTime", Collections.singletonList("2020-03-20T12:34:56.789"));
+        boxedValues.put("localDate", Collections.singletonList("2020-03-20"));
+        boxedValues.put("bigInteger", Collections.singletonList("12345678901234567890"));
+        boxedValues.put("bigDecimal", Collections.singletonList("12345678901234567890.123"));
+        boxedValues.put("uuid", Collections.singletonList("5ad6bb21-a3a3-4f54-9bd5-4eb1e9a1f5c8"));
+
+        contactValues = new HashMap<>();
+        contactValues.put("id", Collections.singletonList("5ad6bb21-a3a3-4f54-9bd5-4eb1e9a1f5c8"));
+        contactValues.put("name", Collections.singletonList("Alice"));
+        contactValues.put("email", Collections.singletonList("alice@example.com"));
+        contactValues.put("age", Collections.singletonList("42"));
+        contactValues.put("birthDate", Collections.singletonList("1980-01-02"));
+    }
+
+    @Benchmark
+    public Object bindValues_primitiveModel() {
+        return new ParameterCache(() -> primitiveValues).bindValues(PrimitiveModel.class);
+    }
+
+    @Benchmark
+    public Object bindValues_boxedModel() {
+        return new ParameterCache(() -> boxedValues).bindValues(BoxedModel.class);
+    }
+
+    @Benchmark
+    public Object bindValues_contactModel() {
+        return new ParameterCache(() -> contactValues).bindValues(ContactModel.class);
+    }
+
+    @Benchmark
+    public ContactModel generatedBinder_contactModel() {
+        return ContactModel$$Binder.bind(new ParameterCache(() -> contactValues));
+    }
+}
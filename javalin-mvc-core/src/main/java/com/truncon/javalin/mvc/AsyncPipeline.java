@@ -0,0 +1,144 @@
+package com.truncon.javalin.mvc;
+
+import com.truncon.javalin.mvc.api.RouteMetrics;
+import com.truncon.javalin.mvc.api.RoutePhase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Composes the before handlers, the action and the after handlers of a request into a single
+ * future. The generated route handlers use it when a route has an asynchronous handler, or when
+ * an action returning a {@link CompletableFuture} has after handlers, so that each step only
+ * starts once the previous one completes, without blocking the request thread.
+ */
+public final class AsyncPipeline {
+    private final RouteMetrics metrics;
+    private final int routeId;
+    private final List<Supplier<CompletableFuture<Boolean>>> beforeHandlers = new ArrayList<>();
+    private final List<Function<Exception, CompletableFuture<Exception>>> afterHandlers = new ArrayList<>();
+    private long startNanos;
+    private Action action;
+
+    /**
+     * Creates a pipeline for the current request.
+     * @param metrics The metrics, or null if metrics are not being collected.
+     * @param routeId The ID of the route handling the request.
+     * @param startNanos The time the before phase started.
+     */
+    public AsyncPipeline(RouteMetrics metrics, int routeId, long startNanos) {
+        this.metrics = metrics;
+        this.routeId = routeId;
+        this.startNanos = startNanos;
+    }
+
+    public void before(BooleanSupplier handler) {
+        beforeHandlers.add(() -> CompletableFuture.completedFuture(handler.getAsBoolean()));
+    }
+
+    public void beforeAsync(Supplier<CompletableFuture<Boolean>> handler) {
+        beforeHandlers.add(handler);
+    }
+
+    public void action(Action action) {
+        this.action = action;
+    }
+
+    public void after(UnaryOperator<Exception> handler) {
+        afterHandlers.add(e -> CompletableFuture.completedFuture(handler.apply(e)));
+    }
+
+    public void afterAsync(Function<Exception, CompletableFuture<Exception>> handler) {
+        afterHandlers.add(handler);
+    }
+
+    /**
+     * Runs the before handlers one after the other, stopping if any of them cancels the request,
+     * then the action, then the after handlers.
+     * @return a future completed with the content to send, or null if there is no content.
+     */
+    public CompletableFuture<Object> execute() {
+        CompletableFuture<Boolean> proceed = CompletableFuture.completedFuture(true);
+        for (Supplier<CompletableFuture<Boolean>> handler : beforeHandlers) {
+            proceed = proceed.thenCompose(p -> p ? handler.get() : CompletableFuture.completedFuture(false));
+        }
+        return proceed.thenCompose(p -> {
+            if (!beforeHandlers.isEmpty()) {
+                startNanos = MetricsUtils.record(metrics, routeId, RoutePhase.Before, startNanos);
+            }
+            return p ? executeAction() : CompletableFuture.completedFuture(null);
+        });
+    }
+
+    private CompletableFuture<Object> executeAction() {
+        CompletableFuture<Object> content = invoke();
+        if (afterHandlers.isEmpty()) {
+            return content;
+        }
+        return content.handle(Outcome::new).thenCompose(this::executeAfter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Object> invoke() {
+        try {
+            return (CompletableFuture<Object>) action.execute();
+        } catch (Exception exception) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            future.completeExceptionally(exception);
+            return future;
+        }
+    }
+
+    private CompletableFuture<Object> executeAfter(Outcome outcome) {
+        long afterStart = MetricsUtils.start(metrics);
+        CompletableFuture<Exception> exception = CompletableFuture.completedFuture(outcome.exception);
+        for (Function<Exception, CompletableFuture<Exception>> handler : afterHandlers) {
+            exception = exception.thenCompose(handler);
+        }
+        return exception.thenApply(e -> {
+            MetricsUtils.record(metrics, routeId, RoutePhase.After, afterStart);
+            if (e != null) {
+                throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+            }
+            return outcome.content;
+        });
+    }
+
+    /**
+     * Runs the action and produces the content of its result.
+     */
+    @FunctionalInterface
+    public interface Action {
+        CompletableFuture<?> execute() throws Exception;
+    }
+
+    private static final class Outcome {
+        private final Object content;
+        private final Exception exception;
+
+        public Outcome(Object content, Throwable throwable) {
+            this.content = content;
+            this.exception = getException(throwable);
+        }
+
+        private static Exception getException(Throwable throwable) {
+            if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+            if (throwable == null || throwable instanceof Exception) {
+                return (Exception) throwable;
+            }
+            // Errors are not passed to the after handlers, the same as when the action runs synchronously.
+            if (throwable instanceof Error) {
+                throw (Error) throwable;
+            }
+            throw new CompletionException(throwable);
+        }
+    }
+}
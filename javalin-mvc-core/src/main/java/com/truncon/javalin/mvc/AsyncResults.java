@@ -0,0 +1,51 @@
+package com.truncon.javalin.mvc;
+
+import io.javalin.http.Context;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Sends the response of a request once asynchronous work completes. Javalin discards a pending
+ * future result whenever the body is set, so while the work is running, the bodies set through
+ * {@link JavalinHttpResponse} are held aside and sent when the work completes without content.
+ */
+public final class AsyncResults {
+    private static final String PENDING_RESULT = AsyncResults.class.getName() + ".pendingResult";
+
+    private AsyncResults() {
+    }
+
+    /**
+     * Sets the result of the request to the content produced by the given work. The result is
+     * registered with Javalin before the work starts, so the work can safely set the body from any thread.
+     * @param context The request context.
+     * @param work Starts the work, returning a future completed with the content to send, or null.
+     */
+    public static void setResult(Context context, Supplier<CompletableFuture<?>> work) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        context.result(result);
+        CompletableFuture<?> content;
+        try {
+            content = work.get();
+        } catch (RuntimeException exception) {
+            result.completeExceptionally(exception);
+            return;
+        }
+        content.whenComplete((c, throwable) -> {
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+            } else {
+                result.complete(c == null ? context.req.getAttribute(PENDING_RESULT) : c);
+            }
+        });
+    }
+
+    static boolean isPending(Context context) {
+        return context.resultFuture() != null;
+    }
+
+    static void setPendingResult(Context context, Object content) {
+        context.req.setAttribute(PENDING_RESULT, content);
+    }
+}
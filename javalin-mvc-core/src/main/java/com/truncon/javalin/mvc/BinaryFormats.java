@@ -0,0 +1,267 @@
+package com.truncon.javalin.mvc;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import io.javalin.http.Context;
+import io.javalin.plugin.json.JavalinJackson;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the binary formats that JSON results can be sent in instead of JSON. When the Accept header
+ * of a request asks for one of the formats, the object returned by the action is serialized in that
+ * format; request bodies whose Content-Type names one of the formats are deserialized from it.
+ *
+ * MessagePack (application/msgpack) and CBOR (application/cbor) are registered automatically when
+ * jackson-dataformat-msgpack or jackson-dataformat-cbor are on the classpath. Their mappers are derived
+ * from the mapper passed to {@link JavalinJackson#configure}, so they share its features, modules and
+ * other settings, and they are derived again whenever that mapper is replaced. Other formats can be
+ * registered with any {@link ObjectMapper} able to read and write them, which is used as-is.
+ */
+public final class BinaryFormats {
+    public static final String MESSAGE_PACK = "application/msgpack";
+    public static final String CBOR = "application/cbor";
+
+    private static final String FORMAT_ATTRIBUTE = BinaryFormats.class.getName() + ".format";
+    private static final String JSON = "application/json";
+    private static final ConcurrentMap<String, Format> formats = new ConcurrentHashMap<>();
+
+    static {
+        registerFactory(MESSAGE_PACK, "org.msgpack.jackson.dataformat.MessagePackFactory");
+        registerFactory("application/x-msgpack", "org.msgpack.jackson.dataformat.MessagePackFactory");
+        registerFactory(CBOR, "com.fasterxml.jackson.dataformat.cbor.CBORFactory");
+    }
+
+    private BinaryFormats() {
+    }
+
+    private static void registerFactory(String mediaType, String factoryClassName) {
+        try {
+            Class<?> factoryClass = Class.forName(factoryClassName, true, BinaryFormats.class.getClassLoader());
+            Constructor<? extends JsonFactory> constructor =
+                factoryClass.asSubclass(JsonFactory.class).getConstructor();
+            constructor.newInstance();
+            formats.put(mediaType, new Format(constructor));
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException exception) {
+            // The dataformat is not on the classpath, so the format is not offered.
+        }
+    }
+
+    /**
+     * Creates a mapper for the given format with the same settings as the JSON mapper. Jackson has no
+     * way to copy a mapper onto another factory, so the configuration, factories and resolvers the
+     * modules registered themselves with are carried over one at a time.
+     * @param source The JSON mapper.
+     * @param factory The factory of the format.
+     * @return the mapper.
+     */
+    private static ObjectMapper derive(ObjectMapper source, JsonFactory factory) {
+        DefaultDeserializationContext context =
+            new DefaultDeserializationContext.Impl(source.getDeserializationContext().getFactory());
+        SerializerProvider provider = source.getSerializerProvider();
+        DefaultSerializerProvider serializerProvider = provider instanceof DefaultSerializerProvider
+            ? ((DefaultSerializerProvider) provider).copy()
+            : null;
+        ObjectMapper mapper = new ObjectMapper(factory, serializerProvider, context);
+        mapper.setSerializerFactory(source.getSerializerFactory());
+        mapper.setTypeFactory(source.getTypeFactory());
+        mapper.setSubtypeResolver(source.getSubtypeResolver());
+        mapper.setInjectableValues(source.getInjectableValues());
+        mapper.setConfig(source.getSerializationConfig());
+        mapper.setConfig(source.getDeserializationConfig());
+        return mapper;
+    }
+
+    /**
+     * Registers a binary format, replacing any format registered for the media type.
+     * @param mediaType The media type of the format, such as application/msgpack.
+     * @param mapper The mapper that reads and writes the format.
+     */
+    public static void register(String mediaType, ObjectMapper mapper) {
+        formats.put(normalize(mediaType), new Format(mapper));
+    }
+
+    /**
+     * Removes the binary format registered for the media type, if any.
+     * @param mediaType The media type of the format.
+     */
+    public static void unregister(String mediaType) {
+        formats.remove(normalize(mediaType));
+    }
+
+    /**
+     * Gets whether a binary format is registered for the media type.
+     * @param mediaType The media type, which may carry parameters.
+     * @return true if the format is registered; otherwise, false.
+     */
+    public static boolean isRegistered(String mediaType) {
+        return mediaType != null && formats.containsKey(normalize(mediaType));
+    }
+
+    /**
+     * Picks the binary format to send a JSON result in, the first time it is called for a request. A
+     * binary format is picked when the Accept header names it with at least the quality of JSON, so
+     * clients that accept anything still get JSON. The response varies by the Accept header whenever
+     * binary formats are registered.
+     * @param context The request context.
+     * @return the media type of the binary format, or null if the response should be JSON.
+     */
+    public static String negotiate(Context context) {
+        if (formats.isEmpty()) {
+            return null;
+        }
+        HttpServletRequest request = context.req;
+        Object format = request.getAttribute(FORMAT_ATTRIBUTE);
+        if (format == null) {
+            format = negotiate(context.header("Accept"));
+            request.setAttribute(FORMAT_ATTRIBUTE, format == null ? JSON : format);
+            context.res.addHeader("Vary", "Accept");
+        }
+        return JSON.equals(format) ? null : (String) format;
+    }
+
+    /**
+     * Picks the binary format to send a JSON result in.
+     * @param accept The Accept header of the request.
+     * @return the media type of the binary format, or null if the response should be JSON.
+     */
+    public static String negotiate(String accept) {
+        if (accept == null || formats.isEmpty()) {
+            return null;
+        }
+        double jsonQuality = 0;
+        double bestQuality = 0;
+        String bestFormat = null;
+        for (String range : accept.split(",")) {
+            String[] parts = range.split(";");
+            String mediaType = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = getQuality(parts);
+            if (mediaType.equals(JSON) || mediaType.equals("application/*") || mediaType.equals("*/*")) {
+                jsonQuality = Math.max(jsonQuality, quality);
+            } else if (quality > bestQuality && formats.containsKey(mediaType)) {
+                bestQuality = quality;
+                bestFormat = mediaType;
+            }
+        }
+        return bestQuality >= jsonQuality ? bestFormat : null;
+    }
+
+    private static double getQuality(String[] parts) {
+        for (int index = 1; index < parts.length; ++index) {
+            String parameter = parts[index].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException exception) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Serializes the object in the binary format.
+     * @param mediaType The media type of the format.
+     * @param data The object to serialize.
+     * @return the serialized object.
+     * @throws IllegalArgumentException if no format is registered for the media type.
+     */
+    public static byte[] write(String mediaType, Object data) {
+        try {
+            return getFormat(mediaType).getMappers().mapper.writeValueAsBytes(data);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Deserializes the body of the request from the binary format named by its Content-Type,
+     * enforcing the maximum body size of {@link JsonBodyReader}.
+     * @param request The request whose body should be deserialized.
+     * @param mediaType The media type of the format.
+     * @param type The type to deserialize the body as.
+     * @param <T> The type to deserialize the body as.
+     * @return the deserialized body.
+     * @throws IOException if the body cannot be read or deserialized.
+     */
+    public static <T> T read(HttpServletRequest request, String mediaType, Class<T> type) throws IOException {
+        return JsonBodyReader.read(request, getFormat(mediaType).getMappers().getReader(type));
+    }
+
+    private static Format getFormat(String mediaType) {
+        Format format = mediaType == null ? null : formats.get(normalize(mediaType));
+        if (format == null) {
+            throw new IllegalArgumentException("No binary format is registered for '" + mediaType + "'.");
+        }
+        return format;
+    }
+
+    private static String normalize(String mediaType) {
+        int index = mediaType.indexOf(';');
+        String value = index == -1 ? mediaType : mediaType.substring(0, index);
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Format {
+        private final Constructor<? extends JsonFactory> factoryConstructor;
+        private volatile Mappers mappers;
+
+        public Format(ObjectMapper mapper) {
+            this.factoryConstructor = null;
+            this.mappers = new Mappers(null, mapper);
+        }
+
+        public Format(Constructor<? extends JsonFactory> factoryConstructor) {
+            this.factoryConstructor = factoryConstructor;
+        }
+
+        public Mappers getMappers() {
+            Mappers current = mappers;
+            if (factoryConstructor == null) {
+                return current;
+            }
+            // The mapper can be replaced using JavalinJackson.configure, which invalidates the derived mapper.
+            ObjectMapper source = JavalinJackson.getObjectMapper();
+            if (current == null || current.source != source) {
+                current = new Mappers(source, derive(source, newFactory()));
+                mappers = current;
+            }
+            return current;
+        }
+
+        private JsonFactory newFactory() {
+            try {
+                return factoryConstructor.newInstance();
+            } catch (ReflectiveOperationException exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+    }
+
+    private static final class Mappers {
+        private final ObjectMapper source;
+        private final ObjectMapper mapper;
+        private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+        public Mappers(ObjectMapper source, ObjectMapper mapper) {
+            this.source = source;
+            this.mapper = mapper;
+        }
+
+        public ObjectReader getReader(Class<?> type) {
+            return readers.computeIfAbsent(type, mapper::readerFor);
+        }
+    }
+}
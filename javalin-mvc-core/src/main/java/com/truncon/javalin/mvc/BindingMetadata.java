@@ -0,0 +1,219 @@
+package com.truncon.javalin.mvc;
+
+import com.truncon.javalin.mvc.api.Named;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Holds the constructor and the setters/fields of a model class, keyed by their normalized binding names.
+ * The metadata is discovered once per class and shared across requests.
+ */
+final class BindingMetadata {
+    private static final ClassValue<BindingMetadata> cache = new ClassValue<BindingMetadata>() {
+        @Override
+        protected BindingMetadata computeValue(Class<?> type) {
+            return createMetadata(type);
+        }
+    };
+    // The JVM returns declared members in no particular order, so they are sorted to pick the same one every time.
+    private static final Comparator<Method> METHOD_ORDER = Comparator
+        .comparing(Method::getName)
+        .thenComparing(m -> m.getParameterTypes()[0].getName());
+    private static final Comparator<Field> FIELD_ORDER = Comparator.comparing(Field::getName);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final MethodHandle constructor;
+    private final Map<String, MemberBinding> members;
+
+    private BindingMetadata(MethodHandle constructor, Map<String, MemberBinding> members) {
+        this.constructor = constructor;
+        this.members = members;
+    }
+
+    public static BindingMetadata getMetadata(Class<?> type) {
+        return cache.get(type);
+    }
+
+    private static BindingMetadata createMetadata(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle constructor = getConstructor(lookup, type);
+        if (constructor == null) {
+            return new BindingMetadata(null, Collections.emptyMap());
+        }
+        // Setters take precedence over fields; otherwise, the first member by name wins.
+        Map<String, MethodHandle> setters = new HashMap<>();
+        Map<String, Class<?>> setterTypes = new HashMap<>();
+        Method[] declaredMethods = Arrays.stream(type.getDeclaredMethods())
+            .filter(m -> !Modifier.isStatic(m.getModifiers()) && m.getParameterCount() == 1)
+            .sorted(METHOD_ORDER)
+            .toArray(Method[]::new);
+        for (Method method : declaredMethods) {
+            MethodHandle setter = getSetter(lookup, method);
+            if (setter == null) {
+                continue;
+            }
+            for (String key : getKeys(method)) {
+                if (!setters.containsKey(key)) {
+                    setters.put(key, setter);
+                    setterTypes.put(key, method.getParameterTypes()[0]);
+                }
+            }
+        }
+        Map<String, MethodHandle> fields = new HashMap<>();
+        Map<String, Class<?>> fieldTypes = new HashMap<>();
+        Field[] declaredFields = Arrays.stream(type.getDeclaredFields())
+            .filter(f -> !Modifier.isStatic(f.getModifiers()) && !Modifier.isFinal(f.getModifiers()))
+            .sorted(FIELD_ORDER)
+            .toArray(Field[]::new);
+        for (Field field : declaredFields) {
+            MethodHandle setter = getSetter(lookup, field);
+            if (setter == null) {
+                continue;
+            }
+            String key = getKey(field);
+            if (!fields.containsKey(key)) {
+                fields.put(key, setter);
+                fieldTypes.put(key, field.getType());
+            }
+        }
+        Set<String> keys = new HashSet<>(setters.keySet());
+        keys.addAll(fields.keySet());
+        Map<String, MemberBinding> members = new HashMap<>();
+        for (String key : keys) {
+            MemberBinding binding = new MemberBinding(
+                setters.get(key),
+                setterTypes.get(key),
+                fields.get(key),
+                fieldTypes.get(key));
+            members.put(key, binding);
+        }
+        return new BindingMetadata(constructor, members);
+    }
+
+    private static MethodHandle getConstructor(MethodHandles.Lookup lookup, Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return lookup.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+        } catch (Exception exception) {
+            // The type cannot be instantiated, so nothing will be bound.
+            return null;
+        }
+    }
+
+    private static MethodHandle getSetter(MethodHandles.Lookup lookup, Method method) {
+        try {
+            method.setAccessible(true);
+            return lookup.unreflect(method).asType(SETTER_TYPE);
+        } catch (Exception exception) {
+            // Inaccessible methods are ignored.
+            return null;
+        }
+    }
+
+    private static MethodHandle getSetter(MethodHandles.Lookup lookup, Field field) {
+        try {
+            field.setAccessible(true);
+            return lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (Exception exception) {
+            // Inaccessible fields are ignored.
+            return null;
+        }
+    }
+
+    private static List<String> getKeys(Method method) {
+        Named annotation = method.getAnnotation(Named.class);
+        if (annotation != null) {
+            // If the setter is named, the name must match exactly, ignoring case.
+            return Collections.singletonList(ParameterCache.sterilize(annotation.value()));
+        }
+        // The method is not named, so we look for exact matches or leading "set"
+        String name = method.getName();
+        List<String> keys = new ArrayList<>(2);
+        keys.add(ParameterCache.sterilize(name));
+        if (name.length() > 3 && name.regionMatches(true, 0, "set", 0, 3)) {
+            keys.add(ParameterCache.sterilize(name.substring(3)));
+        }
+        return keys;
+    }
+
+    private static String getKey(Field field) {
+        Named annotation = field.getAnnotation(Named.class);
+        String name = annotation == null ? field.getName() : annotation.value();
+        return ParameterCache.sterilize(name);
+    }
+
+    /**
+     * Creates a new instance of the model.
+     * @return the new instance or null if the model cannot be instantiated.
+     */
+    public Object newInstance() {
+        if (constructor == null) {
+            return null;
+        }
+        try {
+            return (Object)constructor.invokeExact();
+        } catch (Error error) {
+            throw error;
+        } catch (Throwable throwable) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the setter and/or field associated with the given normalized name.
+     * @param key The normalized name.
+     * @return the member or null if no member is associated with the name.
+     */
+    public MemberBinding getMember(String key) {
+        return members.get(key);
+    }
+
+    static final class MemberBinding {
+        private final MethodHandle setter;
+        private final Converter<?> setterConverter;
+        private final MethodHandle field;
+        private final Converter<?> fieldConverter;
+
+        private MemberBinding(MethodHandle setter, Class<?> setterType, MethodHandle field, Class<?> fieldType) {
+            // The converters are resolved once, rather than every time a value is bound.
+            this.setter = setter;
+            this.setterConverter = setter == null ? null : ConversionUtils.getConverter(setterType);
+            this.field = field;
+            this.fieldConverter = field == null ? null : ConversionUtils.getConverter(fieldType);
+        }
+
+        public void bind(Object instance, List<String> rawValues) {
+            try {
+                if (setterConverter != null) {
+                    Object value = setterConverter.convert(rawValues);
+                    if (value != null) {
+                        setter.invokeExact(instance, value);
+                        return;
+                    }
+                }
+                if (fieldConverter != null) {
+                    Object value = fieldConverter.convert(rawValues);
+                    if (value != null) {
+                        field.invokeExact(instance, value);
+                    }
+                }
+            } catch (Error error) {
+                throw error;
+            } catch (Throwable throwable) {
+                // Swallow any binding errors
+            }
+        }
+    }
+}
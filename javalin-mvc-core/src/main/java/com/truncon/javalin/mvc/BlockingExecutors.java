@@ -0,0 +1,115 @@
+package com.truncon.javalin.mvc;
+
+import com.truncon.javalin.mvc.api.Blocking;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the executors that run {@link Blocking} actions. Unless another executor is provided, the
+ * default executor creates a virtual thread per action when the JVM supports them; otherwise, it is
+ * a bounded pool of daemon threads.
+ */
+public final class BlockingExecutors {
+    private static final ConcurrentMap<String, Executor> executors = new ConcurrentHashMap<>();
+    private static volatile Executor defaultExecutor;
+
+    private BlockingExecutors() {
+    }
+
+    /**
+     * Gets the executor used by {@link Blocking} actions that do not name an executor.
+     * @return the default executor.
+     */
+    public static Executor getDefault() {
+        Executor executor = defaultExecutor;
+        if (executor == null) {
+            synchronized (BlockingExecutors.class) {
+                executor = defaultExecutor;
+                if (executor == null) {
+                    executor = createDefault();
+                    defaultExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Replaces the executor used by {@link Blocking} actions that do not name an executor.
+     * The previous executor is not shut down.
+     * @param executor The new default executor.
+     */
+    public static void setDefault(Executor executor) {
+        defaultExecutor = executor;
+    }
+
+    /**
+     * Registers an executor that {@link Blocking} actions can refer to by name.
+     * @param name The name of the executor.
+     * @param executor The executor.
+     */
+    public static void register(String name, Executor executor) {
+        executors.put(name, executor);
+    }
+
+    /**
+     * Gets the executor with the given name.
+     * @param name The name of the executor or a blank string for the default executor.
+     * @return the executor.
+     * @throws IllegalStateException if no executor is registered with the name.
+     */
+    public static Executor get(String name) {
+        if (name == null || name.isEmpty()) {
+            return getDefault();
+        }
+        Executor executor = executors.get(name);
+        if (executor == null) {
+            throw new IllegalStateException("No executor is registered with the name '" + name + "'.");
+        }
+        return executor;
+    }
+
+    /**
+     * Runs the task on the executor with the given name.
+     * @param name The name of the executor or a blank string for the default executor.
+     * @param task The task to run.
+     * @return a future completed with the result of the task, or exceptionally if the task fails.
+     */
+    public static CompletableFuture<Object> submit(String name, Callable<?> task) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        get(name).execute(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
+    private static Executor createDefault() {
+        Executor virtualExecutor = createVirtualThreadExecutor();
+        if (virtualExecutor != null) {
+            return virtualExecutor;
+        }
+        int threadCount = Math.max(16, Runtime.getRuntime().availableProcessors() * 4);
+        AtomicInteger threadIndex = new AtomicInteger();
+        return Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "javalin-mvc-blocking-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Executor createVirtualThreadExecutor() {
+        // Virtual threads are only available on newer JVMs, so they are looked up reflectively.
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (Executor)factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException exception) {
+            return null;
+        }
+    }
+}
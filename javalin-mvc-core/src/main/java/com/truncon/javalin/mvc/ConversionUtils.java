@@ -10,59 +10,165 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public final class ConversionUtils {
-    private static final Map<Class<?>, Function<String, Object>> primitiveConverters = getPrimitiveConverters();
-    public static final Class<?>[] SUPPORTED_TYPES = primitiveConverters.keySet().toArray(new Class<?>[0]);
-    private static final Map<Class<?>, Class<?>> primitiveToBoxed = getPrimitiveToBoxed();
+    private static final Map<Class<?>, Converter<?>> converters = getConverters();
+    public static final Class<?>[] SUPPORTED_TYPES = converters.keySet().toArray(new Class<?>[0]);
 
-    private ConversionUtils() {
+    static {
+        // Primitives share the converters of their boxed types, so they are resolved with a single lookup.
+        converters.put(boolean.class, converters.get(Boolean.class));
+        converters.put(byte.class, converters.get(Byte.class));
+        converters.put(char.class, converters.get(Character.class));
+        converters.put(short.class, converters.get(Short.class));
+        converters.put(int.class, converters.get(Integer.class));
+        converters.put(long.class, converters.get(Long.class));
+        converters.put(double.class, converters.get(Double.class));
+        converters.put(float.class, converters.get(Float.class));
+
+        // Primitive arrays are parsed directly, without boxing each element.
+        converters.put(boolean[].class, new ArrayConverter<>(ConversionUtils::toBooleanArray));
+        converters.put(byte[].class, new ArrayConverter<>(ConversionUtils::toByteArray));
+        converters.put(char[].class, new ArrayConverter<>(ConversionUtils::toCharArray));
+        converters.put(short[].class, new ArrayConverter<>(ConversionUtils::toShortArray));
+        converters.put(int[].class, new ArrayConverter<>(ConversionUtils::toIntArray));
+        converters.put(long[].class, new ArrayConverter<>(ConversionUtils::toLongArray));
+        converters.put(double[].class, new ArrayConverter<>(ConversionUtils::toDoubleArray));
+        converters.put(float[].class, new ArrayConverter<>(ConversionUtils::toFloatArray));
+        for (Class<?> type : SUPPORTED_TYPES) {
+            Converter<?> elementConverter = converters.get(type);
+            Class<?> arrayType = Array.newInstance(type, 0).getClass();
+            converters.put(arrayType, new ArrayConverter<>(values -> toArray(type, elementConverter, values)));
+        }
     }
 
-    private static Map<Class<?>, Class<?>> getPrimitiveToBoxed() {
-        Map<Class<?>, Class<?>> primitiveWrapperMap = new HashMap<>();
-        primitiveWrapperMap.put(boolean.class, Boolean.class);
-        primitiveWrapperMap.put(byte.class, Byte.class);
-        primitiveWrapperMap.put(char.class, Character.class);
-        primitiveWrapperMap.put(short.class, Short.class);
-        primitiveWrapperMap.put(int.class, Integer.class);
-        primitiveWrapperMap.put(long.class, Long.class);
-        primitiveWrapperMap.put(double.class, Double.class);
-        primitiveWrapperMap.put(float.class, Float.class);
-        return primitiveWrapperMap;
+    private ConversionUtils() {
     }
 
-    private static Map<Class<?>, Function<String, Object>> getPrimitiveConverters() {
+    private static Map<Class<?>, Converter<?>> getConverters() {
         // We treat anything that can be parsed as a single value as "primitive".
         // Everything else we treat as an object that can be parsed from JSON.
-        Map<Class<?>, Function<String, Object>> converters = new HashMap<>();
-        converters.put(String.class, s -> s);
-        converters.put(Integer.class, s -> StringUtils.isBlank(s) ? null : Integer.parseInt(s));
-        converters.put(Boolean.class, s -> StringUtils.isBlank(s) ? null : Boolean.parseBoolean(s));
-        converters.put(Date.class, ConversionUtils::toDate);
-        converters.put(Instant.class, ConversionUtils::toInstant);
-        converters.put(ZonedDateTime.class, s -> StringUtils.isBlank(s) ? null : ZonedDateTime.parse(s));
-        converters.put(OffsetDateTime.class, s -> StringUtils.isBlank(s) ? null : OffsetDateTime.parse(s));
-        converters.put(LocalDateTime.class, s -> StringUtils.isBlank(s) ? null : LocalDateTime.parse(s));
-        converters.put(LocalDate.class, s -> StringUtils.isBlank(s) ? null : LocalDate.parse(s));
-        converters.put(Double.class, s -> StringUtils.isBlank(s) ? null : Double.parseDouble(s));
-        converters.put(Long.class, s -> StringUtils.isBlank(s) ? null : Long.parseLong(s));
-        converters.put(Short.class, s -> StringUtils.isBlank(s) ? null : Short.parseShort(s));
-        converters.put(Float.class, s -> StringUtils.isBlank(s) ? null : Float.parseFloat(s));
-        converters.put(Character.class, s -> s.length() == 1 ? s.charAt(0) : null);
-        converters.put(BigInteger.class, s -> StringUtils.isBlank(s) ? null : new BigInteger(s));
-        converters.put(BigDecimal.class, s -> StringUtils.isBlank(s) ? null : new BigDecimal(s));
-        converters.put(Byte.class, s -> StringUtils.isBlank(s) ? null : Byte.parseByte(s));
-        converters.put(UUID.class, s -> StringUtils.isBlank(s) ? null : UUID.fromString(s));
+        Map<Class<?>, Converter<?>> converters = new HashMap<>();
+        converters.put(String.class, (Converter<String>)s -> s);
+        converters.put(Integer.class, (Converter<Integer>)ConversionUtils::toInteger);
+        converters.put(Boolean.class, (Converter<Boolean>)ConversionUtils::toBoolean);
+        converters.put(Date.class, (Converter<Date>)ConversionUtils::toDate);
+        converters.put(Instant.class, (Converter<Instant>)ConversionUtils::toInstant);
+        converters.put(ZonedDateTime.class, (Converter<ZonedDateTime>)ConversionUtils::toZonedDateTime);
+        converters.put(OffsetDateTime.class, (Converter<OffsetDateTime>)ConversionUtils::toOffsetDateTime);
+        converters.put(LocalDateTime.class, (Converter<LocalDateTime>)ConversionUtils::toLocalDateTime);
+        converters.put(LocalDate.class, (Converter<LocalDate>)ConversionUtils::toLocalDate);
+        converters.put(Double.class, (Converter<Double>)ConversionUtils::toDouble);
+        converters.put(Long.class, (Converter<Long>)ConversionUtils::toLong);
+        converters.put(Short.class, (Converter<Short>)ConversionUtils::toShort);
+        converters.put(Float.class, (Converter<Float>)ConversionUtils::toFloat);
+        converters.put(Character.class, (Converter<Character>)ConversionUtils::toCharacter);
+        converters.put(BigInteger.class, (Converter<BigInteger>)ConversionUtils::toBigInteger);
+        converters.put(BigDecimal.class, (Converter<BigDecimal>)ConversionUtils::toBigDecimal);
+        converters.put(Byte.class, (Converter<Byte>)ConversionUtils::toByte);
+        converters.put(UUID.class, (Converter<UUID>)ConversionUtils::toUUID);
         return converters;
     }
 
-    private static Date toDate(String value) {
+    /**
+     * Gets the converter for the given type. Arrays of supported types are converted one element at a time.
+     * The converter should be resolved once and reused, rather than looked up for every value.
+     * @param type The type to convert raw values to.
+     * @param <T> The type to convert raw values to.
+     * @return the converter or null if the type is not supported.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Converter<T> getConverter(Class<T> type) {
+        Converter<?> converter = converters.get(type);
+        if (converter == null && type.isArray() && !type.getComponentType().isPrimitive()) {
+            // The elements of arrays of unsupported types cannot be converted, so they are left null.
+            Class<?> elementType = type.getComponentType();
+            converter = new ArrayConverter<>(values -> toArray(elementType, s -> null, values));
+        }
+        return (Converter<T>)converter;
+    }
+
+    /**
+     * Gets the single value that a scalar parameter is converted from. Multiple values are joined
+     * with a semicolon.
+     * @param values The raw values.
+     * @return the value to convert.
+     */
+    public static String joinValues(List<String> values) {
+        if (values.size() == 1) {
+            return values.get(0);
+        }
+        return String.join(";", values);
+    }
+
+    // The following methods are called directly by generated code. Each is named "to" followed by
+    // the simple name of the supported type and returns null for blank values.
+
+    public static Integer toInteger(String value) {
+        return StringUtils.isBlank(value) ? null : Integer.parseInt(value);
+    }
+
+    public static Boolean toBoolean(String value) {
+        return StringUtils.isBlank(value) ? null : Boolean.parseBoolean(value);
+    }
+
+    public static Double toDouble(String value) {
+        return StringUtils.isBlank(value) ? null : Double.parseDouble(value);
+    }
+
+    public static Long toLong(String value) {
+        return StringUtils.isBlank(value) ? null : Long.parseLong(value);
+    }
+
+    public static Short toShort(String value) {
+        return StringUtils.isBlank(value) ? null : Short.parseShort(value);
+    }
+
+    public static Float toFloat(String value) {
+        return StringUtils.isBlank(value) ? null : Float.parseFloat(value);
+    }
+
+    public static Character toCharacter(String value) {
+        return value != null && value.length() == 1 ? value.charAt(0) : null;
+    }
+
+    public static Byte toByte(String value) {
+        return StringUtils.isBlank(value) ? null : Byte.parseByte(value);
+    }
+
+    public static BigInteger toBigInteger(String value) {
+        return StringUtils.isBlank(value) ? null : new BigInteger(value);
+    }
+
+    public static BigDecimal toBigDecimal(String value) {
+        return StringUtils.isBlank(value) ? null : new BigDecimal(value);
+    }
+
+    public static UUID toUUID(String value) {
+        return StringUtils.isBlank(value) ? null : UUID.fromString(value);
+    }
+
+    public static ZonedDateTime toZonedDateTime(String value) {
+        return StringUtils.isBlank(value) ? null : ZonedDateTime.parse(value);
+    }
+
+    public static OffsetDateTime toOffsetDateTime(String value) {
+        return StringUtils.isBlank(value) ? null : OffsetDateTime.parse(value);
+    }
+
+    public static LocalDateTime toLocalDateTime(String value) {
+        return StringUtils.isBlank(value) ? null : LocalDateTime.parse(value);
+    }
+
+    public static LocalDate toLocalDate(String value) {
+        return StringUtils.isBlank(value) ? null : LocalDate.parse(value);
+    }
+
+    public static Date toDate(String value) {
         return StringUtils.isBlank(value) ? null : Date.from(toInstant(value));
     }
 
-    private static Instant toInstant(String value) {
+    public static Instant toInstant(String value) {
         if (StringUtils.isBlank(value)) {
             return null;
         }
@@ -87,36 +193,156 @@ public final class ConversionUtils {
         return date.atStartOfDay().toInstant(ZonedDateTime.now().getOffset());
     }
 
+    // The following methods convert directly to primitives, without boxing, for use by generated code.
+    // Unlike the methods above, they fail for blank values, since a primitive cannot be null.
+
+    public static int toIntValue(String value) {
+        return Integer.parseInt(requireValue(value));
+    }
+
+    public static boolean toBooleanValue(String value) {
+        return Boolean.parseBoolean(requireValue(value));
+    }
+
+    public static double toDoubleValue(String value) {
+        return Double.parseDouble(requireValue(value));
+    }
+
+    public static long toLongValue(String value) {
+        return Long.parseLong(requireValue(value));
+    }
+
+    public static short toShortValue(String value) {
+        return Short.parseShort(requireValue(value));
+    }
+
+    public static float toFloatValue(String value) {
+        return Float.parseFloat(requireValue(value));
+    }
+
+    public static char toCharValue(String value) {
+        if (value == null || value.length() != 1) {
+            throw new IllegalArgumentException("A single character is required.");
+        }
+        return value.charAt(0);
+    }
+
+    public static byte toByteValue(String value) {
+        return Byte.parseByte(requireValue(value));
+    }
+
+    private static String requireValue(String value) {
+        if (StringUtils.isBlank(value)) {
+            throw new IllegalArgumentException("A value is required.");
+        }
+        return value;
+    }
+
+    // The following methods convert multiple values to primitive arrays. They fail for blank values.
+
+    public static boolean[] toBooleanArray(List<String> values) {
+        boolean[] results = new boolean[values.size()];
+        for (int index = 0; index != results.length; ++index) {
+            results[index] = toBooleanValue(values.get(index));
+        }
+        return results;
+    }
+
+    public static byte[] toByteArray(List<String> values) {
+        byte[] results = new byte[values.size()];
+        for (int index = 0; index != results.length; ++index) {
+            results[index] = toByteValue(values.get(index));
+        }
+        return results;
+    }
+
+    public static char[] toCharArray(List<String> values) {
+        char[] results = new char[values.size()];
+        for (int index = 0; index != results.length; ++index) {
+            results[index] = toCharValue(values.get(index));
+        }
+        return results;
+    }
+
+    public static short[] toShortArray(List<String> values) {
+        short[] results = new short[values.size()];
+        for (int index = 0; index != results.length; ++index) {
+            results[index] = toShortValue(values.get(index));
+        }
+        return results;
+    }
+
+    public static int[] toIntArray(List<String> values) {
+        int[] results = new int[values.size()];
+        for (int index = 0; index != results.length; ++index) {
+            results[index] = toIntValue(values.get(index));
+        }
+        return results;
+    }
+
+    public static long[] toLongArray(List<String> values) {
+        long[] results = new long[values.size()];
+        for (int index = 0; index != results.length; ++index) {
+            results[index] = toLongValue(values.get(index));
+        }
+        return results;
+    }
+
+    public static double[] toDoubleArray(List<String> values) {
+        double[] results = new double[values.size()];
+        for (int index = 0; index != results.length; ++index) {
+            results[index] = toDoubleValue(values.get(index));
+        }
+        return results;
+    }
+
+    public static float[] toFloatArray(List<String> values) {
+        float[] results = new float[values.size()];
+        for (int index = 0; index != results.length; ++index) {
+            results[index] = toFloatValue(values.get(index));
+        }
+        return results;
+    }
+
+    private static Object[] toArray(Class<?> elementType, Converter<?> elementConverter, List<String> values) {
+        Object[] results = (Object[])Array.newInstance(elementType, values.size());
+        for (int index = 0; index != results.length; ++index) {
+            results[index] = elementConverter.convert(values.get(index));
+        }
+        return results;
+    }
+
     public static Optional<Object> toParameterValue(Class<?> type, List<String> rawValues) {
-        if (type.isArray()) {
-            Class<?> elementType = type.getComponentType();
-            List<Object> values = rawValues.stream()
-                    .map((v) -> toPrimitiveValue(elementType, v))
-                    .map(o -> o.orElse(null))
-                    .collect(Collectors.toList());
-            return Optional.of(getArray(elementType, values));
-        } else {
-            return toPrimitiveValue(type, String.join(";", rawValues));
+        Converter<?> converter = getConverter(type);
+        if (converter == null) {
+            return Optional.empty();
         }
+        return Optional.ofNullable(converter.convert(rawValues));
     }
 
     public static Optional<Object> toPrimitiveValue(Class<?> type, String value) {
-        if (type.isPrimitive()) {
-            type = primitiveToBoxed.get(type);
-        }
-        Function<String, Object> converter = primitiveConverters.get(type);
+        Converter<?> converter = type.isArray() ? null : converters.get(type);
         if (converter == null) {
             return Optional.empty();
         }
-        return Optional.ofNullable(converter.apply(value));
+        return Optional.ofNullable(converter.convert(value));
     }
 
-    private static Object getArray(Class<?> componentType, List<Object> values) {
-        Object results = Array.newInstance(componentType, values.size());
-        for (int index = 0; index != values.size(); ++index) {
-            Object rawValue = values.get(index);
-            Array.set(results, index, rawValue);
+    private static final class ArrayConverter<T> implements Converter<T> {
+        private final Function<List<String>, T> builder;
+
+        public ArrayConverter(Function<List<String>, T> builder) {
+            this.builder = builder;
+        }
+
+        @Override
+        public T convert(String value) {
+            return builder.apply(Collections.singletonList(value));
+        }
+
+        @Override
+        public T convert(List<String> values) {
+            return builder.apply(values);
         }
-        return results;
     }
 }
@@ -0,0 +1,28 @@
+package com.truncon.javalin.mvc;
+
+import java.util.List;
+
+/**
+ * Converts raw request values to a supported parameter type. A converter is resolved once
+ * for a type using {@link ConversionUtils#getConverter(Class)} and can be reused for every request.
+ * @param <T> The type of the converted values.
+ */
+@FunctionalInterface
+public interface Converter<T> {
+    /**
+     * Converts a single raw value.
+     * @param value The raw value.
+     * @return the converted value or null if the value is blank.
+     */
+    T convert(String value);
+
+    /**
+     * Converts the raw values associated with a single name. By default, multiple values
+     * are joined with a semicolon and converted as a single value.
+     * @param values The raw values.
+     * @return the converted value or null if the values are blank.
+     */
+    default T convert(List<String> values) {
+        return convert(ConversionUtils.joinValues(values));
+    }
+}
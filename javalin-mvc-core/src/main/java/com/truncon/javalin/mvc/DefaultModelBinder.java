@@ -4,6 +4,9 @@ import com.truncon.javalin.mvc.api.HttpRequest;
 import com.truncon.javalin.mvc.api.ModelBinder;
 import com.truncon.javalin.mvc.api.Named;
 import com.truncon.javalin.mvc.api.ValueSource;
+import io.javalin.http.HttpResponseException;
+
+import java.util.List;
 
 /**
  * Performs model binding from header, URL path parameter, query string, form fields and the request body.
@@ -54,7 +57,7 @@ public class DefaultModelBinder implements ModelBinder {
                 // There was not a specific source, so we fallback on JSON deserialization.
                 return getDeserializedBody(parameterClass);
             } else {
-                return ConversionUtils.toParameterValue(parameterClass, cache.getValues(name)).orElse(null);
+                return convert(parameterClass, cache.getValues(name));
             }
         }
         // A specific source was determined. It is either an array, a "primitive",
@@ -68,13 +71,21 @@ public class DefaultModelBinder implements ModelBinder {
         // A value with that name exists in the specific source, so try to bind it directly.
         // We can bind the value if it is an array or a "primitive".
         // Otherwise, try to bind the value inside of an object.
-        return ConversionUtils.toParameterValue(parameterClass, cache.getValues(name))
-            .orElse(cache.bindValues(parameterClass));
+        Object value = convert(parameterClass, cache.getValues(name));
+        return value == null ? cache.bindValues(parameterClass) : value;
+    }
+
+    private static Object convert(Class<?> parameterClass, List<String> values) {
+        Converter<?> converter = ConversionUtils.getConverter(parameterClass);
+        return converter == null ? null : converter.convert(values);
     }
 
     private Object getDeserializedBody(Class<?> paramType) {
         try {
             return request.getBodyFromJson(paramType);
+        } catch (HttpResponseException exception) {
+            // the body was rejected outright (e.g., it is too large)
+            throw exception;
         } catch (Exception exception) {
             // swallow any deserialization errors
             return null;
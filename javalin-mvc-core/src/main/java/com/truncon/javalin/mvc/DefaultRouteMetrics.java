@@ -0,0 +1,170 @@
+package com.truncon.javalin.mvc;
+
+import com.truncon.javalin.mvc.api.RouteMetrics;
+import com.truncon.javalin.mvc.api.RoutePhase;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects a latency histogram for each phase of each route. Recording a timing only increments
+ * {@link LongAdder} counters, so it does not allocate and scales well under contention. Each
+ * histogram bucket covers twice the range of the one before it, starting at one microsecond.
+ */
+public final class DefaultRouteMetrics implements RouteMetrics {
+    private static final RoutePhase[] PHASES = RoutePhase.values();
+
+    private volatile Route[] routes = new Route[0];
+
+    @Override
+    public synchronized void registerRoute(int routeId, String method, String route) {
+        Route[] current = routes;
+        Route[] updated = routeId < current.length ? current.clone() : Arrays.copyOf(current, routeId + 1);
+        updated[routeId] = new Route(method, route);
+        routes = updated;
+    }
+
+    @Override
+    public void record(int routeId, RoutePhase phase, long elapsedNanos) {
+        Route[] current = routes;
+        if (routeId < current.length && current[routeId] != null) {
+            current[routeId].histograms[phase.ordinal()].add(elapsedNanos);
+        }
+    }
+
+    /**
+     * Gets the number of route IDs that have been registered.
+     * @return the largest route ID, plus one.
+     */
+    public int getRouteCount() {
+        return routes.length;
+    }
+
+    /**
+     * Gets the HTTP method and path of the route (e.g., "GET /api/customers").
+     * @param routeId The ID of the route.
+     * @return the name of the route or null if the route was not registered.
+     */
+    public String getRouteName(int routeId) {
+        Route route = getRoute(routeId);
+        return route == null ? null : route.method + " " + route.path;
+    }
+
+    /**
+     * Gets the histogram of the time spent in the given phase of the route.
+     * @param routeId The ID of the route.
+     * @param phase The phase of the request.
+     * @return the histogram or null if the route was not registered.
+     */
+    public Histogram getHistogram(int routeId, RoutePhase phase) {
+        Route route = getRoute(routeId);
+        return route == null ? null : route.histograms[phase.ordinal()];
+    }
+
+    private Route getRoute(int routeId) {
+        Route[] current = routes;
+        return routeId >= 0 && routeId < current.length ? current[routeId] : null;
+    }
+
+    private static final class Route {
+        private final String method;
+        private final String path;
+        private final Histogram[] histograms = new Histogram[PHASES.length];
+
+        public Route(String method, String path) {
+            this.method = method;
+            this.path = path;
+            for (int index = 0; index != histograms.length; ++index) {
+                histograms[index] = new Histogram();
+            }
+        }
+    }
+
+    /**
+     * A histogram of elapsed times with exponentially sized buckets.
+     */
+    public static final class Histogram {
+        /**
+         * The number of buckets. The last bucket holds everything longer than about 18 minutes.
+         */
+        public static final int BUCKET_COUNT = 32;
+        private static final int FIRST_BUCKET_BITS = 10;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+        private Histogram() {
+            for (int index = 0; index != buckets.length; ++index) {
+                buckets[index] = new LongAdder();
+            }
+        }
+
+        private void add(long elapsedNanos) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            buckets[getBucket(elapsedNanos)].increment();
+        }
+
+        private static int getBucket(long elapsedNanos) {
+            int bits = 64 - Long.numberOfLeadingZeros(elapsedNanos);
+            int bucket = bits - FIRST_BUCKET_BITS;
+            return bucket < 0 ? 0 : Math.min(bucket, BUCKET_COUNT - 1);
+        }
+
+        /**
+         * Gets the largest elapsed time, in nanoseconds, counted by the bucket.
+         * @param bucket The index of the bucket.
+         * @return the upper bound of the bucket or {@link Long#MAX_VALUE} for the last bucket.
+         */
+        public static long getUpperBoundNanos(int bucket) {
+            return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << (bucket + FIRST_BUCKET_BITS)) - 1;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public double getMeanNanos() {
+            long total = count.sum();
+            return total == 0 ? 0 : (double)totalNanos.sum() / total;
+        }
+
+        public long[] getBucketCounts() {
+            long[] counts = new long[buckets.length];
+            for (int index = 0; index != counts.length; ++index) {
+                counts[index] = buckets[index].sum();
+            }
+            return counts;
+        }
+
+        /**
+         * Estimates the given percentile as the upper bound of the bucket containing it.
+         * @param percentile The percentile, between 0 and 100.
+         * @return the estimated elapsed time in nanoseconds or 0 if nothing was recorded.
+         */
+        public long getPercentileNanos(double percentile) {
+            long[] counts = getBucketCounts();
+            long total = 0;
+            for (long bucketCount : counts) {
+                total += bucketCount;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = (long)Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100);
+            long seen = 0;
+            for (int index = 0; index != counts.length; ++index) {
+                seen += counts[index];
+                if (seen >= target && seen > 0) {
+                    return getUpperBoundNanos(index);
+                }
+            }
+            return getUpperBoundNanos(counts.length - 1);
+        }
+    }
+}
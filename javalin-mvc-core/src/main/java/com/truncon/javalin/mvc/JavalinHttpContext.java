@@ -10,6 +10,10 @@ import com.truncon.javalin.mvc.api.HttpResponse;
 
 public final class JavalinHttpContext implements HttpContext {
     private final Context context;
+    // Created on first use and reused for the rest of the request. The context is handed between threads
+    // through CompletableFuture, which orders these writes before the reads on the other thread.
+    private JavalinHttpRequest request;
+    private JavalinHttpResponse response;
 
     public JavalinHttpContext(Context context) {
         Objects.requireNonNull(context);
@@ -18,12 +22,18 @@ public final class JavalinHttpContext implements HttpContext {
 
     @Override
     public HttpRequest getRequest() {
-        return new JavalinHttpRequest(context);
+        if (request == null) {
+            request = new JavalinHttpRequest(context);
+        }
+        return request;
     }
 
     @Override
     public HttpResponse getResponse() {
-        return new JavalinHttpResponse(context);
+        if (response == null) {
+            response = new JavalinHttpResponse(context);
+        }
+        return response;
     }
 
     @Override
@@ -36,6 +46,16 @@ public final class JavalinHttpContext implements HttpContext {
         return JavalinJackson.INSTANCE.fromJson(json, dataClass);
     }
 
+    @Override
+    public String getBinaryFormat() {
+        return BinaryFormats.negotiate(context);
+    }
+
+    @Override
+    public byte[] toBinary(Object data, String mediaType) {
+        return BinaryFormats.write(mediaType, data);
+    }
+
     @Override
     public Object getHandle() {
         return context;
@@ -5,14 +5,25 @@ import io.javalin.http.Context;
 import io.javalin.http.UploadedFile;
 import com.truncon.javalin.mvc.api.FileUpload;
 import com.truncon.javalin.mvc.api.HttpRequest;
+import com.truncon.javalin.mvc.api.MultipartStream;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 final class JavalinHttpRequest implements HttpRequest {
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
     private final Context context;
+    // Javalin builds a new map every time one is requested, so each is built at most once per request.
+    private Map<String, String> pathParameters;
+    private Map<String, List<String>> pathLookup;
+    private Map<String, List<String>> queryLookup;
+    private Map<String, List<String>> formLookup;
+    private Map<String, List<String>> headerLookup;
+    private Map<String, List<String>> cookieLookup;
 
     public JavalinHttpRequest(Context context) {
         this.context = context;
@@ -23,7 +34,7 @@ final class JavalinHttpRequest implements HttpRequest {
     }
 
     public boolean hasPathParameter(String name) {
-        return context.pathParamMap().containsKey(name);
+        return getPathParameterMap().containsKey(name);
     }
 
     public String getPathParameter(String name) {
@@ -31,35 +42,63 @@ final class JavalinHttpRequest implements HttpRequest {
     }
 
     public Map<String, List<String>> getPathLookup() {
-        return explode(context.pathParamMap());
+        if (pathLookup == null) {
+            pathLookup = new SingleValueLookup(getPathParameterMap());
+        }
+        return pathLookup;
+    }
+
+    private Map<String, String> getPathParameterMap() {
+        if (pathParameters == null) {
+            pathParameters = context.pathParamMap();
+        }
+        return pathParameters;
     }
 
     public boolean hasQueryParameter(String name) {
-        return context.queryParamMap().containsKey(name);
+        return getQueryLookup().containsKey(name);
     }
 
     public String getQueryParameter(String name) {
-        return context.queryParam(name);
+        return getFirst(getQueryLookup(), name);
     }
 
     public Map<String, List<String>> getQueryLookup() {
-        return context.queryParamMap();
+        if (queryLookup == null) {
+            queryLookup = context.queryParamMap();
+        }
+        return queryLookup;
     }
 
     public boolean hasFormParameter(String name) {
-        return context.formParamMap().containsKey(name);
+        return getFormLookup().containsKey(name);
     }
 
     public String getFormParameter(String name) {
-        return context.formParam(name);
+        return getFirst(getFormLookup(), name);
     }
 
     public Map<String, List<String>> getFormLookup() {
-        return context.formParamMap();
+        if (formLookup == null) {
+            formLookup = isForm() ? context.formParamMap() : Collections.emptyMap();
+        }
+        return formLookup;
+    }
+
+    private static String getFirst(Map<String, List<String>> lookup, String name) {
+        List<String> values = lookup.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private boolean isForm() {
+        // Javalin parses any other body as form data, consuming the request stream in the process.
+        String contentType = context.contentType();
+        return contentType != null
+            && (contentType.toLowerCase(Locale.ROOT).startsWith(FORM_CONTENT_TYPE) || context.isMultipartFormData());
     }
 
     public boolean hasHeader(String name) {
-        return context.headerMap().containsKey(name);
+        return context.header(name) != null;
     }
 
     public String getHeader(String name) {
@@ -67,7 +106,10 @@ final class JavalinHttpRequest implements HttpRequest {
     }
 
     public Map<String, List<String>> getHeaderLookup() {
-        return explode(context.headerMap());
+        if (headerLookup == null) {
+            headerLookup = new SingleValueLookup(context::header, context::headerMap, true);
+        }
+        return headerLookup;
     }
 
     public int getContentLength() {
@@ -87,7 +129,15 @@ final class JavalinHttpRequest implements HttpRequest {
     }
 
     public <T> T getBodyFromJson(Class<T> bodyCls) {
-        return context.bodyAsClass(bodyCls);
+        try {
+            String contentType = context.req.getContentType();
+            if (BinaryFormats.isRegistered(contentType)) {
+                return BinaryFormats.read(context.req, contentType, bodyCls);
+            }
+            return JsonBodyReader.read(context.req, bodyCls);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
     }
 
     public String getUrl() {
@@ -107,7 +157,7 @@ final class JavalinHttpRequest implements HttpRequest {
     }
 
     public boolean hasCookie(String name) {
-        return context.cookieMap().containsKey(name);
+        return context.cookie(name) != null;
     }
 
     public String getCookieValue(String name) {
@@ -115,7 +165,10 @@ final class JavalinHttpRequest implements HttpRequest {
     }
 
     public Map<String, List<String>> getCookieLookup() {
-        return explode(context.cookieMap());
+        if (cookieLookup == null) {
+            cookieLookup = new SingleValueLookup(context::cookie, context::cookieMap, false);
+        }
+        return cookieLookup;
     }
 
     public boolean isMultipart() {
@@ -127,16 +180,14 @@ final class JavalinHttpRequest implements HttpRequest {
         if (file == null) {
             return null;
         }
-        return new FileUpload(file.getContent(), file.getContentType(), file.getFilename());
-    }
-
-    private static Map<String, List<String>> explode(Map<String, String> map) {
-        return map.keySet().stream().collect(Collectors.toMap(k -> k, k -> listOf(map.get(k))));
+        return new FileUpload(name, file.getContent(), file.getContentType(), file.getFilename());
     }
 
-    private static List<String> listOf(String item) {
-        List<String> list = new ArrayList<>();
-        list.add(item);
-        return list;
+    public MultipartStream getMultipartStream() {
+        try {
+            return MultipartReader.getReader(context.req);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
     }
 }
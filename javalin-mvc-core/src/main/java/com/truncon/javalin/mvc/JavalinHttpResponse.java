@@ -1,10 +1,27 @@
 package com.truncon.javalin.mvc;
 
 import io.javalin.http.Context;
+import io.javalin.plugin.json.JavalinJson;
 
 import com.truncon.javalin.mvc.api.HttpResponse;
 
+import org.eclipse.jetty.server.HttpOutput;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 final class JavalinHttpResponse implements HttpResponse {
     private final Context context;
@@ -32,18 +49,39 @@ final class JavalinHttpResponse implements HttpResponse {
         return this;
     }
 
+    public HttpResponse addHeader(String name, String value) {
+        context.res.addHeader(name, value);
+        return this;
+    }
+
     public HttpResponse setTextBody(String content) {
-        context.result(content);
+        if (AsyncResults.isPending(context)) {
+            AsyncResults.setPendingResult(context, content);
+        } else {
+            context.result(content);
+        }
         return this;
     }
 
     public HttpResponse setHtmlBody(String content) {
-        context.html(content);
+        if (AsyncResults.isPending(context)) {
+            context.contentType("text/html");
+            AsyncResults.setPendingResult(context, content);
+        } else {
+            context.html(content);
+        }
         return this;
     }
 
     public HttpResponse setJsonBody(Object data) {
-        if (data == null) {
+        String binaryFormat = BinaryFormats.negotiate(context);
+        if (binaryFormat != null) {
+            context.contentType(binaryFormat);
+            setStreamBody(new ByteArrayInputStream(BinaryFormats.write(binaryFormat, data)));
+        } else if (AsyncResults.isPending(context)) {
+            context.contentType("application/json");
+            AsyncResults.setPendingResult(context, JavalinJson.toJson(data));
+        } else if (data == null) {
             context.contentType("application/json");
             context.result("null");
         } else {
@@ -52,8 +90,48 @@ final class JavalinHttpResponse implements HttpResponse {
         return this;
     }
 
+    public HttpResponse streamJsonBody(Object data) {
+        context.contentType("application/json");
+        try {
+            JsonBodyWriter.write(context.res.getOutputStream(), data);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        return this;
+    }
+
     public HttpResponse setStreamBody(InputStream stream) {
-        context.result(stream);
+        if (AsyncResults.isPending(context)) {
+            AsyncResults.setPendingResult(context, stream);
+        } else {
+            context.result(stream);
+        }
+        return this;
+    }
+
+    public HttpResponse setFileBody(Path path, long offset, long length) {
+        // Javalin's wrapper copies everything written through it, so write to the underlying response.
+        HttpServletResponse response = context.res;
+        while (response instanceof HttpServletResponseWrapper) {
+            response = (HttpServletResponse) ((HttpServletResponseWrapper) response).getResponse();
+        }
+        response.setContentLengthLong(length);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ServletOutputStream output = response.getOutputStream();
+            if (output instanceof HttpOutput) {
+                // Jetty reads the file through its pooled direct buffers, without copying it onto the heap.
+                ((HttpOutput) output).sendContent(new RegionChannel(channel, offset, length));
+            } else {
+                WritableByteChannel target = Channels.newChannel(output);
+                long position = offset;
+                long end = offset + length;
+                while (position < end) {
+                    position += channel.transferTo(position, end - position, target);
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
         return this;
     }
 
@@ -86,4 +164,48 @@ final class JavalinHttpResponse implements HttpResponse {
         context.removeCookie(name, path);
         return this;
     }
+
+    private static final class RegionChannel implements ReadableByteChannel {
+        private final FileChannel channel;
+        private long position;
+        private long remaining;
+
+        public RegionChannel(FileChannel channel, long offset, long length) {
+            this.channel = channel;
+            this.position = offset;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read(ByteBuffer buffer) throws IOException {
+            if (remaining == 0) {
+                return -1;
+            }
+            int limit = buffer.limit();
+            if (buffer.remaining() > remaining) {
+                buffer.limit(buffer.position() + (int) remaining);
+            }
+            try {
+                int count = channel.read(buffer, position);
+                if (count < 0) {
+                    throw new EOFException("The file was truncated while it was being sent.");
+                }
+                position += count;
+                remaining -= count;
+                return count;
+            } finally {
+                buffer.limit(limit);
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
 }
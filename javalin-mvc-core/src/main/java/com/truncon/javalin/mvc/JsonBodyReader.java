@@ -0,0 +1,164 @@
+package com.truncon.javalin.mvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.javalin.http.HttpResponseException;
+import io.javalin.plugin.json.JavalinJackson;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Deserializes JSON request bodies directly from the request stream, without buffering
+ * the body as a String first. An {@link ObjectReader} is cached for each type.
+ */
+public final class JsonBodyReader {
+    /**
+     * Indicates that request bodies can be any size.
+     */
+    public static final long UNLIMITED = -1;
+    private static final int PAYLOAD_TOO_LARGE = 413;
+
+    private static volatile long maxBodySize = UNLIMITED;
+    private static volatile ReaderCache cache;
+
+    private JsonBodyReader() {
+    }
+
+    /**
+     * Gets the maximum number of bytes that will be read from a JSON or binary request body.
+     * @return the maximum body size or {@link #UNLIMITED}.
+     */
+    public static long getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    /**
+     * Sets the maximum number of bytes that will be read from a JSON or binary request body. Requests
+     * with larger bodies are rejected with a 413 (Payload Too Large) status code.
+     * @param maxBodySize The maximum body size or {@link #UNLIMITED}.
+     */
+    public static void setMaxBodySize(long maxBodySize) {
+        JsonBodyReader.maxBodySize = maxBodySize < 0 ? UNLIMITED : maxBodySize;
+    }
+
+    /**
+     * Deserializes the body of the request as the given type.
+     * @param request The request whose body should be deserialized.
+     * @param type The type to deserialize the body as.
+     * @param <T> The type to deserialize the body as.
+     * @return the deserialized body.
+     * @throws IOException if the body cannot be read or is not valid JSON.
+     * @throws HttpResponseException if the body exceeds the maximum body size.
+     */
+    public static <T> T read(HttpServletRequest request, Class<T> type) throws IOException {
+        return read(request, getReader(type));
+    }
+
+    /**
+     * Deserializes the body of the request using the given reader, enforcing the maximum body size.
+     * @param request The request whose body should be deserialized.
+     * @param reader The reader to deserialize the body with.
+     * @param <T> The type to deserialize the body as.
+     * @return the deserialized body.
+     * @throws IOException if the body cannot be read or deserialized.
+     * @throws HttpResponseException if the body exceeds the maximum body size.
+     */
+    static <T> T read(HttpServletRequest request, ObjectReader reader) throws IOException {
+        long limit = maxBodySize;
+        if (limit != UNLIMITED && request.getContentLengthLong() > limit) {
+            throw payloadTooLarge();
+        }
+        InputStream stream = request.getInputStream();
+        if (limit != UNLIMITED) {
+            stream = new LimitedInputStream(stream, limit);
+        }
+        try {
+            return reader.readValue(stream);
+        } catch (BodyTooLargeException exception) {
+            throw payloadTooLarge();
+        }
+    }
+
+    private static ObjectReader getReader(Class<?> type) {
+        // The mapper can be replaced using JavalinJackson.configure, which invalidates the readers.
+        ObjectMapper mapper = JavalinJackson.getObjectMapper();
+        ReaderCache current = cache;
+        if (current == null || current.mapper != mapper) {
+            current = new ReaderCache(mapper);
+            cache = current;
+        }
+        return current.getReader(type);
+    }
+
+    private static HttpResponseException payloadTooLarge() {
+        return new HttpResponseException(PAYLOAD_TOO_LARGE, "Payload Too Large", Collections.emptyMap());
+    }
+
+    private static final class ReaderCache {
+        private final ObjectMapper mapper;
+        private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+        public ReaderCache(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        public ObjectReader getReader(Class<?> type) {
+            return readers.computeIfAbsent(type, mapper::readerFor);
+        }
+    }
+
+    private static final class LimitedInputStream extends FilterInputStream {
+        private long remaining;
+
+        public LimitedInputStream(InputStream stream, long limit) {
+            super(stream);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                consume(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                consume(count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = super.skip(count);
+            consume(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void consume(long count) throws BodyTooLargeException {
+            remaining -= count;
+            if (remaining < 0) {
+                throw new BodyTooLargeException();
+            }
+        }
+    }
+
+    private static final class BodyTooLargeException extends IOException {
+    }
+}
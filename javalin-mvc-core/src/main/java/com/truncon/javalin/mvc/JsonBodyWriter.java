@@ -0,0 +1,91 @@
+package com.truncon.javalin.mvc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.javalin.plugin.json.JavalinJackson;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.BaseStream;
+
+/**
+ * Serializes objects as JSON directly to an output stream, without building the document
+ * as a String first. An {@link ObjectWriter} is cached for each type. {@link Iterator} and
+ * {@link BaseStream} payloads are written as JSON arrays, one element at a time.
+ */
+public final class JsonBodyWriter {
+    private static volatile WriterCache cache;
+
+    private JsonBodyWriter() {
+    }
+
+    /**
+     * Serializes the given object to the output stream. The stream is flushed but not closed.
+     * @param outputStream The stream to write the JSON document to.
+     * @param data The object to serialize.
+     * @throws IOException if the object cannot be serialized or written.
+     */
+    public static void write(OutputStream outputStream, Object data) throws IOException {
+        WriterCache writers = getWriters();
+        try (JsonGenerator generator = writers.mapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (data instanceof Iterator) {
+                writeArray(writers, generator, (Iterator<?>)data);
+            } else if (data instanceof BaseStream) {
+                try (BaseStream<?, ?> stream = (BaseStream<?, ?>)data) {
+                    writeArray(writers, generator, stream.iterator());
+                }
+            } else {
+                writeValue(writers, generator, data);
+            }
+        }
+    }
+
+    private static void writeArray(WriterCache writers, JsonGenerator generator, Iterator<?> iterator) throws IOException {
+        generator.writeStartArray();
+        while (iterator.hasNext()) {
+            writeValue(writers, generator, iterator.next());
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeValue(WriterCache writers, JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            writers.getWriter(value.getClass()).writeValue(generator, value);
+        }
+    }
+
+    private static WriterCache getWriters() {
+        // The mapper can be replaced using JavalinJackson.configure, which invalidates the writers.
+        ObjectMapper mapper = JavalinJackson.getObjectMapper();
+        WriterCache current = cache;
+        if (current == null || current.mapper != mapper) {
+            current = new WriterCache(mapper);
+            cache = current;
+        }
+        return current;
+    }
+
+    private static final class WriterCache {
+        private final ObjectMapper mapper;
+        private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+        public WriterCache(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        public ObjectWriter getWriter(Class<?> type) {
+            // Flushing after every array element would send a tiny chunk per element.
+            return writers.computeIfAbsent(
+                type,
+                t -> mapper.writerFor(t).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE));
+        }
+    }
+}
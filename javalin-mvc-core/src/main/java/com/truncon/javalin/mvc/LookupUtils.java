@@ -0,0 +1,70 @@
+package com.truncon.javalin.mvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provides case-insensitive access to the values of a request lookup without copying the lookup.
+ */
+public final class LookupUtils {
+    private LookupUtils() {
+    }
+
+    /**
+     * Gets the values associated with the given name. An exact match is tried first. Otherwise,
+     * the keys are compared ignoring case and surrounding whitespace, folding the values of every
+     * matching key together.
+     * @param lookup The lookup to search.
+     * @param name The name of the values to search for.
+     * @return the values or null if no key matches the name.
+     */
+    public static List<String> getValues(Map<String, List<String>> lookup, String name) {
+        if (name == null) {
+            return null;
+        }
+        List<String> values = lookup.get(name);
+        if (values != null || isCaseInsensitive(lookup)) {
+            return values;
+        }
+        String trimmed = name.trim();
+        List<String> folded = null;
+        for (Map.Entry<String, List<String>> entry : lookup.entrySet()) {
+            String key = entry.getKey();
+            if (key == null || !key.trim().equalsIgnoreCase(trimmed)) {
+                continue;
+            }
+            if (values == null) {
+                values = entry.getValue();
+            } else {
+                if (folded == null) {
+                    folded = new ArrayList<>(values);
+                    values = folded;
+                }
+                folded.addAll(entry.getValue());  // fold overlapping values together
+            }
+        }
+        return values;
+    }
+
+    private static boolean isCaseInsensitive(Map<String, List<String>> lookup) {
+        return lookup instanceof SingleValueLookup && ((SingleValueLookup)lookup).isCaseInsensitive();
+    }
+
+    /**
+     * Gets the value associated with the given name. Multiple values are joined with a semicolon.
+     * @param lookup The lookup to search.
+     * @param name The name of the value to search for.
+     * @return the value or null if no key matches the name.
+     */
+    public static String getValue(Map<String, List<String>> lookup, String name) {
+        List<String> values = getValues(lookup, name);
+        if (values == null) {
+            return null;
+        } else if (values.size() == 1) {
+            return values.get(0);
+        } else {
+            return String.join(";", values);
+        }
+    }
+}
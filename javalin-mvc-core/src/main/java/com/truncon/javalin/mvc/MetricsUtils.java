@@ -0,0 +1,62 @@
+package com.truncon.javalin.mvc;
+
+import com.truncon.javalin.mvc.api.ActionResult;
+import com.truncon.javalin.mvc.api.HttpContext;
+import com.truncon.javalin.mvc.api.RouteMetrics;
+import com.truncon.javalin.mvc.api.RoutePhase;
+
+/**
+ * Times the phases of a request for the generated route handlers. Every method does nothing
+ * when no {@link RouteMetrics} was provided, so handlers pay almost nothing for the hook.
+ */
+public final class MetricsUtils {
+    private MetricsUtils() {
+    }
+
+    public static void registerRoute(RouteMetrics metrics, int routeId, String method, String route) {
+        if (metrics != null) {
+            metrics.registerRoute(routeId, method, route);
+        }
+    }
+
+    /**
+     * Gets the time the first phase starts.
+     * @param metrics The metrics, or null if metrics are not being collected.
+     * @return the current time in nanoseconds or 0 if metrics are not being collected.
+     */
+    public static long start(RouteMetrics metrics) {
+        return metrics == null ? 0L : System.nanoTime();
+    }
+
+    /**
+     * Records the time elapsed since the phase started.
+     * @param metrics The metrics, or null if metrics are not being collected.
+     * @param routeId The ID of the route handling the request.
+     * @param phase The phase that just ended.
+     * @param startNanos The time the phase started.
+     * @return the current time, which is the start of the next phase.
+     */
+    public static long record(RouteMetrics metrics, int routeId, RoutePhase phase, long startNanos) {
+        if (metrics == null) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        metrics.record(routeId, phase, now - startNanos);
+        return now;
+    }
+
+    /**
+     * Generates the asynchronous content of the result, recording the time as the result phase.
+     * @param metrics The metrics, or null if metrics are not being collected.
+     * @param routeId The ID of the route handling the request.
+     * @param result The result returned by the action.
+     * @param context The request context.
+     * @return the content to send asynchronously.
+     */
+    public static Object executeAsync(RouteMetrics metrics, int routeId, ActionResult result, HttpContext context) {
+        long startNanos = start(metrics);
+        Object content = result.executeAsync(context);
+        record(metrics, routeId, RoutePhase.Result, startNanos);
+        return content;
+    }
+}
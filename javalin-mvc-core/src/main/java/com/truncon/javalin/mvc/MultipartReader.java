@@ -0,0 +1,523 @@
+package com.truncon.javalin.mvc;
+
+import com.truncon.javalin.mvc.api.FileUpload;
+import com.truncon.javalin.mvc.api.MultipartStream;
+import io.javalin.http.Context;
+import io.javalin.http.HttpResponseException;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Parses multipart/form-data request bodies straight from the request stream, handing out each
+ * part as soon as its headers arrive. Only parts that are skipped by {@link #getPart(String)}
+ * are buffered, in memory up to the spill threshold and in a temporary file beyond that.
+ */
+public final class MultipartReader implements MultipartStream {
+    /**
+     * Indicates that parts can be any size.
+     */
+    public static final long UNLIMITED = -1;
+    private static final int BAD_REQUEST = 400;
+    private static final int PAYLOAD_TOO_LARGE = 413;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_SIZE = 8 * 1024;
+    private static final String ATTRIBUTE_NAME = MultipartReader.class.getName();
+
+    private static volatile long maxPartSize = UNLIMITED;
+    private static volatile int spillThreshold = 64 * 1024;
+    private static volatile Path spillDirectory;
+
+    private final InputStream input;
+    private final byte[] delimiter;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final List<FileUpload> heldParts = new ArrayList<>();
+    private final List<InputStream> spilledStreams = new ArrayList<>();
+    private int head;
+    private int tail;
+    private PartInputStream current;
+    private boolean finished;
+
+    /**
+     * Creates a reader for the parts of the given stream.
+     * @param input The multipart body.
+     * @param boundary The boundary separating the parts, from the Content-Type header.
+     */
+    public MultipartReader(InputStream input, String boundary) {
+        this.input = input;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        // The first boundary is not preceded by a line break, so pretend it is.
+        buffer[tail++] = '\r';
+        buffer[tail++] = '\n';
+        // Anything before the first boundary is a preamble that is skipped.
+        this.current = new PartInputStream(UNLIMITED);
+    }
+
+    /**
+     * Gets the reader for the parts of the request, creating it on first use.
+     * @param request The multipart request.
+     * @return the reader.
+     * @throws HttpResponseException if the request is not a multipart request.
+     */
+    public static MultipartReader getReader(HttpServletRequest request) throws IOException {
+        Object existing = request.getAttribute(ATTRIBUTE_NAME);
+        if (existing instanceof MultipartReader) {
+            return (MultipartReader) existing;
+        }
+        String boundary = getBoundary(request.getContentType());
+        if (boundary == null) {
+            throw new HttpResponseException(BAD_REQUEST, "Bad Request", Collections.emptyMap());
+        }
+        MultipartReader reader = new MultipartReader(request.getInputStream(), boundary);
+        request.setAttribute(ATTRIBUTE_NAME, reader);
+        return reader;
+    }
+
+    /**
+     * Closes the reader of the request, if one was created, once the response is written. Javalin
+     * writes the result after the handler returns, and the result may be streamed from one of the
+     * parts, so a result stream is wrapped to close the reader along with it. When the response is
+     * sent asynchronously, the same is done once the result completes. Otherwise, the reader is
+     * closed right away. Closing the reader deletes the temporary files of the parts written to disk.
+     * @param context The request context.
+     */
+    public static void closeAfterResponse(Context context) {
+        Object existing = context.req.getAttribute(ATTRIBUTE_NAME);
+        if (!(existing instanceof MultipartReader)) {
+            return;
+        }
+        context.req.removeAttribute(ATTRIBUTE_NAME);
+        MultipartReader reader = (MultipartReader) existing;
+        CompletableFuture<?> future = context.resultFuture();
+        if (future != null) {
+            CompletableFuture<Object> closing = new CompletableFuture<>();
+            // The result is passed on as is, so exceptions reach the exception handlers unwrapped.
+            future.whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    closeQuietly(reader);
+                    closing.completeExceptionally(throwable);
+                } else {
+                    closing.complete(closeWith(result, reader));
+                }
+            });
+            context.result(closing);
+            return;
+        }
+        InputStream stream = context.resultStream();
+        if (stream == null) {
+            closeQuietly(reader);
+        } else {
+            context.result(new ClosingInputStream(stream, reader));
+        }
+    }
+
+    private static Object closeWith(Object result, MultipartReader reader) {
+        if (result instanceof InputStream) {
+            return new ClosingInputStream((InputStream) result, reader);
+        }
+        closeQuietly(reader);
+        return result;
+    }
+
+    private static void closeQuietly(MultipartReader reader) {
+        try {
+            reader.close();
+        } catch (IOException exception) {
+            // The temporary files could not be deleted, but the response is already complete.
+        }
+    }
+
+    /**
+     * Gets the maximum number of bytes that will be read from a single part.
+     * @return the maximum part size or {@link #UNLIMITED}.
+     */
+    public static long getMaxPartSize() {
+        return maxPartSize;
+    }
+
+    /**
+     * Sets the maximum number of bytes that will be read from a single part. Reading a larger part
+     * fails with a 413 (Payload Too Large) status code.
+     * @param maxPartSize The maximum part size or {@link #UNLIMITED}.
+     */
+    public static void setMaxPartSize(long maxPartSize) {
+        MultipartReader.maxPartSize = maxPartSize < 0 ? UNLIMITED : maxPartSize;
+    }
+
+    /**
+     * Gets the number of bytes of a part held aside in memory before it is written to a temporary file.
+     * @return the spill threshold.
+     */
+    public static int getSpillThreshold() {
+        return spillThreshold;
+    }
+
+    /**
+     * Sets the number of bytes of a part held aside in memory before it is written to a temporary file.
+     * @param spillThreshold The spill threshold.
+     */
+    public static void setSpillThreshold(int spillThreshold) {
+        MultipartReader.spillThreshold = Math.max(0, spillThreshold);
+    }
+
+    /**
+     * Gets the directory where the temporary files are created.
+     * @return the directory, or null to use the default temporary directory.
+     */
+    public static Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    /**
+     * Sets the directory where the temporary files are created.
+     * @param spillDirectory The directory, or null to use the default temporary directory.
+     */
+    public static void setSpillDirectory(Path spillDirectory) {
+        MultipartReader.spillDirectory = spillDirectory;
+    }
+
+    @Override
+    public FileUpload next() throws IOException {
+        if (!heldParts.isEmpty()) {
+            return heldParts.remove(0);
+        }
+        return readPart();
+    }
+
+    @Override
+    public FileUpload getPart(String name) throws IOException {
+        Iterator<FileUpload> iterator = heldParts.iterator();
+        while (iterator.hasNext()) {
+            FileUpload part = iterator.next();
+            if (name.equals(part.getName())) {
+                iterator.remove();
+                return part;
+            }
+        }
+        FileUpload part = readPart();
+        while (part != null && !name.equals(part.getName())) {
+            heldParts.add(hold(part));
+            part = readPart();
+        }
+        return part;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Closing the streams of the parts written to disk deletes their temporary files.
+        for (InputStream stream : spilledStreams) {
+            stream.close();
+        }
+        spilledStreams.clear();
+        heldParts.clear();
+    }
+
+    private FileUpload readPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+        current.skipRemaining();
+        if (isNext('-') && isNext('-')) {
+            finished = true;
+            return null;
+        }
+        String disposition = null;
+        String contentType = null;
+        for (String header : readHeaders()) {
+            int colon = header.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String name = header.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = header.substring(colon + 1).trim();
+            if (name.equals("content-disposition")) {
+                disposition = value;
+            } else if (name.equals("content-type")) {
+                contentType = value;
+            }
+        }
+        current = new PartInputStream(maxPartSize);
+        String name = getParameter(disposition, "name");
+        String fileName = getParameter(disposition, "filename");
+        return new FileUpload(name, current, contentType, fileName);
+    }
+
+    private boolean isNext(char expected) throws IOException {
+        if (!ensureAvailable(1)) {
+            throw malformed();
+        }
+        if (buffer[head] != expected) {
+            return false;
+        }
+        head++;
+        return true;
+    }
+
+    private List<String> readHeaders() throws IOException {
+        // The rest of the boundary line is padding, which is ignored.
+        readLine();
+        List<String> headers = new ArrayList<>();
+        int size = 0;
+        String line = readLine();
+        while (!line.isEmpty()) {
+            size += line.length();
+            if (size > MAX_HEADER_SIZE) {
+                throw malformed();
+            }
+            headers.add(line);
+            line = readLine();
+        }
+        return headers;
+    }
+
+    private String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        while (true) {
+            if (!ensureAvailable(1)) {
+                throw malformed();
+            }
+            byte value = buffer[head++];
+            if (value == '\n') {
+                break;
+            }
+            if (value != '\r') {
+                line.write(value);
+            }
+            if (line.size() > MAX_HEADER_SIZE) {
+                throw malformed();
+            }
+        }
+        return new String(line.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads from the request until the given number of bytes is buffered or the request ends.
+     * @return true if the bytes are available; otherwise, false.
+     */
+    private boolean ensureAvailable(int count) throws IOException {
+        while (tail - head < count) {
+            if (head > 0) {
+                System.arraycopy(buffer, head, buffer, 0, tail - head);
+                tail -= head;
+                head = 0;
+            }
+            int read = input.read(buffer, tail, buffer.length - tail);
+            if (read < 0) {
+                return false;
+            }
+            tail += read;
+        }
+        return true;
+    }
+
+    /**
+     * Searches the buffer for the delimiter, stopping at the given position.
+     * @return the position of the delimiter, or -1 if it does not end before the given position.
+     */
+    private int indexOfDelimiter(int end) {
+        int last = end - delimiter.length;
+        for (int index = head; index <= last; index++) {
+            if (buffer[index] == delimiter[0] && matchesDelimiter(index)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matchesDelimiter(int index) {
+        for (int offset = 1; offset < delimiter.length; offset++) {
+            if (buffer[index + offset] != delimiter[offset]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private FileUpload hold(FileUpload part) throws IOException {
+        InputStream stream = part.getStream();
+        int threshold = spillThreshold;
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8 * 1024];
+        int read;
+        while (memory.size() <= threshold && (read = stream.read(chunk)) >= 0) {
+            memory.write(chunk, 0, read);
+        }
+        InputStream held;
+        if (memory.size() <= threshold) {
+            held = new ByteArrayInputStream(memory.toByteArray());
+        } else {
+            Path directory = spillDirectory;
+            Path file = directory == null
+                ? Files.createTempFile("javalin-mvc-multipart-", ".tmp")
+                : Files.createTempFile(directory, "javalin-mvc-multipart-", ".tmp");
+            try (OutputStream output = Files.newOutputStream(file)) {
+                memory.writeTo(output);
+                while ((read = stream.read(chunk)) >= 0) {
+                    output.write(chunk, 0, read);
+                }
+            } catch (IOException | RuntimeException exception) {
+                Files.deleteIfExists(file);
+                throw exception;
+            }
+            held = Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+            spilledStreams.add(held);
+        }
+        return new FileUpload(part.getName(), held, part.getContentType(), part.getFileName());
+    }
+
+    private static String getBoundary(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+            return null;
+        }
+        String boundary = getParameter(contentType, "boundary");
+        return boundary == null || boundary.isEmpty() ? null : boundary;
+    }
+
+    /**
+     * Gets a parameter from a header value, such as the name in form-data; name="file".
+     */
+    private static String getParameter(String header, String name) {
+        if (header == null) {
+            return null;
+        }
+        int index = header.indexOf(';');
+        while (index >= 0 && index < header.length()) {
+            int start = index + 1;
+            int equals = header.indexOf('=', start);
+            if (equals < 0) {
+                return null;
+            }
+            String key = header.substring(start, equals).trim();
+            String value;
+            int end;
+            int valueStart = equals + 1;
+            while (valueStart < header.length() && header.charAt(valueStart) == ' ') {
+                valueStart++;
+            }
+            if (valueStart < header.length() && header.charAt(valueStart) == '"') {
+                int close = header.indexOf('"', valueStart + 1);
+                close = close < 0 ? header.length() : close;
+                value = header.substring(valueStart + 1, close);
+                end = header.indexOf(';', close);
+            } else {
+                end = header.indexOf(';', valueStart);
+                value = header.substring(valueStart, end < 0 ? header.length() : end).trim();
+            }
+            if (key.equalsIgnoreCase(name)) {
+                return value;
+            }
+            index = end;
+        }
+        return null;
+    }
+
+    private static HttpResponseException malformed() {
+        return new HttpResponseException(BAD_REQUEST, "Malformed multipart request", Collections.emptyMap());
+    }
+
+    /**
+     * Reads the content of a part, up to the next boundary.
+     */
+    private final class PartInputStream extends InputStream {
+        private final long limit;
+        private final byte[] single = new byte[1];
+        private long total;
+        private boolean done;
+
+        public PartInputStream(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int count = read(single, 0, 1);
+            return count < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (done || current != this) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            while (true) {
+                // Only the bytes that could be returned need to be searched.
+                int end = (int) Math.min(tail, (long) head + length + delimiter.length - 1);
+                int index = indexOfDelimiter(end);
+                int available = index >= 0 ? index - head : end - head - delimiter.length + 1;
+                if (index == head) {
+                    head += delimiter.length;
+                    done = true;
+                    return -1;
+                }
+                if (available > 0) {
+                    int count = Math.min(length, available);
+                    System.arraycopy(buffer, head, target, offset, count);
+                    head += count;
+                    consume(count);
+                    return count;
+                }
+                if (!ensureAvailable(tail - head + 1)) {
+                    throw malformed();
+                }
+            }
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+
+        public void skipRemaining() throws IOException {
+            byte[] chunk = new byte[8 * 1024];
+            while (read(chunk, 0, chunk.length) >= 0) {
+                // Discard the rest of the part.
+            }
+        }
+
+        private void consume(int count) {
+            total += count;
+            if (limit != UNLIMITED && total > limit) {
+                throw new HttpResponseException(PAYLOAD_TOO_LARGE, "Payload Too Large", Collections.emptyMap());
+            }
+        }
+    }
+
+    /**
+     * Closes the reader along with the result streamed from it.
+     */
+    private static final class ClosingInputStream extends FilterInputStream {
+        private final MultipartReader reader;
+
+        public ClosingInputStream(InputStream stream, MultipartReader reader) {
+            super(stream);
+            this.reader = reader;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                closeQuietly(reader);
+            }
+        }
+    }
+}
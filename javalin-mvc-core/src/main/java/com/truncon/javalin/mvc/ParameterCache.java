@@ -1,15 +1,11 @@
 package com.truncon.javalin.mvc;
 
-import com.truncon.javalin.mvc.api.Named;
-
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.function.Supplier;
 
 public final class ParameterCache {
     private final Supplier<Map<String, List<String>>> getter;
+    private Map<String, List<String>> source;
     private Map<String, List<String>> lookup;
 
     public ParameterCache(Supplier<Map<String, List<String>>> getter) {
@@ -22,13 +18,22 @@ public final class ParameterCache {
     }
 
     public boolean hasValue(String name) {
-        Map<String, List<String>> lookup = getLookup();
-        return lookup.containsKey(sterilize(name));
+        return getValues(name) != null;
     }
 
     public List<String> getValues(String name) {
-        Map<String, List<String>> lookup = getLookup();
-        return lookup.get(sterilize(name));
+        if (lookup != null) {
+            return lookup.get(sterilize(name));
+        }
+        // Probe the source directly rather than copying every key just to read one value.
+        return LookupUtils.getValues(getSource(), name);
+    }
+
+    private Map<String, List<String>> getSource() {
+        if (source == null) {
+            source = getter.get();
+        }
+        return source;
     }
 
     private Map<String, List<String>> getLookup() {
@@ -36,102 +41,40 @@ public final class ParameterCache {
             return lookup;
         }
         Map<String, List<String>> cache = new HashMap<>();
-        Map<String, List<String>> source = getter.get();
-        for (String name : source.keySet()) {
-            String sterilized = sterilize(name);
-            List<String> values = source.get(name);
-            if (cache.containsKey(sterilized)) {
-                cache.get(sterilized).addAll(values);  // fold overlapping values together
-            } else {
+        Map<String, List<String>> source = getSource();
+        for (Map.Entry<String, List<String>> entry : source.entrySet()) {
+            String sterilized = sterilize(entry.getKey());
+            List<String> values = entry.getValue();
+            List<String> existing = cache.get(sterilized);
+            if (existing == null) {
                 cache.put(sterilized, values);
+            } else {
+                // Fold overlapping values together without modifying the source.
+                List<String> folded = new ArrayList<>(existing);
+                folded.addAll(values);
+                cache.put(sterilized, folded);
             }
         }
         lookup = cache;
         return lookup;
     }
 
-    private static String sterilize(String name) {
+    static String sterilize(String name) {
         return name == null ? null : name.trim().toUpperCase();
     }
 
     public Object bindValues(Class<?> type) {
-        try {
-            Object instance = type.newInstance();
-            for (String key : getKeys()) {
-                bindValue(type, instance, key);
-            }
-            return instance;
-        } catch (Exception exception) {
-            // swallow any deserialization errors
+        BindingMetadata metadata = BindingMetadata.getMetadata(type);
+        Object instance = metadata.newInstance();
+        if (instance == null) {
             return null;
         }
-    }
-
-    private void bindValue(Class<?> type, Object instance, String key) {
-        try {
-            Method method = getMethodForKey(type, key);
-            if (method != null) {
-                method.setAccessible(true);
-                List<String> rawValues = getValues(key);
-                Class<?> parameterType = method.getParameters()[0].getType();
-                Optional<Object> value = ConversionUtils.toParameterValue(parameterType, rawValues);
-                if (value.isPresent()) {
-                    method.invoke(instance, value.get());
-                    return;
-                }
-            }
-            Field field = getFieldForKey(type, key);
-            if (field != null) {
-                field.setAccessible(true);
-                List<String> rawValues = getValues(key);
-                Optional<Object> value = ConversionUtils.toParameterValue(field.getType(), rawValues);
-                if (value.isPresent()) {
-                    field.set(instance, value.get());
-                }
+        for (String key : getKeys()) {
+            BindingMetadata.MemberBinding member = metadata.getMember(key);
+            if (member != null) {
+                member.bind(instance, getValues(key));
             }
-        } catch (Exception exception) {
-            // Swallow any binding errors
-        }
-    }
-
-    private static Method getMethodForKey(Class<?> type, String key) {
-        return Arrays.stream(type.getDeclaredMethods())
-            .filter(m -> !Modifier.isStatic(m.getModifiers()))
-            .filter(m -> m.getParameterCount() == 1)
-            .filter(m -> hasMatchingName(m, key))
-            .findAny()
-            .orElse(null);
-    }
-
-    private static boolean hasMatchingName(Method method, String key) {
-        Named annotation = method.getAnnotation(Named.class);
-        if (annotation == null) {
-            // The method is not named, so we look for exact matches or leading "set"
-            return method.getName().equalsIgnoreCase(key)
-                    || method.getName().equalsIgnoreCase("set" + key);
-        } else {
-            // If the setter is named, the name must match exactly, ignoring case.
-            return annotation.value().equalsIgnoreCase(key);
-        }
-    }
-
-    private static Field getFieldForKey(Class<?> type, String key) {
-        return Arrays.stream(type.getDeclaredFields())
-            .filter(f -> !Modifier.isStatic(f.getModifiers()))
-            .filter(f -> !Modifier.isFinal(f.getModifiers()))
-            .filter(f -> hasMatchingName(f, key))
-            .findAny()
-            .orElse(null);
-    }
-
-    private static boolean hasMatchingName(Field method, String key) {
-        Named annotation = method.getAnnotation(Named.class);
-        if (annotation == null) {
-            // The field is not named, so we look for exact matches, ignoring case.
-            return method.getName().equalsIgnoreCase(key);
-        } else {
-            // If the setter is named, the name must match exactly, ignoring case.
-            return annotation.value().equalsIgnoreCase(key);
         }
+        return instance;
     }
 }
@@ -0,0 +1,295 @@
+package com.truncon.javalin.mvc;
+
+import com.truncon.javalin.mvc.api.Cached;
+import com.truncon.javalin.mvc.api.ConditionalRequests;
+import com.truncon.javalin.mvc.api.HttpRequest;
+import io.javalin.http.Context;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the responses of a {@link Cached} action. The generated route handlers look the response up
+ * before creating the controller, and record the response produced by the action when it is missing.
+ *
+ * The cache is split into independently locked segments, picked by the hash of the key. Each segment
+ * is a segmented LRU: responses start out in a probationary segment and are promoted to a protected
+ * segment when they are requested again, so a burst of one-off requests cannot flush the popular ones.
+ */
+public final class ResponseCache {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 8;
+
+    private final long ttlNanos;
+    private final Segment[] segments;
+
+    /**
+     * Creates a cache.
+     * @param ttlNanos How long responses are kept, in nanoseconds, or zero to keep them until evicted.
+     * @param maxEntries The maximum number of responses.
+     */
+    public ResponseCache(long ttlNanos, int maxEntries) {
+        this.ttlNanos = ttlNanos;
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maxEntries / MIN_SEGMENT_SIZE)));
+        this.segments = new Segment[count];
+        for (int index = 0; index != count; ++index) {
+            int capacity = maxEntries / count + (index < maxEntries % count ? 1 : 0);
+            segments[index] = new Segment(capacity);
+        }
+    }
+
+    /**
+     * Sends the cached response for the given key, if there is one. When the client's copy is
+     * current, according to the ETag and Last-Modified headers of the cached response, a 304
+     * (Not Modified) is sent in its place.
+     * @param key The values identifying the response.
+     * @param context The request context.
+     * @return true if the response was sent; otherwise, false.
+     */
+    public boolean trySend(Object key, Context context) {
+        key = getVariantKey(key, context);
+        Entry entry = getSegment(key).get(key, System.nanoTime());
+        if (entry == null) {
+            return false;
+        }
+        context.status(entry.statusCode);
+        String previousName = null;
+        for (String[] header : entry.headers) {
+            // Headers with several values were recorded one value at a time, next to each other.
+            if (header[0].equals(previousName)) {
+                context.res.addHeader(header[0], header[1]);
+            } else {
+                context.res.setHeader(header[0], header[1]);
+            }
+            previousName = header[0];
+        }
+        if (ConditionalRequests.sendNotModified(
+                new JavalinHttpContext(context), entry.statusCode, entry.etag, entry.lastModified)) {
+            return true;
+        }
+        if (entry.contentType != null) {
+            context.contentType(entry.contentType);
+        }
+        context.result(new ByteArrayInputStream(entry.body));
+        return true;
+    }
+
+    /**
+     * Records the response, then sends it.
+     * @param key The values identifying the response.
+     * @param context The request context.
+     * @param content The content returned by the result of the action.
+     */
+    public void send(Object key, Context context, Object content) {
+        Object recorded = store(key, context, content);
+        if (recorded instanceof InputStream) {
+            context.result((InputStream) recorded);
+        }
+    }
+
+    /**
+     * Records the response to send for the given key. Responses that cannot be cached are left as-is.
+     * @param key The values identifying the response.
+     * @param context The request context.
+     * @param content The content returned by the result of the action.
+     * @return the content to send.
+     */
+    public Object store(Object key, Context context, Object content) {
+        byte[] body;
+        if (content instanceof String) {
+            body = ((String) content).getBytes(StandardCharsets.UTF_8);
+        } else if (content instanceof InputStream) {
+            body = readAllBytes((InputStream) content);
+        } else {
+            // The result wrote the response itself, so there is nothing to record.
+            return content;
+        }
+        HttpServletResponse response = context.res;
+        int statusCode = response.getStatus();
+        List<String[]> headers = getHeaders(response);
+        if (statusCode >= 200 && statusCode < 300 && headers != null) {
+            long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+            Entry entry = new Entry(statusCode, response.getContentType(), headers, body, expiresAt);
+            Object variantKey = getVariantKey(key, context);
+            getSegment(variantKey).put(variantKey, entry);
+        }
+        return new ByteArrayInputStream(body);
+    }
+
+    private static List<String[]> getHeaders(HttpServletResponse response) {
+        List<String[]> headers = new ArrayList<>();
+        for (String name : response.getHeaderNames()) {
+            if ("Set-Cookie".equalsIgnoreCase(name) || "Content-Encoding".equalsIgnoreCase(name)) {
+                return null;
+            }
+            if ("Content-Type".equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name)) {
+                continue;
+            }
+            for (String value : response.getHeaders(name)) {
+                headers.add(new String[] { name, value });
+            }
+        }
+        return headers;
+    }
+
+    private static byte[] readAllBytes(InputStream stream) {
+        try (InputStream input = stream) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int count;
+            while ((count = input.read(chunk)) != -1) {
+                buffer.write(chunk, 0, count);
+            }
+            return buffer.toByteArray();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static Object getVariantKey(Object key, Context context) {
+        // JSON results are sent in the binary format the client asks for, so each format is cached separately.
+        String binaryFormat = BinaryFormats.negotiate(context);
+        return binaryFormat == null ? key : Arrays.asList(key, binaryFormat);
+    }
+
+    private Segment getSegment(Object key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (segments.length - 1)];
+    }
+
+    /**
+     * Gets a copy of a request lookup, for parameters bound from every value in the lookup.
+     * @param lookup The lookup.
+     * @return the copy.
+     */
+    public static Map<String, List<String>> getLookupKey(Map<String, List<String>> lookup) {
+        return new HashMap<>(lookup);
+    }
+
+    /**
+     * Gets the values a parameter without an explicit source is bound from. The sources are searched
+     * in the same order as {@link DefaultModelBinder}, falling back on the body of the request.
+     * @param request The request.
+     * @param name The name of the parameter.
+     * @return the values of the parameter, or the body of the request.
+     */
+    public static Object getAnyKey(HttpRequest request, String name) {
+        List<String> values = LookupUtils.getValues(request.getPathLookup(), name);
+        if (values == null) {
+            values = LookupUtils.getValues(request.getHeaderLookup(), name);
+        }
+        if (values == null) {
+            values = LookupUtils.getValues(request.getCookieLookup(), name);
+        }
+        if (values == null) {
+            values = LookupUtils.getValues(request.getQueryLookup(), name);
+        }
+        if (values == null) {
+            values = LookupUtils.getValues(request.getFormLookup(), name);
+        }
+        return values == null ? ByteBuffer.wrap(request.getBodyAsBytes()) : values;
+    }
+
+    private static final class Entry {
+        private final int statusCode;
+        private final String contentType;
+        private final List<String[]> headers;
+        private final String etag;
+        private final Long lastModified;
+        private final byte[] body;
+        private final long expiresAt;
+
+        public Entry(int statusCode, String contentType, List<String[]> headers, byte[] body, long expiresAt) {
+            this.statusCode = statusCode;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.etag = getHeader(headers, "ETag");
+            this.lastModified = ConditionalRequests.parseDate(getHeader(headers, "Last-Modified"));
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        private static String getHeader(List<String[]> headers, String name) {
+            for (String[] header : headers) {
+                if (header[0].equalsIgnoreCase(name)) {
+                    return header[1];
+                }
+            }
+            return null;
+        }
+
+        public boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt >= 0;
+        }
+    }
+
+    private static final class Segment {
+        private final int capacity;
+        private final int protectedCapacity;
+        private final Map<Object, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<Object, Entry> protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+        public Segment(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = capacity * 4 / 5;
+        }
+
+        public synchronized Entry get(Object key, long now) {
+            Entry entry = protectedEntries.get(key);
+            if (entry != null) {
+                if (entry.isExpired(now)) {
+                    protectedEntries.remove(key);
+                    return null;
+                }
+                return entry;
+            }
+            entry = probation.remove(key);
+            if (entry == null || entry.isExpired(now)) {
+                return null;
+            }
+            // A second request promotes the response, demoting the least recently used protected response.
+            protectedEntries.put(key, entry);
+            if (protectedEntries.size() > protectedCapacity) {
+                Iterator<Map.Entry<Object, Entry>> iterator = protectedEntries.entrySet().iterator();
+                Map.Entry<Object, Entry> eldest = iterator.next();
+                iterator.remove();
+                probation.put(eldest.getKey(), eldest.getValue());
+                trim();
+            }
+            return entry;
+        }
+
+        public synchronized void put(Object key, Entry entry) {
+            if (protectedEntries.containsKey(key)) {
+                protectedEntries.put(key, entry);
+                return;
+            }
+            probation.put(key, entry);
+            trim();
+        }
+
+        private void trim() {
+            Collection<Entry> entries = probation.values();
+            Iterator<Entry> iterator = entries.iterator();
+            while (probation.size() + protectedEntries.size() > capacity && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+}
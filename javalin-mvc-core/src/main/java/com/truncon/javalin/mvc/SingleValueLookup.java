@@ -0,0 +1,75 @@
+package com.truncon.javalin.mvc;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Presents a single-valued source, such as headers or cookies, as a multi-valued lookup. Individual
+ * values are resolved directly against the source, so the full map is only built when the lookup is
+ * enumerated.
+ */
+public final class SingleValueLookup extends AbstractMap<String, List<String>> {
+    private final Function<String, String> getter;
+    private final Supplier<Map<String, String>> mapGetter;
+    private final boolean caseInsensitive;
+    private Set<Entry<String, List<String>>> entries;
+
+    /**
+     * Creates a lookup whose values are resolved by looking them up in the given map.
+     * @param map The map to wrap.
+     */
+    public SingleValueLookup(Map<String, String> map) {
+        this(map::get, () -> map, false);
+    }
+
+    /**
+     * Creates a lookup whose values are resolved by calling the given getter.
+     * @param getter Gets the value for a name or null if the value is missing.
+     * @param mapGetter Gets all of the values, only called if the lookup is enumerated.
+     * @param caseInsensitive Whether the getter already ignores the case of the name.
+     */
+    public SingleValueLookup(Function<String, String> getter, Supplier<Map<String, String>> mapGetter, boolean caseInsensitive) {
+        this.getter = getter;
+        this.mapGetter = mapGetter;
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * Gets whether the lookup already ignores the case of names, in which case a failed
+     * lookup does not need to be retried against every key.
+     * @return true if the lookup is case-insensitive; otherwise, false.
+     */
+    public boolean isCaseInsensitive() {
+        return caseInsensitive;
+    }
+
+    @Override
+    public List<String> get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        String value = getter.apply((String)key);
+        return value == null ? null : Collections.singletonList(value);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<String, List<String>>> entrySet() {
+        if (entries != null) {
+            return entries;
+        }
+        Map<String, String> map = mapGetter.get();
+        Set<Entry<String, List<String>>> entries = new LinkedHashSet<>();
+        for (Entry<String, String> entry : map.entrySet()) {
+            List<String> values = Collections.singletonList(entry.getValue());
+            entries.add(new SimpleImmutableEntry<>(entry.getKey(), values));
+        }
+        this.entries = Collections.unmodifiableSet(entries);
+        return this.entries;
+    }
+}
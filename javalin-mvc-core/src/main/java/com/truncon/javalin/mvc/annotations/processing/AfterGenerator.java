@@ -2,6 +2,7 @@ package com.truncon.javalin.mvc.annotations.processing;
 
 import com.squareup.javapoet.CodeBlock;
 import com.truncon.javalin.mvc.api.After;
+import com.truncon.javalin.mvc.api.AsyncAfterActionHandler;
 import com.truncon.javalin.mvc.api.AfterContainer;
 
 import javax.lang.model.element.Name;
@@ -41,33 +42,77 @@ final class AfterGenerator {
             CodeBlock.Builder routeBuilder,
             String injectorName,
             String contextName,
-            String exceptionName) {
+            String exceptionName,
+            SharedInstances sharedInstances) {
+        routeBuilder.addStatement(
+                "$L = $L.executeAfter($L, $L, $L)",
+                exceptionName,
+                getHandler(injectorName, sharedInstances),
+                contextName,
+                getArguments(),
+                exceptionName);
+    }
+
+    /**
+     * Adds the handler to the asynchronous pipeline of the request.
+     * @param routeBuilder The route being built.
+     * @param pipelineName The name of the pipeline variable.
+     * @param injectorName The name of the injector variable, or null if there is no container.
+     * @param contextName The name of the context variable.
+     * @param sharedInstances The instances shared between requests.
+     */
+    public void generateAsyncAfter(
+            CodeBlock.Builder routeBuilder,
+            String pipelineName,
+            String injectorName,
+            String contextName,
+            SharedInstances sharedInstances) {
+        routeBuilder.addStatement(
+                "$N.$L(exception -> $L.$L($L, $L, exception))",
+                pipelineName,
+                isAsync() ? "afterAsync" : "after",
+                getHandler(injectorName, sharedInstances),
+                isAsync() ? "executeAfterAsync" : "executeAfter",
+                contextName,
+                getArguments());
+    }
+
+    /**
+     * Gets whether the handler implements {@link AsyncAfterActionHandler}.
+     * @return true if the handler completes asynchronously; otherwise, false.
+     */
+    public boolean isAsync() {
+        TypeElement asyncType = container.getElementUtils().getTypeElement(AsyncAfterActionHandler.class.getCanonicalName());
+        return container.getTypeUtils().isAssignable(getTypeMirror(), asyncType.asType());
+    }
+
+    private CodeBlock getHandler(String injectorName, SharedInstances sharedInstances) {
+        String sharedName = sharedInstances.getInstanceName(getHandlerType());
         Name handlerGetter = injectorName == null ? null : getHandlerGetter();
-        String arguments = getArguments();
-        if (handlerGetter == null) {
-            routeBuilder.addStatement(
-                    "$L = new $T().executeAfter($L, $L, $L)",
-                    exceptionName,
-                    getTypeMirror(),
-                    contextName,
-                    arguments,
-                    exceptionName);
+        if (sharedName != null) {
+            return CodeBlock.of("$N", sharedName);
+        } else if (handlerGetter == null) {
+            return CodeBlock.of("new $T()", getTypeMirror());
         } else {
-            routeBuilder.addStatement(
-                    "$L = $L.$L().executeAfter($L, $L, $L)",
-                    exceptionName,
-                    injectorName,
-                    handlerGetter,
-                    contextName,
-                    arguments,
-                    exceptionName);
+            return CodeBlock.of("$L.$L()", injectorName, handlerGetter);
         }
     }
 
+    /**
+     * Gets whether the handler must be retrieved from a per-request injector.
+     * @return true if the handler is provided by the container and is not shared; otherwise, false.
+     */
+    public boolean isInjectorNeeded() {
+        return container.isFound() && !SharedInstances.isShared(getHandlerType()) && getHandlerGetter() != null;
+    }
+
     private Name getHandlerGetter() {
+        return container.getDependencyName(getHandlerType());
+    }
+
+    private TypeElement getHandlerType() {
         TypeMirror handlerType = getTypeMirror();
-        TypeElement handlerTypeElement = (TypeElement)container.getTypeUtils().asElement(handlerType);
-        return container.getDependencyName(handlerTypeElement);
+        return (TypeElement)container.getTypeUtils().asElement(handlerType);
     }
 
     private TypeMirror getTypeMirror() {
@@ -1,6 +1,7 @@
 package com.truncon.javalin.mvc.annotations.processing;
 
 import com.squareup.javapoet.CodeBlock;
+import com.truncon.javalin.mvc.api.AsyncBeforeActionHandler;
 import com.truncon.javalin.mvc.api.Before;
 import com.truncon.javalin.mvc.api.BeforeContainer;
 
@@ -37,36 +38,90 @@ final class BeforeGenerator {
         return handlers.stream().map(h -> new BeforeGenerator(container, h)).collect(Collectors.toList());
     }
 
+    /**
+     * Runs the handler, returning from the route if it cancels the request.
+     * @param routeBuilder The route being built.
+     * @param injectorName The name of the injector variable, or null if there is no container.
+     * @param contextName The name of the context variable.
+     * @param sharedInstances The instances shared between requests.
+     * @param cancelled The statement to run before returning when the request is cancelled.
+     */
     public void generateBefore(
             CodeBlock.Builder routeBuilder,
             String injectorName,
-            String contextName) {
+            String contextName,
+            SharedInstances sharedInstances,
+            CodeBlock cancelled) {
+        routeBuilder.beginControlFlow(
+                "if (!$L.executeBefore($L, $L))",
+                getHandler(injectorName, sharedInstances),
+                contextName,
+                getArguments())
+                .addStatement(cancelled)
+                .addStatement("return")
+                .endControlFlow();
+    }
+
+    /**
+     * Adds the handler to the asynchronous pipeline of the request.
+     * @param routeBuilder The route being built.
+     * @param pipelineName The name of the pipeline variable.
+     * @param injectorName The name of the injector variable, or null if there is no container.
+     * @param contextName The name of the context variable.
+     * @param sharedInstances The instances shared between requests.
+     */
+    public void generateAsyncBefore(
+            CodeBlock.Builder routeBuilder,
+            String pipelineName,
+            String injectorName,
+            String contextName,
+            SharedInstances sharedInstances) {
+        routeBuilder.addStatement(
+                "$N.$L(() -> $L.$L($L, $L))",
+                pipelineName,
+                isAsync() ? "beforeAsync" : "before",
+                getHandler(injectorName, sharedInstances),
+                isAsync() ? "executeBeforeAsync" : "executeBefore",
+                contextName,
+                getArguments());
+    }
+
+    /**
+     * Gets whether the handler implements {@link AsyncBeforeActionHandler}.
+     * @return true if the handler completes asynchronously; otherwise, false.
+     */
+    public boolean isAsync() {
+        TypeElement asyncType = container.getElementUtils().getTypeElement(AsyncBeforeActionHandler.class.getCanonicalName());
+        return container.getTypeUtils().isAssignable(getTypeMirror(), asyncType.asType());
+    }
+
+    private CodeBlock getHandler(String injectorName, SharedInstances sharedInstances) {
+        String sharedName = sharedInstances.getInstanceName(getHandlerType());
         Name handlerGetter = injectorName == null ? null : getHandlerGetter();
-        String arguments = getArguments();
-        if (handlerGetter == null) {
-            routeBuilder.beginControlFlow(
-                    "if (!new $T().executeBefore($L, $L))",
-                    getTypeMirror(),
-                    contextName,
-                    arguments)
-                    .addStatement("return")
-                    .endControlFlow();
+        if (sharedName != null) {
+            return CodeBlock.of("$N", sharedName);
+        } else if (handlerGetter == null) {
+            return CodeBlock.of("new $T()", getTypeMirror());
         } else {
-            routeBuilder.beginControlFlow(
-                    "if (!$L.$L().executeBefore($L, $L))",
-                    injectorName,
-                    handlerGetter,
-                    contextName,
-                    arguments)
-                    .addStatement("return")
-                    .endControlFlow();
+            return CodeBlock.of("$L.$L()", injectorName, handlerGetter);
         }
     }
 
+    /**
+     * Gets whether the handler must be retrieved from a per-request injector.
+     * @return true if the handler is provided by the container and is not shared; otherwise, false.
+     */
+    public boolean isInjectorNeeded() {
+        return container.isFound() && !SharedInstances.isShared(getHandlerType()) && getHandlerGetter() != null;
+    }
+
     private Name getHandlerGetter() {
+        return container.getDependencyName(getHandlerType());
+    }
+
+    private TypeElement getHandlerType() {
         TypeMirror handlerType = getTypeMirror();
-        TypeElement handlerTypeElement = (TypeElement)container.getTypeUtils().asElement(handlerType);
-        return container.getDependencyName(handlerTypeElement);
+        return (TypeElement)container.getTypeUtils().asElement(handlerType);
     }
 
     private TypeMirror getTypeMirror() {
@@ -1,6 +1,7 @@
 package com.truncon.javalin.mvc.annotations.processing;
 
 import com.squareup.javapoet.*;
+import com.truncon.javalin.mvc.api.RouteMetrics;
 import io.javalin.Javalin;
 
 import javax.annotation.Generated;
@@ -9,7 +10,9 @@ import javax.lang.model.element.Modifier;
 import javax.tools.JavaFileObject;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
@@ -44,19 +47,35 @@ final class ControllerRegistryGenerator {
         FieldSpec scopeFactoryField = FieldSpec.builder(factoryType, "scopeFactory", Modifier.PRIVATE, Modifier.FINAL).build();
         registryTypeBuilder.addField(scopeFactoryField);
 
+        FieldSpec metricsField = FieldSpec.builder(RouteMetrics.class, "metrics", Modifier.PRIVATE, Modifier.FINAL).build();
+        registryTypeBuilder.addField(metricsField);
+
         MethodSpec constructor = MethodSpec.constructorBuilder()
             .addModifiers(Modifier.PUBLIC)
             .addParameter(factoryType, "scopeFactory")
-            .addStatement("this.scopeFactory = scopeFactory")
+            .addStatement("this(scopeFactory, null)")
             .build();
         registryTypeBuilder.addMethod(constructor);
 
+        MethodSpec metricsConstructor = MethodSpec.constructorBuilder()
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(factoryType, "scopeFactory")
+            .addParameter(RouteMetrics.class, "metrics")
+            .addStatement("this.scopeFactory = scopeFactory")
+            .addStatement("this.metrics = metrics")
+            .build();
+        registryTypeBuilder.addMethod(metricsConstructor);
+
         final String APP_NAME = "app";
+        SharedInstances sharedInstances = new SharedInstances(container);
+        CodeBlock actionMethods = createActionMethods(sharedInstances, APP_NAME);
+        CodeBlock wsEndpoints = createWsEndpoints(sharedInstances, APP_NAME);
         MethodSpec register = MethodSpec.methodBuilder("register")
             .addModifiers(Modifier.PUBLIC)
             .addParameter(Javalin.class, APP_NAME, Modifier.FINAL)
-            .addCode(createActionMethods(APP_NAME))
-            .addCode(createWsEndpoints(APP_NAME))
+            .addCode(sharedInstances.generateInstances())
+            .addCode(actionMethods)
+            .addCode(wsEndpoints)
             .build();
         registryTypeBuilder.addMethod(register);
 
@@ -68,19 +87,43 @@ final class ControllerRegistryGenerator {
         try (Writer writer = file.openWriter()) {
             registryFile.writeTo(writer);
         }
+
+        generateModelBinders(filer);
+    }
+
+    private void generateModelBinders(Filer filer) throws IOException, ProcessingException {
+        // The same model can be bound by many actions, but only needs a single binder.
+        Map<ClassName, ModelBinderGenerator> generators = new LinkedHashMap<>();
+        controllers.stream()
+            .flatMap(c -> c.getRouteGenerators().stream())
+            .flatMap(r -> r.getModelBinderGenerators().stream())
+            .forEach(g -> generators.putIfAbsent(g.getBinderName(), g));
+        for (WsControllerSource wsController : wsControllers) {
+            for (ModelBinderGenerator generator : wsController.getModelBinderGenerators()) {
+                generators.putIfAbsent(generator.getBinderName(), generator);
+            }
+        }
+        for (ModelBinderGenerator generator : generators.values()) {
+            generator.generateBinder(filer);
+        }
     }
 
-    private CodeBlock createActionMethods(String app) {
+    private CodeBlock createActionMethods(SharedInstances sharedInstances, String app) throws ProcessingException {
+        RouteTable routeTable = new RouteTable();
+        for (ControllerSource controller : controllers) {
+            for (RouteGenerator generator : controller.getRouteGenerators()) {
+                routeTable.add(generator);
+            }
+        }
         AtomicInteger index = new AtomicInteger();
-        return controllers.stream()
-            .flatMap(r -> r.getRouteGenerators().stream())
-            .map(g -> g.generateRoute(container, app, index.getAndIncrement()))
+        return routeTable.getRoutes().stream()
+            .map(g -> g.generateRoute(container, sharedInstances, app, index.getAndIncrement()))
             .collect(CodeBlock.joining("\n"));
     }
 
-    private CodeBlock createWsEndpoints(String app) throws ProcessingException{
+    private CodeBlock createWsEndpoints(SharedInstances sharedInstances, String app) throws ProcessingException{
         return wsControllers.stream()
-            .map(s -> s.generateEndpoint(container, app))
+            .map(s -> s.generateEndpoint(container, sharedInstances, app))
             .filter(Objects::nonNull)
             .collect(CodeBlock.joining("\n"));
     }
@@ -0,0 +1,332 @@
+package com.truncon.javalin.mvc.annotations.processing;
+
+import com.squareup.javapoet.*;
+import com.truncon.javalin.mvc.ConversionUtils;
+import com.truncon.javalin.mvc.Converter;
+import com.truncon.javalin.mvc.ParameterCache;
+import com.truncon.javalin.mvc.api.Named;
+
+import javax.annotation.Generated;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates a reflection-free binder for a model class. The binder constructs the model and assigns
+ * each accessible setter or field directly, mimicking the matching rules of {@link ParameterCache#bindValues}.
+ * Models with private setters or fields that could receive a value are left to the reflective binder,
+ * which can reach them.
+ */
+final class ModelBinderGenerator {
+    private static final String BINDER_SUFFIX = "$$Binder";
+
+    private final Types typeUtils;
+    private final Elements elementUtils;
+    private final TypeElement modelElement;
+
+    private ModelBinderGenerator(Types typeUtils, Elements elementUtils, TypeElement modelElement) {
+        this.typeUtils = typeUtils;
+        this.elementUtils = elementUtils;
+        this.modelElement = modelElement;
+    }
+
+    /**
+     * Gets a generator for the given model type, if a binder can be generated for it.
+     * @param typeUtils The type utilities.
+     * @param elementUtils The element utilities.
+     * @param modelType The type of the model to bind.
+     * @return the generator or null if the type must be bound reflectively.
+     */
+    public static ModelBinderGenerator getGenerator(Types typeUtils, Elements elementUtils, TypeMirror modelType) {
+        if (modelType.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement modelElement = (TypeElement)((DeclaredType)modelType).asElement();
+        if (!isBindable(modelElement) || hasPrivateMembers(typeUtils, elementUtils, modelElement)) {
+            return null;
+        }
+        return new ModelBinderGenerator(typeUtils, elementUtils, modelElement);
+    }
+
+    private static boolean isBindable(TypeElement element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return false;
+        }
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.ABSTRACT) || modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        if (!element.getTypeParameters().isEmpty()) {
+            return false;
+        }
+        Element enclosing = element.getEnclosingElement();
+        if (enclosing.getKind() != ElementKind.PACKAGE) {
+            if (!modifiers.contains(Modifier.STATIC) || !(enclosing instanceof TypeElement)) {
+                return false;
+            }
+            if (!isBindableEnclosing((TypeElement)enclosing)) {
+                return false;
+            }
+        }
+        String qualifiedName = element.getQualifiedName().toString();
+        if (qualifiedName.startsWith("java.") || qualifiedName.startsWith("javax.")) {
+            return false;
+        }
+        return hasDefaultConstructor(element);
+    }
+
+    private static boolean isBindableEnclosing(TypeElement element) {
+        if (element.getModifiers().contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        Element enclosing = element.getEnclosingElement();
+        return enclosing.getKind() == ElementKind.PACKAGE || isBindableEnclosing((TypeElement)enclosing);
+    }
+
+    private static boolean hasDefaultConstructor(TypeElement element) {
+        return element.getEnclosedElements().stream()
+            .filter(e -> e.getKind() == ElementKind.CONSTRUCTOR)
+            .map(e -> (ExecutableElement)e)
+            .filter(c -> c.getParameters().isEmpty())
+            .anyMatch(c -> !c.getModifiers().contains(Modifier.PRIVATE));
+    }
+
+    private static boolean hasPrivateMembers(Types typeUtils, Elements elementUtils, TypeElement element) {
+        // A private field is harmless if a setter of the same type takes its values first, since the
+        // field is only set when the setter cannot take the value, in which case neither can the field.
+        Map<String, TypeMirror> setterTypes = new HashMap<>();
+        for (Element member : element.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.METHOD || !isSetter(typeUtils, elementUtils, (ExecutableElement)member)) {
+                continue;
+            }
+            if (member.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+            for (String key : getSetterKeys(member)) {
+                setterTypes.putIfAbsent(key, getValueType(member));
+            }
+        }
+        for (Element member : element.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.FIELD
+                    || !member.getModifiers().contains(Modifier.PRIVATE)
+                    || !isField(typeUtils, elementUtils, member)) {
+                continue;
+            }
+            TypeMirror setterType = setterTypes.get(getFieldKey(member));
+            if (setterType == null || !typeUtils.isSameType(typeUtils.erasure(setterType), typeUtils.erasure(member.asType()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSetter(Types typeUtils, Elements elementUtils, ExecutableElement method) {
+        return !method.getModifiers().contains(Modifier.STATIC)
+            && method.getParameters().size() == 1
+            && isSupportedType(typeUtils, elementUtils, method.getParameters().get(0).asType());
+    }
+
+    private static boolean isField(Types typeUtils, Elements elementUtils, Element field) {
+        Set<Modifier> modifiers = field.getModifiers();
+        return !modifiers.contains(Modifier.STATIC)
+            && !modifiers.contains(Modifier.FINAL)
+            && isSupportedType(typeUtils, elementUtils, field.asType());
+    }
+
+    private static boolean isSupportedType(Types typeUtils, Elements elementUtils, TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isSupportedType(typeUtils, elementUtils, ((ArrayType)type).getComponentType());
+        }
+        for (Class<?> supportedType : ConversionUtils.SUPPORTED_TYPES) {
+            TypeElement supportedElement = elementUtils.getTypeElement(supportedType.getCanonicalName());
+            if (supportedElement != null && typeUtils.isSameType(type, supportedElement.asType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public ClassName getBinderName() {
+        ClassName modelName = ClassName.get(modelElement);
+        String binderName = String.join("$", modelName.simpleNames()) + BINDER_SUFFIX;
+        return ClassName.get(modelName.packageName(), binderName);
+    }
+
+    /**
+     * Creates the code that binds the model from the given {@link ParameterCache}.
+     * @param cache The expression evaluating to the cache to bind the values from.
+     * @return the code invoking the generated binder.
+     */
+    public CodeBlock generateBind(CodeBlock cache) {
+        return CodeBlock.of("$T.bind($L)", getBinderName(), cache);
+    }
+
+    public void generateBinder(Filer filer) throws IOException {
+        ClassName binderName = getBinderName();
+        TypeSpec.Builder binderTypeBuilder = TypeSpec.classBuilder(binderName)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addOriginatingElement(modelElement);
+
+        AnnotationSpec generatedAnnotation = AnnotationSpec.builder(Generated.class)
+            .addMember("value", "$S", ControllerProcessor.class.getCanonicalName())
+            .build();
+        binderTypeBuilder.addAnnotation(generatedAnnotation);
+
+        MethodSpec constructor = MethodSpec.constructorBuilder()
+            .addModifiers(Modifier.PRIVATE)
+            .build();
+        binderTypeBuilder.addMethod(constructor);
+
+        final String CACHE_NAME = "cache";
+        final String MODEL_NAME = "model";
+        Map<TypeName, String> converterNames = new LinkedHashMap<>();
+        MethodSpec bind = MethodSpec.methodBuilder("bind")
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(TypeName.get(modelElement.asType()))
+            .addParameter(ParameterCache.class, CACHE_NAME)
+            .addCode(createBindBody(CACHE_NAME, MODEL_NAME, converterNames))
+            .build();
+        for (Map.Entry<TypeName, String> entry : converterNames.entrySet()) {
+            // Each converter is resolved once, when the binder is loaded.
+            TypeName valueType = entry.getKey();
+            FieldSpec converter = FieldSpec.builder(
+                    ParameterizedTypeName.get(ClassName.get(Converter.class), valueType.box()),
+                    entry.getValue(),
+                    Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$T.getConverter($T.class)", ConversionUtils.class, valueType)
+                .build();
+            binderTypeBuilder.addField(converter);
+        }
+        binderTypeBuilder.addMethod(bind);
+
+        TypeSpec binderType = binderTypeBuilder.build();
+        JavaFile binderFile = JavaFile.builder(binderName.packageName(), binderType)
+            .indent("    ")
+            .build();
+        try (Writer writer = filer.createSourceFile(binderName.reflectionName(), modelElement).openWriter()) {
+            binderFile.writeTo(writer);
+        }
+    }
+
+    private CodeBlock createBindBody(String cache, String model, Map<TypeName, String> converterNames) {
+        CodeBlock.Builder bodyBuilder = CodeBlock.builder();
+        TypeName modelType = TypeName.get(modelElement.asType());
+        bodyBuilder.addStatement("$T $N = new $T()", modelType, model, modelType);
+        Map<String, Element> setters = getSettersByKey();
+        Map<String, Element> fields = getFieldsByKey();
+        Set<String> keys = new LinkedHashSet<>(setters.keySet());
+        keys.addAll(fields.keySet());
+        if (!keys.isEmpty()) {
+            bodyBuilder.addStatement("$T<$T> values", List.class, String.class);
+        }
+        for (String key : keys) {
+            Element setter = setters.get(key);
+            Element field = fields.get(key);
+            bodyBuilder.addStatement("values = $N.getValues($S)", cache, key);
+            bodyBuilder.beginControlFlow("if (values != null)");
+            bodyBuilder.beginControlFlow("try");
+            if (setter == null) {
+                addAssignment(bodyBuilder, model, field, converterNames);
+            } else {
+                addAssignment(bodyBuilder, model, setter, converterNames);
+                if (field != null) {
+                    // Just like when binding reflectively, the field is set if the setter cannot take the value.
+                    bodyBuilder.nextControlFlow("else");
+                    addAssignment(bodyBuilder, model, field, converterNames);
+                    bodyBuilder.endControlFlow();
+                }
+            }
+            bodyBuilder.endControlFlow();
+            bodyBuilder.nextControlFlow("catch ($T exception)", Exception.class);
+            bodyBuilder.add("// Swallow any binding errors\n");
+            bodyBuilder.endControlFlow();
+            bodyBuilder.endControlFlow();
+        }
+        bodyBuilder.addStatement("return $N", model);
+        return bodyBuilder.build();
+    }
+
+    private void addAssignment(
+            CodeBlock.Builder bodyBuilder,
+            String model,
+            Element member,
+            Map<TypeName, String> converterNames) {
+        TypeName erasedType = TypeName.get(typeUtils.erasure(getValueType(member)));
+        String converterName = converterNames.computeIfAbsent(erasedType, t -> "CONVERTER_" + converterNames.size());
+        String valueName = member.getKind() == ElementKind.METHOD ? "value" : "fieldValue";
+        bodyBuilder.addStatement("$T $N = $N.convert(values)", erasedType.box(), valueName, converterName);
+        bodyBuilder.beginControlFlow("if ($N != null)", valueName);
+        if (member.getKind() == ElementKind.METHOD) {
+            bodyBuilder.addStatement("$N.$N($N)", model, member.getSimpleName(), valueName);
+        } else {
+            bodyBuilder.addStatement("$N.$N = $N", model, member.getSimpleName(), valueName);
+        }
+    }
+
+    private Map<String, Element> getSettersByKey() {
+        Map<String, Element> setters = new LinkedHashMap<>();
+        for (Element member : modelElement.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.METHOD && isSetter(typeUtils, elementUtils, (ExecutableElement)member)) {
+                for (String key : getSetterKeys(member)) {
+                    setters.putIfAbsent(key, member);
+                }
+            }
+        }
+        return setters;
+    }
+
+    private Map<String, Element> getFieldsByKey() {
+        Map<String, Element> fields = new LinkedHashMap<>();
+        for (Element member : modelElement.getEnclosedElements()) {
+            // Private fields are covered by a setter, or else the model is bound reflectively.
+            if (member.getKind() == ElementKind.FIELD
+                    && !member.getModifiers().contains(Modifier.PRIVATE)
+                    && isField(typeUtils, elementUtils, member)) {
+                fields.putIfAbsent(getFieldKey(member), member);
+            }
+        }
+        return fields;
+    }
+
+    private static List<String> getSetterKeys(Element method) {
+        Named annotation = method.getAnnotation(Named.class);
+        if (annotation != null) {
+            return Collections.singletonList(sterilize(annotation.value()));
+        }
+        String name = method.getSimpleName().toString();
+        List<String> keys = new ArrayList<>();
+        keys.add(sterilize(name));
+        if (name.length() > 3 && name.substring(0, 3).equalsIgnoreCase("set")) {
+            keys.add(sterilize(name.substring(3)));
+        }
+        return keys;
+    }
+
+    private static String getFieldKey(Element field) {
+        Named annotation = field.getAnnotation(Named.class);
+        String name = annotation == null ? field.getSimpleName().toString() : annotation.value();
+        return sterilize(name);
+    }
+
+    private static TypeMirror getValueType(Element member) {
+        if (member.getKind() == ElementKind.METHOD) {
+            return ((ExecutableElement)member).getParameters().get(0).asType();
+        }
+        return member.asType();
+    }
+
+    private static String sterilize(String name) {
+        return name.trim().toUpperCase();
+    }
+}
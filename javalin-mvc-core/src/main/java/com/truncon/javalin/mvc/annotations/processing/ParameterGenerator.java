@@ -1,7 +1,11 @@
 package com.truncon.javalin.mvc.annotations.processing;
 
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.TypeName;
 import com.truncon.javalin.mvc.ConversionUtils;
+import com.truncon.javalin.mvc.LookupUtils;
+import com.truncon.javalin.mvc.ParameterCache;
+import com.truncon.javalin.mvc.ResponseCache;
 import com.truncon.javalin.mvc.api.*;
 import com.truncon.javalin.mvc.api.ws.*;
 import io.javalin.http.Context;
@@ -10,10 +14,14 @@ import org.apache.commons.lang3.StringUtils;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.PrimitiveType;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 final class ParameterGenerator {
     private final Types typeUtils;
@@ -36,17 +44,47 @@ final class ParameterGenerator {
             .anyMatch(ParameterGenerator::isBinderNeeded);
     }
 
-    public static String bindParameters(
+    /**
+     * Creates the code that binds each argument of the method to a local variable, named after its
+     * position (e.g., "arg0"), so binding can be done before the method is called.
+     * @param typeUtils The type utilities.
+     * @param elementUtils The element utilities.
+     * @param method The action method.
+     * @param context The name of the Javalin context variable.
+     * @param wrapper The name of the HttpContext variable.
+     * @return the statements declaring the arguments.
+     */
+    public static CodeBlock bindArguments(
             Types typeUtils,
             Elements elementUtils,
             ExecutableElement method,
             String context,
             String wrapper) {
-        String[] arguments = method.getParameters().stream()
-            .map(p -> ParameterGenerator.getParameterGenerator(typeUtils, elementUtils, p))
-            .map(g -> g.generateParameter(context, wrapper))
-            .toArray(String[]::new);
-        return String.join(", ", arguments);
+        CodeBlock.Builder builder = CodeBlock.builder();
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int index = 0; index != parameters.size(); ++index) {
+            VariableElement parameter = parameters.get(index);
+            ParameterGenerator generator = getParameterGenerator(typeUtils, elementUtils, parameter);
+            builder.addStatement(
+                "$T arg$L = $L",
+                TypeName.get(parameter.asType()),
+                index,
+                generator.generateParameter(context, wrapper));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the arguments declared by {@link #bindArguments}, separated by commas.
+     * @param method The action method.
+     * @return the arguments to pass to the method.
+     */
+    public static String getArgumentNames(ExecutableElement method) {
+        List<String> names = new ArrayList<>();
+        for (int index = 0; index != method.getParameters().size(); ++index) {
+            names.add("arg" + index);
+        }
+        return String.join(", ", names);
     }
 
     public static boolean isWsBinderNeeded(
@@ -70,7 +108,8 @@ final class ParameterGenerator {
                 .map(p -> ParameterGenerator.getParameterGenerator(typeUtils, elementUtils, p))
                 .map(g -> g.generateWsParameter(context, wrapperType, wrapper))
                 .toArray(String[]::new);
-        return String.join(", ", arguments);
+        // The arguments are embedded in a format string, so dollar signs (e.g., generated binders) must be escaped.
+        return String.join(", ", arguments).replace("$", "$$");
     }
 
     public VariableElement getParameter() {
@@ -80,7 +119,9 @@ final class ParameterGenerator {
     public boolean isBinderNeeded() {
         TypeMirror parameterType = parameter.asType();
         String parameter = getNonBinderParameter("context", "wrapper", parameterType);
-        return StringUtils.isBlank(parameter);
+        return StringUtils.isBlank(parameter)
+            && getModelBinderGenerator() == null
+            && getDirectClass() == null;
     }
 
     public String generateParameter(String context, String wrapper) {
@@ -94,6 +135,10 @@ final class ParameterGenerator {
             return CodeBlock.of(wrapper + ".getRequest().getFile($S)", parameterName).toString();
         }
         ValueSource valueSource = getValueSource(parameter);
+        Class<?> directClass = getDirectClass();
+        if (directClass != null) {
+            return bindDirectParameter(wrapper, parameterName, parameterType, directClass, valueSource);
+        }
         for (Class<?> parameterClass : ConversionUtils.SUPPORTED_TYPES) {
             if (isType(parameterType, parameterClass)) {
                 return bindParameter(parameterName, parameterClass, valueSource);
@@ -104,6 +149,11 @@ final class ParameterGenerator {
                 }
             }
         }
+        ModelBinderGenerator modelBinder = getModelBinderGenerator();
+        if (modelBinder != null) {
+            CodeBlock cache = getParameterCache(wrapper + ".getRequest()", getLookupGetter(valueSource));
+            return modelBinder.generateBind(cache).toString();
+        }
         return CodeBlock.of(
                 "($T)binder.getValue($S, $T.class, $T.$L)",
                 parameterType,
@@ -113,6 +163,35 @@ final class ParameterGenerator {
                 valueSource).toString();
     }
 
+    /**
+     * Creates the code that gets the request values the parameter is bound from, which make up part
+     * of the key of a cached response.
+     * @param wrapper The name of the HttpContext variable.
+     * @return the code or null if the parameter gives the action access to the whole request or response.
+     */
+    public CodeBlock generateCacheKey(String wrapper) {
+        TypeMirror parameterType = parameter.asType();
+        if (!StringUtils.isBlank(getNonBinderParameter("ctx", wrapper, parameterType))
+                || isType(parameterType, FileUpload.class)) {
+            return null;
+        }
+        String request = wrapper + ".getRequest()";
+        ValueSource valueSource = getValueSource(parameter);
+        if (valueSource == ValueSource.Any) {
+            return CodeBlock.of("$T.getAnyKey($L, $S)", ResponseCache.class, request, getParameterName());
+        }
+        if (getDirectClass() != null) {
+            return CodeBlock.of(
+                "$T.getValues($L.$L(), $S)",
+                LookupUtils.class,
+                request,
+                getLookupGetter(valueSource),
+                getParameterName());
+        }
+        // Arrays and models can be bound from any of the values in their source.
+        return CodeBlock.of("$T.getLookupKey($L.$L())", ResponseCache.class, request, getLookupGetter(valueSource));
+    }
+
     private String getNonBinderParameter(String context, String wrapper, TypeMirror parameterType) {
         if (isType(parameterType, Context.class)) {
             return context;
@@ -122,15 +201,42 @@ final class ParameterGenerator {
             return wrapper + ".getRequest()";
         } else if (isType(parameterType, HttpResponse.class)) {
             return wrapper + ".getResponse()";
+        } else if (isType(parameterType, MultipartStream.class)) {
+            return wrapper + ".getRequest().getMultipartStream()";
         } else {
             return null;
         }
     }
 
+    /**
+     * Gets whether the parameter is the multipart body, read as a stream.
+     * @return true if the parameter is a {@link MultipartStream}; otherwise, false.
+     */
+    public boolean isMultipartStream() {
+        return isType(parameter.asType(), MultipartStream.class);
+    }
+
+    /**
+     * Gets whether binding the parameter can make the container read the request body, such as
+     * to look up form fields or uploaded files.
+     * @return true if the body can be read; otherwise, false.
+     */
+    public boolean isBodyRead() {
+        TypeMirror parameterType = parameter.asType();
+        if (!StringUtils.isBlank(getNonBinderParameter("ctx", "wrapper", parameterType))) {
+            return false;
+        }
+        if (isType(parameterType, FileUpload.class)) {
+            return true;
+        }
+        ValueSource valueSource = getValueSource(parameter);
+        return valueSource == ValueSource.Any || valueSource == ValueSource.FormData;
+    }
+
     public boolean isWsBinderNeeded(Class<?> wrapperType) {
         TypeMirror parameterType = parameter.asType();
         String parameter = getNonBinderWsParameter("context", wrapperType, "wrapper", parameterType);
-        return StringUtils.isBlank(parameter);
+        return StringUtils.isBlank(parameter) && getWsModelBinderGenerator() == null;
     }
 
     public String generateWsParameter(String context, Class<?> wrapperType, String wrapper) {
@@ -151,6 +257,11 @@ final class ParameterGenerator {
                 }
             }
         }
+        ModelBinderGenerator modelBinder = getWsModelBinderGenerator();
+        if (modelBinder != null) {
+            CodeBlock cache = getParameterCache(wrapper + ".getRequest()", getWsLookupGetter(valueSource));
+            return modelBinder.generateBind(cache).toString();
+        }
         return CodeBlock.of(
                 "($T)binder.getValue($S, $T.class, $T.$L)",
                 parameterType,
@@ -160,6 +271,121 @@ final class ParameterGenerator {
                 valueSource).toString();
     }
 
+    /**
+     * Gets the generator for the binder of the model bound from an explicit source, if one can be generated.
+     * @return the generator or null if the parameter is not bound to a model from an explicit source.
+     */
+    public ModelBinderGenerator getModelBinderGenerator() {
+        if (getValueSource(parameter) == ValueSource.Any) {
+            // Models without an explicit source are deserialized from the request body.
+            return null;
+        }
+        return ModelBinderGenerator.getGenerator(typeUtils, elementUtils, parameter.asType());
+    }
+
+    /**
+     * Gets the generator for the binder of the model bound from an explicit WebSocket source,
+     * if one can be generated.
+     * @return the generator or null if the parameter is not bound to a model from an explicit source.
+     */
+    public ModelBinderGenerator getWsModelBinderGenerator() {
+        WsValueSource valueSource = getWsValueSource(parameter);
+        if (valueSource == WsValueSource.Any || valueSource == WsValueSource.Message) {
+            // Models without an explicit source are deserialized from the message.
+            return null;
+        }
+        return ModelBinderGenerator.getGenerator(typeUtils, elementUtils, parameter.asType());
+    }
+
+    /**
+     * Gets the supported class of a "primitive" parameter whose value can be read directly from
+     * its explicit source, without going through the model binder.
+     * @return the (boxed) class of the parameter or null if the parameter must be bound by the binder.
+     */
+    private Class<?> getDirectClass() {
+        if (getValueSource(parameter) == ValueSource.Any) {
+            // Without an explicit source, the value might need to be deserialized from the body.
+            return null;
+        }
+        TypeMirror parameterType = parameter.asType();
+        if (parameterType.getKind().isPrimitive()) {
+            parameterType = typeUtils.boxedClass((PrimitiveType)parameterType).asType();
+        }
+        for (Class<?> parameterClass : ConversionUtils.SUPPORTED_TYPES) {
+            if (isType(parameterType, parameterClass)) {
+                return parameterClass;
+            }
+        }
+        return null;
+    }
+
+    private static String bindDirectParameter(
+            String wrapper,
+            String parameterName,
+            TypeMirror parameterType,
+            Class<?> parameterClass,
+            ValueSource valueSource) {
+        CodeBlock value = CodeBlock.of(
+            "$T.getValue($L.getRequest().$L(), $S)",
+            LookupUtils.class,
+            wrapper,
+            getLookupGetter(valueSource),
+            parameterName);
+        if (parameterClass.equals(String.class)) {
+            // The binder constructs an empty string for missing values, rather than passing null.
+            return CodeBlock.of("$T.toString($L, $S)", Objects.class, value, "").toString();
+        }
+        if (parameterType.getKind().isPrimitive()) {
+            // Primitive parameters are parsed without boxing, failing for missing values just like the binder.
+            return CodeBlock.of(
+                "$T.to$LValue($L)",
+                ConversionUtils.class,
+                StringUtils.capitalize(parameterType.toString()),
+                value).toString();
+        }
+        return CodeBlock.of(
+            "$T.to$L($L)",
+            ConversionUtils.class,
+            parameterClass.getSimpleName(),
+            value).toString();
+    }
+
+    private static CodeBlock getParameterCache(String request, String lookupGetter) {
+        return CodeBlock.of("new $T($L::$L)", ParameterCache.class, request, lookupGetter);
+    }
+
+    private static String getLookupGetter(ValueSource valueSource) {
+        switch (valueSource) {
+            case Header:
+                return "getHeaderLookup";
+            case Cookie:
+                return "getCookieLookup";
+            case Path:
+                return "getPathLookup";
+            case QueryString:
+                return "getQueryLookup";
+            case FormData:
+                return "getFormLookup";
+            default:
+                return null;
+        }
+    }
+
+    private static String getWsLookupGetter(WsValueSource valueSource) {
+        switch (valueSource) {
+            case Header:
+                return "getHeaderLookup";
+            case Cookie:
+                return "getCookieLookup";
+            case Path:
+                return "getPathLookup";
+            case QueryString:
+                return "getQueryLookup";
+            default:
+                return null;
+        }
+    }
+
     private String getNonBinderWsParameter(
             String context,
             Class<?> wrapperType,
@@ -175,6 +401,8 @@ final class ParameterGenerator {
             return wrapper + ".getContext().getRequest()";
         } else if (isType(parameterType, WsResponse.class)) {
             return wrapper + ".getContext().getResponse()";
+        } else if (wrapperType.equals(WsBinaryMessageContext.class) && isType(parameterType, BinaryFrame.class)) {
+            return wrapper + ".getFrame()";
         } else {
             return null;
         }
@@ -3,8 +3,14 @@ package com.truncon.javalin.mvc.annotations.processing;
 import com.squareup.javapoet.CodeBlock;
 import com.truncon.javalin.mvc.api.*;
 import io.javalin.http.Handler;
+import com.truncon.javalin.mvc.AsyncPipeline;
+import com.truncon.javalin.mvc.AsyncResults;
+import com.truncon.javalin.mvc.BlockingExecutors;
 import com.truncon.javalin.mvc.DefaultModelBinder;
 import com.truncon.javalin.mvc.JavalinHttpContext;
+import com.truncon.javalin.mvc.MetricsUtils;
+import com.truncon.javalin.mvc.MultipartReader;
+import com.truncon.javalin.mvc.ResponseCache;
 
 import javax.lang.model.element.*;
 import javax.lang.model.util.Elements;
@@ -16,6 +22,9 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 final class RouteGenerator {
+    private static final String PHASE_START = "phaseStart";
+    private static final String TASK_START = "taskStart";
+
     private final ControllerSource controller;
     private final Types typeUtils;
     private final Elements elementUtils;
@@ -40,6 +49,22 @@ final class RouteGenerator {
         return elementUtils;
     }
 
+    public ExecutableElement getMethod() {
+        return method;
+    }
+
+    public String getMethodType() {
+        return methodType;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public String getActionName() {
+        return controller.getType().getSimpleName() + "." + method.getSimpleName();
+    }
+
     public static List<RouteGenerator> getGenerators(ControllerSource controller, ExecutableElement method) {
         return Stream.of(
             getGetCodeBlock(controller, method),
@@ -103,99 +128,510 @@ final class RouteGenerator {
         return method.getAnnotation(annotationClass);
     }
 
-    public CodeBlock generateRoute(ContainerSource container, String app, int index) {
+    public List<ModelBinderGenerator> getModelBinderGenerators() {
+        return method.getParameters().stream()
+            .map(p -> ParameterGenerator.getParameterGenerator(typeUtils, elementUtils, p))
+            .map(ParameterGenerator::getModelBinderGenerator)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    public CodeBlock generateRoute(ContainerSource container, SharedInstances sharedInstances, String app, int index) {
+        List<BeforeGenerator> beforeGenerators = BeforeGenerator.getBeforeGenerators(container, this);
+        List<AfterGenerator> afterGenerators = AfterGenerator.getAfterGenerators(container, this);
+        Cached cached = method.getAnnotation(Cached.class);
+        if (cached != null) {
+            return generateCachedRoute(container, sharedInstances, app, index, cached, beforeGenerators, afterGenerators);
+        }
+
+        validateMultipartParameters();
+        // Parts spilled to disk are only deleted when the multipart stream is closed, so it is closed
+        // once the response is written, even if the action forgets to.
+        boolean multipartClosed = hasMultipartStream();
+        CodeBlock.Builder handlerBuilder = CodeBlock.builder();
+        handlerBuilder.beginControlFlow("$T handler$L = (ctx) ->", Handler.class, index);
+        if (multipartClosed) {
+            handlerBuilder.beginControlFlow("try");
+        }
+        generateWrapper(handlerBuilder);
+
+        // The injector is only created right before the first dependency is resolved from it, and the
+        // controller is only resolved once the before handlers have let the request through.
+        boolean injectorCreated = false;
+        String injectorName = container.isFound() ? "injector" : null;
+        handlerBuilder.addStatement("long $N = $T.start(metrics)", PHASE_START, MetricsUtils.class);
+        Blocking blocking = getBlocking();
+        if (isPipelineNeeded(beforeGenerators, afterGenerators)) {
+            // The handlers run in lambdas, which can only share an injector created beforehand.
+            if (isControllerInjected(container, sharedInstances)
+                    || beforeGenerators.stream().anyMatch(BeforeGenerator::isInjectorNeeded)
+                    || afterGenerators.stream().anyMatch(AfterGenerator::isInjectorNeeded)) {
+                createInjector(handlerBuilder, container);
+            }
+            generatePipeline(
+                handlerBuilder,
+                container,
+                index,
+                blocking,
+                beforeGenerators,
+                afterGenerators,
+                injectorName,
+                sharedInstances);
+            closeMultipart(handlerBuilder, multipartClosed);
+            handlerBuilder.endControlFlow();
+            handlerBuilder.addStatement("");
+            return finishRoute(handlerBuilder, app, index);
+        }
+        for (BeforeGenerator generator : beforeGenerators) {
+            if (!injectorCreated && generator.isInjectorNeeded()) {
+                createInjector(handlerBuilder, container);
+                injectorCreated = true;
+            }
+            // The time spent before the request was cancelled is still recorded.
+            CodeBlock cancelled = getRecordPhase(index, RoutePhase.Before, PHASE_START);
+            generator.generateBefore(handlerBuilder, injectorName, "wrapper", sharedInstances, cancelled);
+        }
+        if (!beforeGenerators.isEmpty()) {
+            recordPhase(handlerBuilder, index, RoutePhase.Before);
+        }
+        injectorCreated = generateController(handlerBuilder, container, sharedInstances, injectorCreated);
+        if (!injectorCreated && afterGenerators.stream().anyMatch(AfterGenerator::isInjectorNeeded)) {
+            createInjector(handlerBuilder, container);
+        }
+        generateAction(handlerBuilder, index, blocking, afterGenerators, injectorName, sharedInstances, null);
+        closeMultipart(handlerBuilder, multipartClosed);
+        handlerBuilder.endControlFlow();
+        handlerBuilder.addStatement("");
+        return finishRoute(handlerBuilder, app, index);
+    }
+
+    private void validateMultipartParameters() {
+        List<ParameterGenerator> parameters = method.getParameters().stream()
+            .map(p -> ParameterGenerator.getParameterGenerator(typeUtils, elementUtils, p))
+            .collect(Collectors.toList());
+        if (parameters.stream().noneMatch(ParameterGenerator::isMultipartStream)) {
+            return;
+        }
+        for (ParameterGenerator parameter : parameters) {
+            if (parameter.isBodyRead()) {
+                // Looking up form fields or files makes the container read the body, leaving the stream empty.
+                throw new ProcessingException(
+                    "Actions accepting a MultipartStream cannot bind parameters from form data or uploaded files, "
+                        + "or without an explicit source.",
+                    parameter.getParameter());
+            }
+        }
+    }
+
+    private boolean hasMultipartStream() {
+        return method.getParameters().stream()
+            .map(p -> ParameterGenerator.getParameterGenerator(typeUtils, elementUtils, p))
+            .anyMatch(ParameterGenerator::isMultipartStream);
+    }
+
+    private static void closeMultipart(CodeBlock.Builder handlerBuilder, boolean multipartClosed) {
+        if (multipartClosed) {
+            handlerBuilder.nextControlFlow("finally");
+            handlerBuilder.addStatement("$T.closeAfterResponse(ctx)", MultipartReader.class);
+            handlerBuilder.endControlFlow();
+        }
+    }
+
+    /**
+     * Generates a route whose responses are cached. The before handlers run first, then the cached
+     * response is sent if there is one; otherwise, the controller is created and the action is run,
+     * recording its response.
+     */
+    private CodeBlock generateCachedRoute(
+            ContainerSource container,
+            SharedInstances sharedInstances,
+            String app,
+            int index,
+            Cached cached,
+            List<BeforeGenerator> beforeGenerators,
+            List<AfterGenerator> afterGenerators) {
+        if (new MethodUtils(typeUtils, elementUtils).hasVoidReturnType(method)) {
+            throw new ProcessingException("Cached actions must return a result.", method);
+        }
+        if (isPipelineNeeded(beforeGenerators, afterGenerators)) {
+            throw new ProcessingException(
+                "Cached actions cannot have asynchronous handlers, or after handlers when returning a future.",
+                method);
+        }
+        List<CodeBlock> keys = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            CodeBlock key = ParameterGenerator.getParameterGenerator(typeUtils, elementUtils, parameter)
+                .generateCacheKey("wrapper");
+            if (key == null) {
+                throw new ProcessingException(
+                    "Cached actions cannot accept parameters giving access to the whole request or response.",
+                    parameter);
+            }
+            keys.add(key);
+        }
+
+        String cacheName = "responseCache" + index;
         CodeBlock.Builder handlerBuilder = CodeBlock.builder();
+        handlerBuilder.addStatement(
+            "final $T $N = new $T($LL, $L)",
+            ResponseCache.class,
+            cacheName,
+            ResponseCache.class,
+            cached.unit().toNanos(cached.ttl()),
+            cached.maxEntries());
         handlerBuilder.beginControlFlow("$T handler$L = (ctx) ->", Handler.class, index);
+        generateWrapper(handlerBuilder);
 
-        if (container.isFound()) {
-            handlerBuilder.addStatement("$T injector = scopeFactory.get()", container.getType());
+        String injectorName = container.isFound() ? "injector" : null;
+        handlerBuilder.addStatement("long $N = $T.start(metrics)", PHASE_START, MetricsUtils.class);
+        boolean injectorCreated = false;
+        for (BeforeGenerator generator : beforeGenerators) {
+            if (!injectorCreated && generator.isInjectorNeeded()) {
+                createInjector(handlerBuilder, container);
+                injectorCreated = true;
+            }
+            // The time spent before the request was cancelled is still recorded.
+            CodeBlock cancelled = getRecordPhase(index, RoutePhase.Before, PHASE_START);
+            generator.generateBefore(handlerBuilder, injectorName, "wrapper", sharedInstances, cancelled);
+        }
+        if (!beforeGenerators.isEmpty()) {
+            recordPhase(handlerBuilder, index, RoutePhase.Before);
+        }
+        if (keys.isEmpty()) {
+            handlerBuilder.addStatement("$T cacheKey = $T.emptyList()", Object.class, Collections.class);
+        } else {
+            handlerBuilder.addStatement("$T cacheKey = $T.asList($L)", Object.class, Arrays.class, CodeBlock.join(keys, ", "));
+        }
+        handlerBuilder.beginControlFlow("if (!$N.trySend(cacheKey, ctx))", cacheName);
+        injectorCreated = generateController(handlerBuilder, container, sharedInstances, injectorCreated);
+        if (!injectorCreated && afterGenerators.stream().anyMatch(AfterGenerator::isInjectorNeeded)) {
+            createInjector(handlerBuilder, container);
         }
+        generateAction(handlerBuilder, index, getBlocking(), afterGenerators, injectorName, sharedInstances, cacheName);
+        handlerBuilder.endControlFlow();
+        handlerBuilder.endControlFlow();
+        handlerBuilder.addStatement("");
+        return finishRoute(handlerBuilder, app, index);
+    }
+
+    private void generateWrapper(CodeBlock.Builder handlerBuilder) {
         handlerBuilder.addStatement("$T wrapper = new $T(ctx)", HttpContext.class, JavalinHttpContext.class);
         if (ParameterGenerator.isBinderNeeded(typeUtils, elementUtils, method)) {
             handlerBuilder.addStatement("$T binder = new $T(wrapper.getRequest())", ModelBinder.class, DefaultModelBinder.class);
         }
+    }
 
-        Name controllerName = container.getDependencyName(controller.getType());
-        if (controllerName != null) {
+    /**
+     * Generates the code declaring the controller.
+     * @return whether the injector has been created.
+     */
+    private boolean generateController(
+            CodeBlock.Builder handlerBuilder,
+            ContainerSource container,
+            SharedInstances sharedInstances,
+            boolean injectorCreated) {
+        String sharedControllerName = sharedInstances.getInstanceName(controller.getType());
+        Name controllerName = sharedControllerName == null ? container.getDependencyName(controller.getType()) : null;
+        if (sharedControllerName != null) {
+            handlerBuilder.addStatement("$T controller = $N", controller.getType(), sharedControllerName);
+        } else if (controllerName != null) {
+            if (!injectorCreated) {
+                createInjector(handlerBuilder, container);
+                injectorCreated = true;
+            }
             handlerBuilder.addStatement("$T controller = injector.$L()", controller.getType(), controllerName);
         } else {
             handlerBuilder.addStatement("$T controller = new $T()", controller.getType(), controller.getType());
         }
+        return injectorCreated;
+    }
 
-        List<BeforeGenerator> beforeGenerators = BeforeGenerator.getBeforeGenerators(container, this);
-        generateBeforeHandlers(handlerBuilder, "wrapper", beforeGenerators, container.isFound() ? "injector" : null);
-        List<AfterGenerator> afterGenerators = AfterGenerator.getAfterGenerators(container, this);
+    private boolean isControllerInjected(ContainerSource container, SharedInstances sharedInstances) {
+        return sharedInstances.getInstanceName(controller.getType()) == null
+            && container.getDependencyName(controller.getType()) != null;
+    }
+
+    private void generateAction(
+            CodeBlock.Builder handlerBuilder,
+            int index,
+            Blocking blocking,
+            List<AfterGenerator> afterGenerators,
+            String injectorName,
+            SharedInstances sharedInstances,
+            String cacheName) {
+        if (blocking == null) {
+            generateInvocation(
+                handlerBuilder,
+                index,
+                PHASE_START,
+                Invocation.Direct,
+                afterGenerators,
+                injectorName,
+                sharedInstances,
+                cacheName);
+        } else {
+            generateOffload(
+                handlerBuilder,
+                CodeBlock.of("$T.setResult(ctx, () -> ", AsyncResults.class),
+                ")",
+                index,
+                blocking,
+                afterGenerators,
+                injectorName,
+                sharedInstances,
+                cacheName);
+        }
+    }
+
+    private CodeBlock finishRoute(CodeBlock.Builder handlerBuilder, String app, int index) {
+        handlerBuilder.addStatement(
+            "handler$L = $T.moveDocumentationFromAnnotationToHandler($T.class, $S, handler$L)",
+            index,
+            io.javalin.plugin.openapi.dsl.OpenApiBuilder.class,
+            controller.getType(),
+            method.getSimpleName(),
+            index);
+
+        return CodeBlock.builder()
+            .add(handlerBuilder.build())
+            .addStatement("$N.$L($S, handler$L)", app, methodType, route, index)
+            .addStatement("$T.registerRoute(metrics, $L, $S, $S)", MetricsUtils.class, index, methodType.toUpperCase(), route)
+            .build();
+    }
+
+    /**
+     * Gets whether the before handlers, the action and the after handlers must be composed asynchronously.
+     * This is the case when any handler is asynchronous, or when the after handlers of an action returning
+     * a future must wait for it to complete.
+     */
+    private boolean isPipelineNeeded(List<BeforeGenerator> beforeGenerators, List<AfterGenerator> afterGenerators) {
+        if (beforeGenerators.stream().anyMatch(BeforeGenerator::isAsync)
+                || afterGenerators.stream().anyMatch(AfterGenerator::isAsync)) {
+            return true;
+        }
+        MethodUtils methodUtils = new MethodUtils(typeUtils, elementUtils);
+        boolean isFuture = methodUtils.hasFutureActionResultReturnType(method) || methodUtils.hasFutureSimpleReturnType(method);
+        return isFuture && !afterGenerators.isEmpty();
+    }
+
+    private void generatePipeline(
+            CodeBlock.Builder handlerBuilder,
+            ContainerSource container,
+            int index,
+            Blocking blocking,
+            List<BeforeGenerator> beforeGenerators,
+            List<AfterGenerator> afterGenerators,
+            String injectorName,
+            SharedInstances sharedInstances) {
+        handlerBuilder.addStatement(
+            "$T pipeline = new $T(metrics, $L, $N)",
+            AsyncPipeline.class,
+            AsyncPipeline.class,
+            index,
+            PHASE_START);
+        for (BeforeGenerator generator : beforeGenerators) {
+            generator.generateAsyncBefore(handlerBuilder, "pipeline", injectorName, "wrapper", sharedInstances);
+        }
+        handlerBuilder.beginControlFlow("pipeline.action(() ->");
+        generateController(handlerBuilder, container, sharedInstances, true);
+        if (blocking == null) {
+            handlerBuilder.addStatement("long $N = $T.start(metrics)", TASK_START, MetricsUtils.class);
+            generateInvocation(
+                handlerBuilder,
+                index,
+                TASK_START,
+                Invocation.Future,
+                Collections.emptyList(),
+                injectorName,
+                sharedInstances,
+                null);
+        } else {
+            generateOffload(
+                handlerBuilder,
+                CodeBlock.of("return "),
+                "",
+                index,
+                blocking,
+                Collections.emptyList(),
+                injectorName,
+                sharedInstances,
+                null);
+        }
+        handlerBuilder.endControlFlow(")");
+        for (AfterGenerator generator : afterGenerators) {
+            generator.generateAsyncAfter(handlerBuilder, "pipeline", injectorName, "wrapper", sharedInstances);
+        }
+        handlerBuilder.addStatement("$T.setResult(ctx, pipeline::execute)", AsyncResults.class);
+    }
+
+    private void generateOffload(
+            CodeBlock.Builder handlerBuilder,
+            CodeBlock prefix,
+            String suffix,
+            int index,
+            Blocking blocking,
+            List<AfterGenerator> afterGenerators,
+            String injectorName,
+            SharedInstances sharedInstances,
+            String cacheName) {
+        // Binding, the action, the result and the after handlers run on the executor, freeing the request thread.
+        handlerBuilder.beginControlFlow(
+            "$L$T.submit($S, () ->",
+            prefix,
+            BlockingExecutors.class,
+            blocking.value());
+        handlerBuilder.addStatement("long $N = $T.start(metrics)", TASK_START, MetricsUtils.class);
+        generateInvocation(
+            handlerBuilder,
+            index,
+            TASK_START,
+            Invocation.Content,
+            afterGenerators,
+            injectorName,
+            sharedInstances,
+            cacheName);
+        handlerBuilder.addStatement("return content");
+        handlerBuilder.endControlFlow(")" + suffix);
+    }
+
+    private void generateInvocation(
+            CodeBlock.Builder handlerBuilder,
+            int index,
+            String timer,
+            Invocation invocation,
+            List<AfterGenerator> afterGenerators,
+            String injectorName,
+            SharedInstances sharedInstances,
+            String cacheName) {
+        MethodUtils methodUtils = new MethodUtils(typeUtils, elementUtils);
+        boolean isFuture = methodUtils.hasFutureActionResultReturnType(method) || methodUtils.hasFutureSimpleReturnType(method);
+        boolean isAsync = invocation != Invocation.Direct;
+        if (isAsync && !isFuture) {
+            handlerBuilder.addStatement("Object content = null");
+        }
         if (afterGenerators.size() > 0) {
             handlerBuilder.addStatement("Exception caughtException = null;");
             handlerBuilder.beginControlFlow("try");
         }
-        String parameters = bindParameters("ctx", "wrapper");
-        MethodUtils methodUtils = new MethodUtils(typeUtils, elementUtils);
+        handlerBuilder.add(ParameterGenerator.bindArguments(typeUtils, elementUtils, method, "ctx", "wrapper"));
+        if (!method.getParameters().isEmpty()) {
+            recordPhase(handlerBuilder, index, RoutePhase.Binding, timer);
+        }
+        String arguments = ParameterGenerator.getArgumentNames(method);
+        // Offloaded results are generated on the executor and sent once the future completes.
+        String execute = isAsync ? "content = $L.executeAsync(wrapper)" : "$L.execute(wrapper)";
+        // Cached responses are recorded from the content of the result before it is sent.
+        CodeBlock store = CodeBlock.of("");
+        if (cacheName != null) {
+            execute = isAsync
+                ? "content = " + cacheName + ".store(cacheKey, ctx, $L.executeAsync(wrapper))"
+                : cacheName + ".send(cacheKey, ctx, $L.executeAsync(wrapper))";
+            store = CodeBlock.of(".thenApply(c -> $N.store(cacheKey, ctx, c))", cacheName);
+        }
         if (methodUtils.hasVoidReturnType(method)) {
-            handlerBuilder.addStatement(
-                "controller.$N(" + parameters + ")",
-                method.getSimpleName());
+            handlerBuilder.addStatement("controller.$N($L)", method.getSimpleName(), arguments);
+            recordPhase(handlerBuilder, index, RoutePhase.Action, timer);
         } else if (methodUtils.hasActionResultReturnType(method)) {
             handlerBuilder.addStatement(
-                "$T result = controller.$N(" + parameters + ")",
+                "$T result = controller.$N($L)",
                 ActionResult.class,
-                method.getSimpleName());
-            handlerBuilder.addStatement("result.execute(wrapper)");
+                method.getSimpleName(),
+                arguments);
+            recordPhase(handlerBuilder, index, RoutePhase.Action, timer);
+            handlerBuilder.addStatement(execute, "result");
+            recordPhase(handlerBuilder, index, RoutePhase.Result, timer);
         } else if (methodUtils.hasFutureActionResultReturnType(method)) {
+            // The action phase ends once the future is returned; the result is timed when it completes.
             handlerBuilder.addStatement(
-                "$T<?> future = controller.$N(" + parameters + ").thenApply(r -> r.executeAsync(wrapper))",
+                "$T<?> future = controller.$N($L).thenApply(r -> $T.executeAsync(metrics, $L, r, wrapper))$L",
                 CompletableFuture.class,
-                method.getSimpleName());
-            handlerBuilder.addStatement("ctx.result(future)");
+                method.getSimpleName(),
+                arguments,
+                MetricsUtils.class,
+                index,
+                store);
+            recordPhase(handlerBuilder, index, RoutePhase.Action, timer);
+            handlerBuilder.addStatement(invocation == Invocation.Future ? "return future" : "ctx.result(future)");
         } else if (methodUtils.hasFutureSimpleReturnType(method)) {
             handlerBuilder.addStatement(
-                "$T<?> future = controller.$N(" + parameters + ").thenApply(p -> new $T(p).executeAsync(wrapper))",
+                "$T<?> future = controller.$N($L).thenApply(p -> $T.executeAsync(metrics, $L, new $T(p), wrapper))$L",
                 CompletableFuture.class,
                 method.getSimpleName(),
-                JsonResult.class);
-            handlerBuilder.addStatement("ctx.result(future)");
+                arguments,
+                MetricsUtils.class,
+                index,
+                JsonResult.class,
+                store);
+            recordPhase(handlerBuilder, index, RoutePhase.Action, timer);
+            handlerBuilder.addStatement(invocation == Invocation.Future ? "return future" : "ctx.result(future)");
         } else {
             handlerBuilder.addStatement(
-                "$T result = controller.$N(" + parameters + ")",
+                "$T result = controller.$N($L)",
                 method.getReturnType(),
-                method.getSimpleName());
-            handlerBuilder.addStatement("new $T(result).execute(wrapper)", JsonResult.class);
+                method.getSimpleName(),
+                arguments);
+            recordPhase(handlerBuilder, index, RoutePhase.Action, timer);
+            handlerBuilder.addStatement(execute, CodeBlock.of("new $T(result)", JsonResult.class));
+            recordPhase(handlerBuilder, index, RoutePhase.Result, timer);
         }
         if (afterGenerators.size() > 0) {
             handlerBuilder.nextControlFlow("catch (Exception exception)");
             handlerBuilder.addStatement("caughtException = exception");
             handlerBuilder.endControlFlow();
-            generateAfterHandlers(handlerBuilder, "wrapper", "caughtException", afterGenerators, container.isFound() ? "injector" : null);
+            generateAfterHandlers(handlerBuilder, "wrapper", "caughtException", afterGenerators, injectorName, sharedInstances, index, timer);
         }
-        handlerBuilder.endControlFlow();
-        handlerBuilder.addStatement("");
+        if (invocation == Invocation.Future && !isFuture) {
+            handlerBuilder.addStatement("return $T.completedFuture(content)", CompletableFuture.class);
+        }
+    }
 
-        handlerBuilder.addStatement(
-            "handler$L = $T.moveDocumentationFromAnnotationToHandler($T.class, $S, handler$L)",
-            index,
-            io.javalin.plugin.openapi.dsl.OpenApiBuilder.class,
-            controller.getType(),
-            method.getSimpleName(),
-            index);
+    /**
+     * Gets the annotation requesting that the action be run on an executor, from either the method or
+     * the controller. Actions that already return a future are never offloaded.
+     * @return the annotation or null if the action runs on the request thread.
+     */
+    private Blocking getBlocking() {
+        MethodUtils methodUtils = new MethodUtils(typeUtils, elementUtils);
+        if (methodUtils.hasFutureActionResultReturnType(method) || methodUtils.hasFutureSimpleReturnType(method)) {
+            return null;
+        }
+        Blocking blocking = method.getAnnotation(Blocking.class);
+        return blocking == null ? controller.getType().getAnnotation(Blocking.class) : blocking;
+    }
 
-        return CodeBlock.builder()
-            .add(handlerBuilder.build())
-            .addStatement("$N.$L($S, handler$L)", app, methodType, route, index)
-            .build();
+    /**
+     * Describes how the generated code hands the result of the action back.
+     */
+    private enum Invocation {
+        /** The result is sent from the request thread. */
+        Direct,
+        /** The content of the result is generated and returned as {@code content}. */
+        Content,
+        /** A future completed with the content of the result is returned. */
+        Future
     }
 
-    private static void generateBeforeHandlers(
-            CodeBlock.Builder routeBuilder,
-            String contextName,
-            List<BeforeGenerator> generators,
-            String injectorName) {
-        for (BeforeGenerator generator : generators) {
-            generator.generateBefore(routeBuilder, injectorName, contextName);
-        }
+    private static void createInjector(CodeBlock.Builder routeBuilder, ContainerSource container) {
+        routeBuilder.addStatement("$T injector = scopeFactory.get()", container.getType());
+    }
+
+    private static void recordPhase(CodeBlock.Builder routeBuilder, int index, RoutePhase phase) {
+        recordPhase(routeBuilder, index, phase, PHASE_START);
     }
 
-    private String bindParameters(String context, String wrapper) {
-        return ParameterGenerator.bindParameters(typeUtils, elementUtils, method, context, wrapper);
+    private static void recordPhase(CodeBlock.Builder routeBuilder, int index, RoutePhase phase, String timer) {
+        routeBuilder.addStatement(getRecordPhase(index, phase, timer));
+    }
+
+    private static CodeBlock getRecordPhase(int index, RoutePhase phase, String timer) {
+        return CodeBlock.of(
+            "$N = $T.record(metrics, $L, $T.$L, $N)",
+            timer,
+            MetricsUtils.class,
+            index,
+            RoutePhase.class,
+            phase,
+            timer);
     }
 
     private static void generateAfterHandlers(
@@ -203,10 +639,14 @@ final class RouteGenerator {
             String contextName,
             String exceptionName,
             List<AfterGenerator> generators,
-            String injectorName) {
+            String injectorName,
+            SharedInstances sharedInstances,
+            int index,
+            String timer) {
         for (AfterGenerator generator : generators) {
-            generator.generateAfter(routeBuilder, injectorName, contextName, exceptionName);
+            generator.generateAfter(routeBuilder, injectorName, contextName, exceptionName, sharedInstances);
         }
+        recordPhase(routeBuilder, index, RoutePhase.After, timer);
         routeBuilder.beginControlFlow("if (caughtException != null)")
                 .addStatement("throw caughtException")
                 .endControlFlow();
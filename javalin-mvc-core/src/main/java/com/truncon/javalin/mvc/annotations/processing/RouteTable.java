@@ -0,0 +1,114 @@
+package com.truncon.javalin.mvc.annotations.processing;
+
+import java.util.*;
+
+/**
+ * Builds the full set of HTTP routes at compile time. Javalin tries routes in the order they are
+ * registered, so the routes are registered in the order they are declared, and a route that could
+ * never be reached because a route declared before it matches every one of its paths is reported
+ * as an error, rather than being silently ignored at runtime.
+ */
+final class RouteTable {
+    private static final String PARAMETER = ":";
+    private static final String WILDCARD = "*";
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * Adds the route to the table.
+     * @param route The route to add.
+     * @throws ProcessingException if a route added before it with the same method matches all of its paths.
+     */
+    public void add(RouteGenerator route) throws ProcessingException {
+        Entry entry = new Entry(route);
+        for (Entry existing : entries) {
+            if (!existing.route.getMethodType().equals(route.getMethodType())) {
+                continue;
+            }
+            if (existing.covers(entry)) {
+                String conflict = entry.covers(existing) ? " is ambiguous with the route " : " is shadowed by the route ";
+                String message = "The route "
+                    + route.getMethodType().toUpperCase() + " " + route.getRoute()
+                    + " of " + route.getActionName()
+                    + conflict
+                    + existing.route.getMethodType().toUpperCase() + " " + existing.route.getRoute()
+                    + " of " + existing.route.getActionName() + ".";
+                throw new ProcessingException(message, existing.route.getMethod(), route.getMethod());
+            }
+        }
+        entries.add(entry);
+    }
+
+    /**
+     * Gets the routes in the order they should be registered, which is the order they were added.
+     * @return the routes in registration order.
+     */
+    public List<RouteGenerator> getRoutes() {
+        List<RouteGenerator> routes = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            routes.add(entry.route);
+        }
+        return routes;
+    }
+
+    private static List<String> getSegments(String route) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : route.split("/")) {
+            // Javalin ignores repeated and trailing slashes.
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    private static final class Entry {
+        private final RouteGenerator route;
+        private final List<String> segments;
+
+        public Entry(RouteGenerator route) {
+            this.route = route;
+            this.segments = getSegments(route.getRoute());
+        }
+
+        /**
+         * Gets whether this route matches every path the other route matches.
+         * @param other The other route.
+         * @return true if this route matches all of the paths of the other route; otherwise, false.
+         */
+        public boolean covers(Entry other) {
+            return covers(0, other.segments, 0);
+        }
+
+        private boolean covers(int index, List<String> otherSegments, int otherIndex) {
+            if (index == segments.size()) {
+                return otherIndex == otherSegments.size();
+            }
+            String segment = segments.get(index);
+            if (segment.equals(WILDCARD)) {
+                // A wildcard matches one or more segments of any kind, including other wildcards.
+                for (int end = otherIndex + 1; end <= otherSegments.size(); ++end) {
+                    if (covers(index + 1, otherSegments, end)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (otherIndex == otherSegments.size()) {
+                return false;
+            }
+            String otherSegment = otherSegments.get(otherIndex);
+            if (otherSegment.equals(WILDCARD)) {
+                // Only a wildcard matches everything another wildcard does.
+                return false;
+            }
+            if (segment.startsWith(PARAMETER)) {
+                // Parameters match any single segment, regardless of their names.
+                return covers(index + 1, otherSegments, otherIndex + 1);
+            }
+            return !otherSegment.startsWith(PARAMETER)
+                && segment.equals(otherSegment)
+                && covers(index + 1, otherSegments, otherIndex + 1);
+        }
+    }
+}
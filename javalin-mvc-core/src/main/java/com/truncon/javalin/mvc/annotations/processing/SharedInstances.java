@@ -0,0 +1,74 @@
+package com.truncon.javalin.mvc.annotations.processing;
+
+import com.squareup.javapoet.CodeBlock;
+import com.truncon.javalin.mvc.api.Stateless;
+
+import javax.lang.model.element.Name;
+import javax.lang.model.element.TypeElement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tracks the {@link Stateless} controllers and handlers that are created once, when the routes
+ * are registered, and shared by every request.
+ */
+final class SharedInstances {
+    private static final String INJECTOR_NAME = "sharedInjector";
+
+    private final ContainerSource container;
+    private final Map<String, TypeElement> types = new LinkedHashMap<>();
+    private final Map<String, String> names = new LinkedHashMap<>();
+
+    public SharedInstances(ContainerSource container) {
+        this.container = container;
+    }
+
+    public static boolean isShared(TypeElement type) {
+        return type != null && type.getAnnotation(Stateless.class) != null;
+    }
+
+    /**
+     * Gets the name of the variable holding the shared instance of the given type, registering
+     * the type if it is seen for the first time.
+     * @param type The type of the controller or handler.
+     * @return the name of the variable or null if the type is not stateless.
+     */
+    public String getInstanceName(TypeElement type) {
+        if (!isShared(type)) {
+            return null;
+        }
+        String key = type.getQualifiedName().toString();
+        String name = names.get(key);
+        if (name == null) {
+            name = "shared" + names.size();
+            names.put(key, name);
+            types.put(key, type);
+        }
+        return name;
+    }
+
+    /**
+     * Creates the code that instantiates each of the shared instances. It must be generated after
+     * every route has been generated, so all of the shared types are known.
+     * @return the code creating the shared instances.
+     */
+    public CodeBlock generateInstances() {
+        CodeBlock.Builder builder = CodeBlock.builder();
+        boolean hasInjector = false;
+        for (Map.Entry<String, TypeElement> entry : types.entrySet()) {
+            TypeElement type = entry.getValue();
+            String name = names.get(entry.getKey());
+            Name dependencyName = container.isFound() ? container.getDependencyName(type) : null;
+            if (dependencyName == null) {
+                builder.addStatement("final $T $N = new $T()", type, name, type);
+            } else {
+                if (!hasInjector) {
+                    builder.addStatement("$T $N = scopeFactory.get()", container.getType(), INJECTOR_NAME);
+                    hasInjector = true;
+                }
+                builder.addStatement("final $T $N = $N.$L()", type, name, INJECTOR_NAME, dependencyName);
+            }
+        }
+        return builder.build();
+    }
+}
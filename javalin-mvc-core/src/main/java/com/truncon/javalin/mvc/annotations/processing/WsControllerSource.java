@@ -1,6 +1,9 @@
 package com.truncon.javalin.mvc.annotations.processing;
 
+import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
 import com.truncon.javalin.mvc.api.ws.*;
 import com.truncon.javalin.mvc.ws.*;
 
@@ -10,8 +13,10 @@ import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 import java.lang.annotation.Annotation;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 final class WsControllerSource {
     private final Types typeUtils;
@@ -42,7 +47,7 @@ final class WsControllerSource {
         }
     }
 
-    public CodeBlock generateEndpoint(ContainerSource container, String app) throws ProcessingException {
+    public CodeBlock generateEndpoint(ContainerSource container, SharedInstances sharedInstances, String app) throws ProcessingException {
         ExecutableElement connectMethod = getAnnotatedMethod(WsConnect.class);
         ExecutableElement disconnectMethod = getAnnotatedMethod(WsDisconnect.class);
         ExecutableElement errorMethod = getAnnotatedMethod(WsError.class);
@@ -58,17 +63,82 @@ final class WsControllerSource {
 
         CodeBlock.Builder handlerBuilder = CodeBlock.builder();
         handlerBuilder.beginControlFlow("$N.ws($S, (ws) ->", app, getRoute());
+        boolean connectionScoped = isConnectionScoped(container, sharedInstances);
+        if (connectionScoped) {
+            TypeName scopesType = ParameterizedTypeName.get(
+                ClassName.get(ConnectionScopes.class),
+                TypeName.get(container.getType()));
+            handlerBuilder.addStatement("$T scopes = new $T<>(scopeFactory)", scopesType, ConnectionScopes.class);
+        }
+        addOutboxSettings(handlerBuilder);
 
-        addOnConnectHandler(container, handlerBuilder, connectMethod);
-        addOnDisconnectHandler(container, handlerBuilder, disconnectMethod);
-        addOnErrorHandler(container, handlerBuilder, errorMethod);
-        addOnMessageHandler(container, handlerBuilder, messageMethod);
-        addOnBinaryMessageHandler(container, handlerBuilder, binaryMessageMethod);
+        addOnConnectHandler(container, sharedInstances, handlerBuilder, connectMethod);
+        addOnDisconnectHandler(container, sharedInstances, handlerBuilder, disconnectMethod);
+        addOnErrorHandler(container, sharedInstances, handlerBuilder, errorMethod);
+        addOnMessageHandler(container, sharedInstances, handlerBuilder, messageMethod);
+        addOnBinaryMessageHandler(container, sharedInstances, handlerBuilder, binaryMessageMethod);
+        if (connectMethod == null) {
+            handlerBuilder.addStatement(
+                "ws.onConnect((ctx) -> $T.register($S, ctx, outboxSettings))",
+                WsSessionRegistry.class,
+                getRoute());
+        }
+        if (disconnectMethod == null) {
+            handlerBuilder.beginControlFlow("ws.onClose((ctx) ->");
+            if (connectionScoped) {
+                handlerBuilder.addStatement("scopes.remove(ctx.getSessionId())");
+            }
+            handlerBuilder.addStatement("$T.unregister(ctx.getSessionId())", WsSessionRegistry.class);
+            handlerBuilder.endControlFlow(")");
+        }
 
         handlerBuilder.endControlFlow(")");
         return handlerBuilder.build();
     }
 
+    private void addOutboxSettings(CodeBlock.Builder handlerBuilder) {
+        OutboundBuffer buffer = controllerElement.getAnnotation(OutboundBuffer.class);
+        if (buffer == null) {
+            handlerBuilder.addStatement(
+                "$T outboxSettings = $T.DEFAULT",
+                WsOutboxSettings.class,
+                WsOutboxSettings.class);
+            return;
+        }
+        handlerBuilder.addStatement(
+            "$T outboxSettings = new $T($LL, $T.$N, $LL, $L, $LL)",
+            WsOutboxSettings.class,
+            WsOutboxSettings.class,
+            buffer.maxBytes(),
+            WsOverflowPolicy.class,
+            buffer.overflowPolicy().name(),
+            buffer.unit().toNanos(buffer.flushDelay()),
+            buffer.flushThreshold(),
+            buffer.unit().toNanos(buffer.blockTimeout()));
+    }
+
+    private boolean isConnectionScoped(ContainerSource container, SharedInstances sharedInstances) {
+        return controllerElement.getAnnotation(ConnectionScoped.class) != null
+            && container.isFound()
+            && !SharedInstances.isShared(controllerElement)
+            && container.getDependencyName(controllerElement) != null;
+    }
+
+    public List<ModelBinderGenerator> getModelBinderGenerators() throws ProcessingException {
+        return Stream.of(
+                getAnnotatedMethod(WsConnect.class),
+                getAnnotatedMethod(WsDisconnect.class),
+                getAnnotatedMethod(WsError.class),
+                getAnnotatedMethod(WsMessage.class),
+                getAnnotatedMethod(WsBinaryMessage.class))
+            .filter(Objects::nonNull)
+            .flatMap(m -> m.getParameters().stream())
+            .map(p -> ParameterGenerator.getParameterGenerator(typeUtils, elementUtils, p))
+            .map(ParameterGenerator::getWsModelBinderGenerator)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
     private <A extends Annotation> ExecutableElement getAnnotatedMethod(Class<A> annotationType) throws ProcessingException {
         List<ExecutableElement> methods = controllerElement.getEnclosedElements().stream()
             .filter(e -> e.getKind() == ElementKind.METHOD)
@@ -94,10 +164,12 @@ final class WsControllerSource {
 
     private void addOnConnectHandler(
             ContainerSource container,
+            SharedInstances sharedInstances,
             CodeBlock.Builder handlerBuilder,
             ExecutableElement method) {
         addHandler(
             container,
+            sharedInstances,
             handlerBuilder,
             "onConnect",
             WsConnectContext.class,
@@ -107,10 +179,12 @@ final class WsControllerSource {
 
     private void addOnDisconnectHandler(
             ContainerSource container,
+            SharedInstances sharedInstances,
             CodeBlock.Builder handlerBuilder,
             ExecutableElement method) {
         addHandler(
             container,
+            sharedInstances,
             handlerBuilder,
             "onClose",
             WsDisconnectContext.class,
@@ -120,10 +194,12 @@ final class WsControllerSource {
 
     private void addOnErrorHandler(
             ContainerSource container,
+            SharedInstances sharedInstances,
             CodeBlock.Builder handlerBuilder,
             ExecutableElement method) {
         addHandler(
             container,
+            sharedInstances,
             handlerBuilder,
             "onError",
             WsErrorContext.class,
@@ -133,10 +209,12 @@ final class WsControllerSource {
 
     private void addOnMessageHandler(
             ContainerSource container,
+            SharedInstances sharedInstances,
             CodeBlock.Builder handlerBuilder,
             ExecutableElement method) {
         addHandler(
             container,
+            sharedInstances,
             handlerBuilder,
             "onMessage",
             WsMessageContext.class,
@@ -146,10 +224,12 @@ final class WsControllerSource {
 
     private void addOnBinaryMessageHandler(
             ContainerSource container,
+            SharedInstances sharedInstances,
             CodeBlock.Builder handlerBuilder,
             ExecutableElement method) {
         addHandler(
             container,
+            sharedInstances,
             handlerBuilder,
             "onBinaryMessage",
             WsBinaryMessageContext.class,
@@ -159,6 +239,7 @@ final class WsControllerSource {
 
     private void addHandler(
             ContainerSource container,
+            SharedInstances sharedInstances,
             CodeBlock.Builder handlerBuilder,
             String javalinHandler,
             Class<?> contextInterface,
@@ -169,9 +250,20 @@ final class WsControllerSource {
         }
         final String context = "ctx";
         handlerBuilder.beginControlFlow("ws.$N(($N) ->", javalinHandler, context);
+        if ("onConnect".equals(javalinHandler)) {
+            handlerBuilder.addStatement(
+                "$T.register($S, $N, outboxSettings)",
+                WsSessionRegistry.class,
+                getRoute(),
+                context);
+        }
+        boolean isClose = "onClose".equals(javalinHandler);
+        if (isClose) {
+            handlerBuilder.beginControlFlow("try");
+        }
         final String wrapper = "context";
         handlerBuilder.addStatement("$T $N = new $T($N)", contextInterface, wrapper, contextImpl, context);
-        addController(container, handlerBuilder);
+        addController(container, sharedInstances, handlerBuilder);
         if (ParameterGenerator.isWsBinderNeeded(typeUtils, elementUtils, method, contextInterface)) {
             handlerBuilder.addStatement(
                 "$T binder = new $T($N)",
@@ -213,12 +305,26 @@ final class WsControllerSource {
                 method.getSimpleName());
             handlerBuilder.addStatement("new $T(result).execute($N)", WsJsonResult.class, wrapper);
         }
+        if (isClose) {
+            handlerBuilder.nextControlFlow("finally");
+            if (isConnectionScoped(container, sharedInstances)) {
+                handlerBuilder.addStatement("scopes.remove($N.getSessionId())", context);
+            }
+            handlerBuilder.addStatement("$T.unregister($N.getSessionId())", WsSessionRegistry.class, context);
+            handlerBuilder.endControlFlow();
+        }
         handlerBuilder.endControlFlow(")");
     }
 
-    private void addController(ContainerSource container, CodeBlock.Builder handlerBuilder) {
+    private void addController(ContainerSource container, SharedInstances sharedInstances, CodeBlock.Builder handlerBuilder) {
+        String sharedName = sharedInstances.getInstanceName(controllerElement);
         Name controllerName = container.getDependencyName(controllerElement);
-        if (container.isFound() && controllerName != null) {
+        if (sharedName != null) {
+            handlerBuilder.addStatement("$T controller = $N", controllerElement, sharedName);
+        } else if (isConnectionScoped(container, sharedInstances)) {
+            handlerBuilder.addStatement("$T injector = scopes.get(ctx)", container.getType());
+            handlerBuilder.addStatement("$T controller = injector.$L()", controllerElement, controllerName);
+        } else if (container.isFound() && controllerName != null) {
             handlerBuilder.addStatement("$T injector = scopeFactory.get()", container.getType());
             handlerBuilder.addStatement("$T controller = injector.$L()", controllerElement, controllerName);
         } else {
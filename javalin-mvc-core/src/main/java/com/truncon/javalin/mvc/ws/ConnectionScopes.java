@@ -0,0 +1,52 @@
+package com.truncon.javalin.mvc.ws;
+
+import io.javalin.websocket.WsContext;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Holds a dependency injection scope for each open WebSocket connection of an endpoint.
+ * A scope is created the first time it is needed and is discarded when the connection closes.
+ * @param <T> The type of the dependency injection container.
+ */
+public final class ConnectionScopes<T> {
+    private final Supplier<T> scopeFactory;
+    private final ConcurrentMap<String, T> scopes = new ConcurrentHashMap<>();
+
+    public ConnectionScopes(Supplier<T> scopeFactory) {
+        this.scopeFactory = scopeFactory;
+    }
+
+    /**
+     * Gets the scope associated with the session, creating it if necessary. Once the session is
+     * closed, a new scope is not kept, since nothing would discard it.
+     * @param context The context of the WebSocket session.
+     * @return the scope.
+     */
+    public T get(WsContext context) {
+        String sessionId = context.getSessionId();
+        T scope = scopes.get(sessionId);
+        if (scope != null) {
+            return scope;
+        }
+        if (!context.session.isOpen()) {
+            return scopeFactory.get();
+        }
+        scope = scopes.computeIfAbsent(sessionId, k -> scopeFactory.get());
+        if (!context.session.isOpen()) {
+            // The session closed while the scope was created, possibly after its scope was discarded.
+            scopes.remove(sessionId, scope);
+        }
+        return scope;
+    }
+
+    /**
+     * Discards the scope associated with the given session.
+     * @param sessionId The ID of the WebSocket session.
+     */
+    public void remove(String sessionId) {
+        scopes.remove(sessionId);
+    }
+}
@@ -1,11 +1,13 @@
 package com.truncon.javalin.mvc.ws;
 
 import com.truncon.javalin.mvc.ConversionUtils;
+import com.truncon.javalin.mvc.Converter;
 import com.truncon.javalin.mvc.ParameterCache;
 import com.truncon.javalin.mvc.api.Named;
 import com.truncon.javalin.mvc.api.ws.*;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * Performs model binding from header, URL path parameter, query string, form fields and the request body.
@@ -59,7 +61,7 @@ public class DefaultWsModelBinder implements WsModelBinder {
                 // There was not a specific source, so we fallback on JSON deserialization.
                 return getDeserializedBody(parameterClass);
             } else {
-                return ConversionUtils.toParameterValue(parameterClass, cache.getValues(name)).orElse(null);
+                return convert(parameterClass, cache.getValues(name));
             }
         }
         // A specific source was determined. It is either an array, a "primitive",
@@ -73,8 +75,13 @@ public class DefaultWsModelBinder implements WsModelBinder {
         // A value with that name exists in the specific source, so try to bind it directly.
         // We can bind the value if it is an array or a "primitive".
         // Otherwise, try to bind the value inside of an object.
-        return ConversionUtils.toParameterValue(parameterClass, cache.getValues(name))
-            .orElse(cache.bindValues(parameterClass));
+        Object value = convert(parameterClass, cache.getValues(name));
+        return value == null ? cache.bindValues(parameterClass) : value;
+    }
+
+    private static Object convert(Class<?> parameterClass, List<String> values) {
+        Converter<?> converter = ConversionUtils.getConverter(parameterClass);
+        return converter == null ? null : converter.convert(values);
     }
 
     private Object getDeserializedBody(Class<?> paramType) {
@@ -91,7 +98,9 @@ public class DefaultWsModelBinder implements WsModelBinder {
                 if (isByteArray(paramType)) {
                     return getByteArray(binaryContext);
                 } else if (paramType.equals(ByteBuffer.class)) {
-                    return getByteBuffer(binaryContext);
+                    return binaryContext.getBuffer();
+                } else if (paramType.equals(BinaryFrame.class)) {
+                    return binaryContext.getFrame();
                 }
             }
             return null;
@@ -101,28 +110,11 @@ public class DefaultWsModelBinder implements WsModelBinder {
         }
     }
 
-    private byte[] getByteArray(WsBinaryMessageContext binaryContext) {
+    private static byte[] getByteArray(WsBinaryMessageContext binaryContext) {
         byte[] data = binaryContext.getData();
-        if (binaryContext.getOffset() == null) {
-            return data;
-        }
-        int length = binaryContext.getLength() == null
-            ? data.length - binaryContext.getOffset()
-            : binaryContext.getLength();
-        byte[] result = new byte[length];
-        System.arraycopy(data, binaryContext.getOffset(), result, 0, length);
-        return result;
-    }
-
-    private ByteBuffer getByteBuffer(WsBinaryMessageContext binaryContext) {
-        byte[] data = binaryContext.getData();
-        if (binaryContext.getOffset() == null) {
-            return ByteBuffer.wrap(data);
-        }
-        int length = binaryContext.getLength() == null
-            ? data.length - binaryContext.getOffset()
-            : binaryContext.getLength();
-        return ByteBuffer.wrap(data, binaryContext.getOffset(), length);
+        BinaryFrame frame = binaryContext.getFrame();
+        // The array is only copied when the message is a part of it.
+        return frame.getLength() == data.length ? data : frame.toByteArray();
     }
 
     private static boolean isByteArray(Class<?> paramType) {
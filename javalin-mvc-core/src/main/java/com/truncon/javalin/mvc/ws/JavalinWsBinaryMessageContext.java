@@ -1,5 +1,6 @@
 package com.truncon.javalin.mvc.ws;
 
+import com.truncon.javalin.mvc.api.ws.BinaryFrame;
 import com.truncon.javalin.mvc.api.ws.WsBinaryMessageContext;
 
 public final class JavalinWsBinaryMessageContext extends JavalinWsContext implements WsBinaryMessageContext {
@@ -24,4 +25,9 @@ public final class JavalinWsBinaryMessageContext extends JavalinWsContext implem
     public Integer getLength() {
         return context.length();
     }
+
+    @Override
+    public BinaryFrame getFrame() {
+        return new BinaryFrame(context.data(), context.offset(), context.length());
+    }
 }
@@ -32,6 +32,11 @@ public abstract class JavalinWsContext implements WsContext {
         return JavalinJackson.INSTANCE.fromJson(json, dataClass);
     }
 
+    @Override
+    public String getSessionId() {
+        return context.getSessionId();
+    }
+
     @Override
     public Object getHandle() {
         return context;
@@ -1,12 +1,11 @@
 package com.truncon.javalin.mvc.ws;
 
+import com.truncon.javalin.mvc.SingleValueLookup;
 import com.truncon.javalin.mvc.api.ws.WsRequest;
 import io.javalin.websocket.WsContext;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public final class JavalinWsRequest implements WsRequest {
     private final WsContext context;
@@ -27,7 +26,7 @@ public final class JavalinWsRequest implements WsRequest {
 
     @Override
     public Map<String, List<String>> getPathLookup() {
-        return explode(context.pathParamMap());
+        return new SingleValueLookup(context.pathParamMap());
     }
 
     @Override
@@ -57,7 +56,7 @@ public final class JavalinWsRequest implements WsRequest {
 
     @Override
     public Map<String, List<String>> getHeaderLookup() {
-        return explode(context.headerMap());
+        return new SingleValueLookup(context::header, context::headerMap, true);
     }
 
     @Override
@@ -72,16 +71,6 @@ public final class JavalinWsRequest implements WsRequest {
 
     @Override
     public Map<String, List<String>> getCookieLookup() {
-        return explode(context.cookieMap());
-    }
-
-    private static Map<String, List<String>> explode(Map<String, String> map) {
-        return map.keySet().stream().collect(Collectors.toMap(k -> k, k -> listOf(map.get(k))));
-    }
-
-    private static List<String> listOf(String item) {
-        List<String> list = new ArrayList<>();
-        list.add(item);
-        return list;
+        return new SingleValueLookup(context::cookie, context::cookieMap, false);
     }
 }
@@ -1,9 +1,11 @@
 package com.truncon.javalin.mvc.ws;
 
 import com.truncon.javalin.mvc.api.ws.WsResponse;
+import io.javalin.plugin.json.JavalinJson;
 import io.javalin.websocket.WsContext;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
 
 final class JavalinWsResponse implements WsResponse {
     private final WsContext context;
@@ -30,4 +32,39 @@ final class JavalinWsResponse implements WsResponse {
     public void sendBinary(ByteBuffer buffer) {
         context.send(buffer);
     }
+
+    @Override
+    public CompletableFuture<Void> sendTextAsync(String content) {
+        WsOutbox outbox = WsSessionRegistry.getOutbox(context.getSessionId());
+        return outbox == null ? closed() : outbox.sendText(content);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendJsonAsync(Object data) {
+        return sendTextAsync(JavalinJson.toJson(data));
+    }
+
+    @Override
+    public CompletableFuture<Void> sendBinaryAsync(ByteBuffer buffer) {
+        WsOutbox outbox = WsSessionRegistry.getOutbox(context.getSessionId());
+        return outbox == null ? closed() : outbox.sendBinary(buffer);
+    }
+
+    @Override
+    public int getBufferedMessageCount() {
+        WsOutbox outbox = WsSessionRegistry.getOutbox(context.getSessionId());
+        return outbox == null ? 0 : outbox.getBufferedMessageCount();
+    }
+
+    @Override
+    public long getBufferedByteCount() {
+        WsOutbox outbox = WsSessionRegistry.getOutbox(context.getSessionId());
+        return outbox == null ? 0 : outbox.getBufferedByteCount();
+    }
+
+    private static CompletableFuture<Void> closed() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(new IllegalStateException("The WebSocket session is closed."));
+        return future;
+    }
 }
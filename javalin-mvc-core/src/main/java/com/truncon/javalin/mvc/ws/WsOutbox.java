@@ -0,0 +1,417 @@
+package com.truncon.javalin.mvc.ws;
+
+import com.truncon.javalin.mvc.api.ws.WsOverflowPolicy;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.common.WebSocketRemoteEndpoint;
+import org.eclipse.jetty.websocket.common.frames.TextFrame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers the messages sent asynchronously to a WebSocket session. Messages are queued and handed to
+ * the connection in batches, either once the queued messages reach the flush threshold or after the
+ * flush delay, so Jetty can gather them into as few socket writes as possible. Messages stay in the
+ * buffer until they are written; when a slow client lets the buffer fill up, the overflow policy
+ * decides whether older messages are dropped, the sender blocks or the session is closed.
+ *
+ * No more than the maximum number of buffered bytes is handed to the connection at once. The other
+ * messages wait in the queue, where they can still be dropped, and are handed over as writes complete.
+ *
+ * An outbox is created for a session when it connects, with the settings of its endpoint, and is
+ * discarded when the session closes. {@link WsSessionRegistry} keeps track of the outboxes.
+ */
+public final class WsOutbox {
+    private static final AtomicInteger flusherCount = new AtomicInteger();
+    // Handing messages over can write to the socket on the calling thread, so the timed flushes of
+    // different sessions are spread over several threads rather than queued behind one another.
+    private static final ScheduledExecutorService flusher = Executors.newScheduledThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        runnable -> {
+            Thread thread = new Thread(runnable, "javalin-mvc-ws-flusher-" + flusherCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private final Session session;
+    private final WsOutboxSettings settings;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private final ArrayDeque<Message> queue = new ArrayDeque<>();
+    private long queuedBytes;
+    private long inFlightBytes;
+    private int inFlightCount;
+    private boolean flushScheduled;
+    private boolean flushing;
+    private boolean closed;
+
+    public WsOutbox(Session session, WsOutboxSettings settings) {
+        this.session = session;
+        this.settings = settings;
+    }
+
+    /**
+     * Gets the settings of the outbox.
+     * @return the settings.
+     */
+    public WsOutboxSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Queues a text message.
+     * @param content The text to send.
+     * @return a future completed once the message is written.
+     */
+    public CompletableFuture<Void> sendText(String content) {
+        return enqueue(new TextMessage(content));
+    }
+
+    /**
+     * Queues a binary message.
+     * @param buffer The data to send.
+     * @return a future completed once the message is written.
+     */
+    public CompletableFuture<Void> sendBinary(ByteBuffer buffer) {
+        return enqueue(new BinaryMessage(buffer));
+    }
+
+    /**
+     * Queues a text message that is already encoded as UTF-8. The buffer is not consumed, so the same
+     * buffer can be queued for any number of sessions without being copied or encoded again.
+     * @param utf8 The UTF-8 encoded text to send.
+     * @return a future completed once the message is written.
+     */
+    public CompletableFuture<Void> sendEncodedText(ByteBuffer utf8) {
+        return enqueue(new EncodedTextMessage(utf8));
+    }
+
+    /**
+     * Queues a text message that is already encoded as UTF-8, without ever blocking the caller. When the
+     * buffer is full and the overflow policy is {@link WsOverflowPolicy#BLOCK}, the message is dropped
+     * instead, so a slow session cannot hold up a broadcast to the others.
+     * @param utf8 The UTF-8 encoded text to send, which is not consumed.
+     * @return a future completed once the message is written, or cancelled if it is dropped.
+     */
+    public CompletableFuture<Void> offerEncodedText(ByteBuffer utf8) {
+        return enqueue(new EncodedTextMessage(utf8), false);
+    }
+
+    /**
+     * Queues a binary message, without ever blocking the caller. When the buffer is full and the
+     * overflow policy is {@link WsOverflowPolicy#BLOCK}, the message is dropped instead.
+     * @param buffer The data to send.
+     * @return a future completed once the message is written, or cancelled if it is dropped.
+     */
+    public CompletableFuture<Void> offerBinary(ByteBuffer buffer) {
+        return enqueue(new BinaryMessage(buffer), false);
+    }
+
+    /**
+     * Gets the number of messages that have not been written yet.
+     * @return the number of buffered messages.
+     */
+    public int getBufferedMessageCount() {
+        lock.lock();
+        try {
+            return queue.size() + inFlightCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the size of the messages that have not been written yet.
+     * @return the number of buffered bytes.
+     */
+    public long getBufferedByteCount() {
+        lock.lock();
+        try {
+            return queuedBytes + inFlightBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(Message message) {
+        return enqueue(message, true);
+    }
+
+    private CompletableFuture<Void> enqueue(Message message, boolean mayBlock) {
+        List<Message> dropped = new ArrayList<>();
+        List<Message> rejected = new ArrayList<>();
+        lock.lock();
+        try {
+            boolean accepted = closed || !isFull(message.size) || makeRoom(message, mayBlock, dropped, rejected);
+            if (closed) {
+                rejected.add(message);
+            } else if (!accepted) {
+                dropped.add(message);
+            } else {
+                queue.add(message);
+                queuedBytes += message.size;
+                if (queuedBytes >= settings.getFlushThreshold() || settings.getFlushDelayNanos() == 0) {
+                    flush();
+                } else if (!flushScheduled) {
+                    flushScheduled = true;
+                    flusher.schedule(this::flushScheduled, settings.getFlushDelayNanos(), TimeUnit.NANOSECONDS);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Complete the futures outside of the lock, since they can run code of the caller.
+        for (Message droppedMessage : dropped) {
+            droppedMessage.future.cancel(false);
+        }
+        for (Message rejectedMessage : rejected) {
+            rejectedMessage.fail();
+        }
+        return message.future;
+    }
+
+    private boolean isFull(long size) {
+        long bufferedBytes = queuedBytes + inFlightBytes;
+        return bufferedBytes > 0 && bufferedBytes + size > settings.getMaxBufferedBytes();
+    }
+
+    private boolean makeRoom(Message message, boolean mayBlock, List<Message> dropped, List<Message> rejected) {
+        switch (settings.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                // Messages already handed to the connection cannot be taken back, so when they alone
+                // fill the buffer, the new message is the one dropped.
+                while (!queue.isEmpty() && isFull(message.size)) {
+                    Message oldest = queue.poll();
+                    queuedBytes -= oldest.size;
+                    dropped.add(oldest);
+                }
+                return !isFull(message.size);
+            case BLOCK:
+                // Hand the queued messages over right away, rather than waiting for the timer.
+                flush();
+                if (!mayBlock) {
+                    return !isFull(message.size);
+                }
+                long remaining = settings.getBlockTimeoutNanos();
+                while (!closed && isFull(message.size)) {
+                    if (remaining <= 0) {
+                        // The client stopped reading, so waiting any longer would tie up the sender for good.
+                        closeOnOverflow(rejected);
+                        return true;
+                    }
+                    try {
+                        remaining = written.awaitNanos(remaining);
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+                return true;
+            case CLOSE:
+                closeOnOverflow(rejected);
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    private void closeOnOverflow(List<Message> rejected) {
+        rejected.addAll(queue);
+        queue.clear();
+        queuedBytes = 0;
+        closed = true;
+        written.signalAll();
+        session.close(StatusCode.POLICY_VIOLATION, "The outbound buffer overflowed.");
+    }
+
+    private void flushScheduled() {
+        lock.lock();
+        try {
+            flushScheduled = false;
+            flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush() {
+        // Writes can complete while a message is being handed over, which calls back into this method.
+        if (flushing) {
+            return;
+        }
+        flushing = true;
+        try {
+            RemoteEndpoint remote = null;
+            Message message;
+            while ((message = queue.peek()) != null && canHandOver(message.size)) {
+                queue.poll();
+                queuedBytes -= message.size;
+                inFlightBytes += message.size;
+                ++inFlightCount;
+                try {
+                    if (remote == null) {
+                        remote = session.getRemote();
+                    }
+                    message.send(remote, new Callback(message));
+                } catch (RuntimeException exception) {
+                    // The session closed, so the message will never be written.
+                    onWritten(message);
+                    message.future.completeExceptionally(exception);
+                }
+            }
+        } finally {
+            flushing = false;
+        }
+    }
+
+    private boolean canHandOver(long size) {
+        return inFlightBytes == 0 || inFlightBytes + size <= settings.getMaxBufferedBytes();
+    }
+
+    private void onWritten(Message message) {
+        lock.lock();
+        try {
+            inFlightBytes -= message.size;
+            --inFlightCount;
+            written.signalAll();
+            // Messages held back because the connection had enough in flight are handed over now,
+            // unless they are still waiting for the flush delay.
+            if (!flushScheduled) {
+                flush();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discards the outbox, failing the messages that were not handed to the connection.
+     */
+    void close() {
+        List<Message> rejected;
+        lock.lock();
+        try {
+            closed = true;
+            rejected = new ArrayList<>(queue);
+            queue.clear();
+            queuedBytes = 0;
+            written.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Message message : rejected) {
+            message.fail();
+        }
+    }
+
+    private final class Callback implements WriteCallback {
+        private final Message message;
+
+        public Callback(Message message) {
+            this.message = message;
+        }
+
+        @Override
+        public void writeFailed(Throwable exception) {
+            onWritten(message);
+            message.future.completeExceptionally(exception);
+        }
+
+        @Override
+        public void writeSuccess() {
+            onWritten(message);
+            message.future.complete(null);
+        }
+    }
+
+    private abstract static class Message {
+        private final long size;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        protected Message(long size) {
+            this.size = size;
+        }
+
+        public abstract void send(RemoteEndpoint remote, WriteCallback callback);
+
+        public void fail() {
+            future.completeExceptionally(new IllegalStateException("The WebSocket session is closed."));
+        }
+    }
+
+    private static final class TextMessage extends Message {
+        private final String content;
+
+        public TextMessage(String content) {
+            super(getEncodedLength(content));
+            this.content = content;
+        }
+
+        private static long getEncodedLength(String content) {
+            // Counts the bytes of the UTF-8 encoding without encoding the text.
+            long length = content.length();
+            for (int index = 0; index != content.length(); ++index) {
+                char value = content.charAt(index);
+                if (value >= 0x800) {
+                    // Each half of a surrogate pair adds 1 byte to its 2 characters, making 4 bytes.
+                    length += Character.isSurrogate(value) ? 1 : 2;
+                } else if (value >= 0x80) {
+                    ++length;
+                }
+            }
+            return length;
+        }
+
+        @Override
+        public void send(RemoteEndpoint remote, WriteCallback callback) {
+            remote.sendString(content, callback);
+        }
+    }
+
+    private static final class EncodedTextMessage extends Message {
+        private final ByteBuffer utf8;
+
+        public EncodedTextMessage(ByteBuffer utf8) {
+            super(utf8.remaining());
+            this.utf8 = utf8;
+        }
+
+        @Override
+        public void send(RemoteEndpoint remote, WriteCallback callback) {
+            // Writing a frame advances the position of its payload, so every frame gets its own view.
+            ByteBuffer payload = utf8.duplicate();
+            if (remote instanceof WebSocketRemoteEndpoint) {
+                ((WebSocketRemoteEndpoint) remote).uncheckedSendFrame(new TextFrame().setPayload(payload), callback);
+            } else {
+                remote.sendString(StandardCharsets.UTF_8.decode(payload).toString(), callback);
+            }
+        }
+    }
+
+    private static final class BinaryMessage extends Message {
+        private final ByteBuffer buffer;
+
+        public BinaryMessage(ByteBuffer buffer) {
+            super(buffer.remaining());
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void send(RemoteEndpoint remote, WriteCallback callback) {
+            remote.sendBytes(buffer, callback);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.truncon.javalin.mvc.ws;
+
+import com.truncon.javalin.mvc.api.ws.OutboundBuffer;
+import com.truncon.javalin.mvc.api.ws.WsOverflowPolicy;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the settings of the outboxes of a WebSocket endpoint, as configured by {@link OutboundBuffer}.
+ */
+public final class WsOutboxSettings {
+    /**
+     * The settings of endpoints without an {@link OutboundBuffer} annotation.
+     */
+    public static final WsOutboxSettings DEFAULT = new WsOutboxSettings(
+        1024 * 1024,
+        WsOverflowPolicy.DROP_OLDEST,
+        TimeUnit.MILLISECONDS.toNanos(5),
+        8 * 1024,
+        TimeUnit.SECONDS.toNanos(30));
+
+    private final long maxBufferedBytes;
+    private final WsOverflowPolicy overflowPolicy;
+    private final long flushDelayNanos;
+    private final int flushThreshold;
+    private final long blockTimeoutNanos;
+
+    public WsOutboxSettings(
+            long maxBufferedBytes,
+            WsOverflowPolicy overflowPolicy,
+            long flushDelayNanos,
+            int flushThreshold,
+            long blockTimeoutNanos) {
+        this.maxBufferedBytes = Math.max(0, maxBufferedBytes);
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+        this.flushDelayNanos = Math.max(0, flushDelayNanos);
+        this.flushThreshold = Math.max(0, flushThreshold);
+        this.blockTimeoutNanos = Math.max(0, blockTimeoutNanos);
+    }
+
+    public long getMaxBufferedBytes() {
+        return maxBufferedBytes;
+    }
+
+    public WsOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public long getFlushDelayNanos() {
+        return flushDelayNanos;
+    }
+
+    public int getFlushThreshold() {
+        return flushThreshold;
+    }
+
+    public long getBlockTimeoutNanos() {
+        return blockTimeoutNanos;
+    }
+}
@@ -0,0 +1,246 @@
+package com.truncon.javalin.mvc.ws;
+
+import io.javalin.plugin.json.JavalinJson;
+import io.javalin.websocket.WsContext;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps track of the open WebSocket sessions and the groups they belong to. The generated endpoints
+ * register a session when it connects, before the {@code WsConnect} handler runs, and unregister it
+ * when it closes. Every session is a member of the group named after the route of its endpoint, and
+ * can join or leave any number of other groups, such as topics.
+ *
+ * Broadcasts serialize and encode the payload once, then queue the same bytes in the outbox of every
+ * member, so sending to many sessions costs little more than sending to one. Broadcasts never block:
+ * when the outbox of a slow member is full, the overflow policy of its endpoint applies to that
+ * member alone, except that {@link com.truncon.javalin.mvc.api.ws.WsOverflowPolicy#BLOCK} drops the
+ * message for that member instead of waiting for it.
+ */
+public final class WsSessionRegistry {
+    private static final ConcurrentMap<String, Member> sessions = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Set<Member>> groups = new ConcurrentHashMap<>();
+
+    private WsSessionRegistry() {
+    }
+
+    /**
+     * Registers an open session and adds it to the group of its endpoint, creating its outbox.
+     * @param endpoint The route of the endpoint the session connected to.
+     * @param context The context of the session.
+     * @param settings The settings of the outboxes of the endpoint.
+     */
+    public static void register(String endpoint, WsContext context, WsOutboxSettings settings) {
+        String sessionId = context.getSessionId();
+        Member member = new Member(context, new WsOutbox(context.session, settings));
+        sessions.put(sessionId, member);
+        join(sessionId, endpoint);
+        // If the session closed while it was being registered, unregister may have run before the put
+        // and found nothing to remove, so the member is removed here instead.
+        if (!context.session.isOpen() && sessions.remove(sessionId, member)) {
+            release(member);
+        }
+    }
+
+    /**
+     * Removes a closed session from the registry and from every group, discarding its outbox.
+     * @param sessionId The ID of the session.
+     */
+    public static void unregister(String sessionId) {
+        Member member = sessions.remove(sessionId);
+        if (member != null) {
+            release(member);
+        }
+    }
+
+    private static void release(Member member) {
+        for (String group : member.groups) {
+            leave(member, group);
+        }
+        member.outbox.close();
+    }
+
+    /**
+     * Gets the outbox of a session.
+     * @param sessionId The ID of the session.
+     * @return the outbox, or null if the session is not registered.
+     */
+    public static WsOutbox getOutbox(String sessionId) {
+        Member member = sessions.get(sessionId);
+        return member == null ? null : member.outbox;
+    }
+
+    /**
+     * Adds a session to a group.
+     * @param sessionId The ID of the session.
+     * @param group The name of the group.
+     * @return true if the session is open; otherwise, false.
+     */
+    public static boolean join(String sessionId, String group) {
+        Member member = sessions.get(sessionId);
+        if (member == null) {
+            return false;
+        }
+        member.groups.add(group);
+        boolean[] joined = new boolean[1];
+        groups.compute(group, (k, members) -> {
+            // The session may have been unregistered since it was looked up, after unregister went
+            // through its groups, so it must not be added back.
+            if (sessions.get(sessionId) != member) {
+                return members;
+            }
+            Set<Member> result = members == null ? ConcurrentHashMap.newKeySet() : members;
+            result.add(member);
+            joined[0] = true;
+            return result;
+        });
+        if (!joined[0]) {
+            member.groups.remove(group);
+        }
+        return joined[0];
+    }
+
+    /**
+     * Removes a session from a group.
+     * @param sessionId The ID of the session.
+     * @param group The name of the group.
+     * @return true if the session was a member of the group; otherwise, false.
+     */
+    public static boolean leave(String sessionId, String group) {
+        Member member = sessions.get(sessionId);
+        return member != null && member.groups.remove(group) && leave(member, group);
+    }
+
+    private static boolean leave(Member member, String group) {
+        boolean[] removed = new boolean[1];
+        // Empty groups are discarded atomically, so a concurrent join cannot add to a discarded set.
+        groups.computeIfPresent(group, (k, members) -> {
+            removed[0] = members.remove(member);
+            return members.isEmpty() ? null : members;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Gets whether the session is open.
+     * @param sessionId The ID of the session.
+     * @return true if the session is registered; otherwise, false.
+     */
+    public static boolean isRegistered(String sessionId) {
+        return sessions.containsKey(sessionId);
+    }
+
+    /**
+     * Gets the number of open sessions.
+     * @return the number of sessions.
+     */
+    public static int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Gets the groups the session is a member of.
+     * @param sessionId The ID of the session.
+     * @return the names of the groups.
+     */
+    public static Set<String> getGroups(String sessionId) {
+        Member member = sessions.get(sessionId);
+        return member == null ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(member.groups));
+    }
+
+    /**
+     * Gets the IDs of the sessions in the group.
+     * @param group The name of the group.
+     * @return the IDs of the sessions.
+     */
+    public static Set<String> getMembers(String group) {
+        Set<Member> members = groups.get(group);
+        if (members == null) {
+            return Collections.emptySet();
+        }
+        Set<String> sessionIds = new HashSet<>();
+        for (Member member : members) {
+            sessionIds.add(member.context.getSessionId());
+        }
+        return Collections.unmodifiableSet(sessionIds);
+    }
+
+    /**
+     * Gets the number of sessions in the group.
+     * @param group The name of the group.
+     * @return the number of sessions.
+     */
+    public static int getMemberCount(String group) {
+        Set<Member> members = groups.get(group);
+        return members == null ? 0 : members.size();
+    }
+
+    /**
+     * Sends textual content to every session in the group, without blocking. The text is encoded once.
+     * @param group The name of the group.
+     * @param content The text to send.
+     * @return the number of sessions the message was queued for, leaving out the ones it was dropped for.
+     */
+    public static int broadcastText(String group, String content) {
+        ByteBuffer utf8 = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+        int count = 0;
+        for (Member member : getMembersOrEmpty(group)) {
+            if (!member.outbox.offerEncodedText(utf8).isCompletedExceptionally()) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sends the given object, serialized as JSON, to every session in the group. The object is
+     * serialized once.
+     * @param group The name of the group.
+     * @param data The object to send as JSON.
+     * @return the number of sessions the message was queued for, leaving out the ones it was dropped for.
+     */
+    public static int broadcastJson(String group, Object data) {
+        return broadcastText(group, JavalinJson.toJson(data));
+    }
+
+    /**
+     * Sends binary data to every session in the group, without blocking. The data is shared by every
+     * session, so the buffer must not be modified afterward.
+     * @param group The name of the group.
+     * @param buffer A {@link ByteBuffer} wrapping the data to send.
+     * @return the number of sessions the message was queued for, leaving out the ones it was dropped for.
+     */
+    public static int broadcastBinary(String group, ByteBuffer buffer) {
+        ByteBuffer data = buffer.duplicate();
+        int count = 0;
+        for (Member member : getMembersOrEmpty(group)) {
+            // Writing consumes the buffer, so every session gets its own view of the shared data.
+            if (!member.outbox.offerBinary(data.duplicate()).isCompletedExceptionally()) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    private static Set<Member> getMembersOrEmpty(String group) {
+        Set<Member> members = groups.get(group);
+        return members == null ? Collections.emptySet() : members;
+    }
+
+    private static final class Member {
+        private final WsContext context;
+        private final WsOutbox outbox;
+        private final Set<String> groups = ConcurrentHashMap.newKeySet();
+
+        public Member(WsContext context, WsOutbox outbox) {
+            this.context = context;
+            this.outbox = outbox;
+        }
+    }
+}
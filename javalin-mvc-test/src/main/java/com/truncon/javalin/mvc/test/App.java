@@ -5,7 +5,10 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.truncon.javalin.mvc.BlockingExecutors;
 import com.truncon.javalin.mvc.ControllerRegistry;
+import com.truncon.javalin.mvc.DefaultRouteMetrics;
+import com.truncon.javalin.mvc.test.controllers.BlockingController;
 import io.javalin.plugin.json.JavalinJackson;
 import io.javalin.plugin.openapi.OpenApiOptions;
 import io.javalin.plugin.openapi.OpenApiPlugin;
@@ -19,11 +22,19 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 
 public final class App {
     private static final Logger logger = Logger.getLogger(App.class);
+    private static final ExecutorService blockingExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, BlockingController.EXECUTOR_THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+    });
     private final Javalin app;
+    private final DefaultRouteMetrics routeMetrics;
 
     public static void main(String[] args) throws IOException {
         App app = App.newInstance();
@@ -46,7 +57,9 @@ public final class App {
 
         // Provide method of constructing a new DI container
         Supplier<WebContainer> scopeFactory = () -> DaggerWebContainer.builder().build();
-        ControllerRegistry registry = new ControllerRegistry(scopeFactory);
+        BlockingExecutors.register(BlockingController.EXECUTOR_NAME, blockingExecutor);
+        DefaultRouteMetrics routeMetrics = new DefaultRouteMetrics();
+        ControllerRegistry registry = new ControllerRegistry(scopeFactory, routeMetrics);
         registry.register(app);
 
         // Prevent unhandled exceptions from taking down the web server
@@ -54,11 +67,16 @@ public final class App {
             logger.error("Encountered an unhandled exception.", e);
             ctx.status(500);
         });
-        return new App(app);
+        return new App(app, routeMetrics);
     }
 
-    private App(Javalin app) {
+    private App(Javalin app, DefaultRouteMetrics routeMetrics) {
         this.app = app;
+        this.routeMetrics = routeMetrics;
+    }
+
+    public DefaultRouteMetrics getRouteMetrics() {
+        return routeMetrics;
     }
 
     public CompletableFuture<Void> start() throws IOException {
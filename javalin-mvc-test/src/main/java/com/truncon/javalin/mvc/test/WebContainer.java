@@ -1,6 +1,7 @@
 package com.truncon.javalin.mvc.test;
 
 import com.truncon.javalin.mvc.api.ControllerComponent;
+import com.truncon.javalin.mvc.test.controllers.ConnectionScopedController;
 import dagger.Component;
 import javax.inject.Singleton;
 
@@ -9,4 +10,5 @@ import javax.inject.Singleton;
 @ControllerComponent
 public interface WebContainer {
     WebContainer getContainer();
+    ConnectionScopedController getConnectionScopedController();
 }
@@ -0,0 +1,54 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.*;
+import com.truncon.javalin.mvc.test.handlers.AsyncAuthorize;
+import com.truncon.javalin.mvc.test.handlers.AsyncHeader;
+import com.truncon.javalin.mvc.test.handlers.ErrorHandler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Controller
+public final class AsyncHandlerController {
+    public static final String TOKEN_HEADER = "X-Token";
+    public static final String TOKEN = "secret";
+    public static final String AFTER_HEADER = "X-After";
+    public static final String AFTER_VALUE = "completed";
+    public static final AtomicInteger instanceCount = new AtomicInteger();
+
+    public AsyncHandlerController() {
+        instanceCount.incrementAndGet();
+    }
+
+    public static final String AUTHORIZED_ROUTE = "/api/async-handlers/authorized";
+    @HttpGet(route = AUTHORIZED_ROUTE)
+    @Before(handler = AsyncAuthorize.class, arguments = { TOKEN_HEADER, TOKEN })
+    public int getAuthorized() {
+        return 123;
+    }
+
+    public static final String AFTER_ROUTE = "/api/async-handlers/after";
+    @HttpGet(route = AFTER_ROUTE)
+    @After(handler = AsyncHeader.class, arguments = { AFTER_HEADER, AFTER_VALUE })
+    public CompletableFuture<Integer> getAfter() {
+        return CompletableFuture.supplyAsync(() -> 456);
+    }
+
+    public static final String FUTURE_ERROR_ROUTE = "/api/async-handlers/error";
+    @HttpGet(route = FUTURE_ERROR_ROUTE)
+    @After(handler = ErrorHandler.class)
+    public CompletableFuture<Integer> getError() {
+        return CompletableFuture.supplyAsync(() -> {
+            throw new IllegalStateException("The action failed.");
+        });
+    }
+
+    public static final String BLOCKING_ROUTE = "/api/async-handlers/blocking";
+    @HttpGet(route = BLOCKING_ROUTE)
+    @Blocking
+    @Before(handler = AsyncAuthorize.class, arguments = { TOKEN_HEADER, TOKEN })
+    @After(handler = AsyncHeader.class, arguments = { AFTER_HEADER, AFTER_VALUE })
+    public String getBlocking() {
+        return Thread.currentThread().getName();
+    }
+}
@@ -0,0 +1,43 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.*;
+import com.truncon.javalin.mvc.test.models.PrimitiveModel;
+
+import java.util.concurrent.CompletableFuture;
+
+@Controller
+public final class BinaryController {
+    public static final String MEDIA_TYPE = "application/x-javalin-mvc-test";
+
+    public static final String MODEL_ROUTE = "/api/binary/model";
+    @HttpGet(route = MODEL_ROUTE)
+    public ActionResult getModel() {
+        return new JsonResult(createModel());
+    }
+
+    public static final String ASYNC_ROUTE = "/api/binary/async";
+    @HttpGet(route = ASYNC_ROUTE)
+    public CompletableFuture<ActionResult> getAsync() {
+        return CompletableFuture.supplyAsync(() -> new JsonResult(createModel()).setComputeETag(true));
+    }
+
+    public static final String TAGGED_ROUTE = "/api/binary/tagged";
+    @HttpGet(route = TAGGED_ROUTE)
+    public ActionResult getTagged() {
+        return new JsonResult(createModel()).setETag("model");
+    }
+
+    public static final String ECHO_ROUTE = "/api/binary/echo";
+    @HttpPost(route = ECHO_ROUTE)
+    public ActionResult echo(PrimitiveModel model) {
+        return new JsonResult(model);
+    }
+
+    public static PrimitiveModel createModel() {
+        PrimitiveModel model = new PrimitiveModel();
+        model.setInteger(42);
+        model.setBoolean(true);
+        model.setLong(Long.MAX_VALUE);
+        return model;
+    }
+}
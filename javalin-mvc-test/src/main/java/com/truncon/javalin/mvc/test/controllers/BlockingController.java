@@ -0,0 +1,44 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.*;
+
+@Controller
+public final class BlockingController {
+    public static final String EXECUTOR_NAME = "test-executor";
+    public static final String EXECUTOR_THREAD_NAME = "test-executor-thread";
+
+    public static final String THREAD_ROUTE = "/api/blocking/thread";
+    @HttpGet(route = THREAD_ROUTE)
+    @Blocking
+    public String getThreadName() {
+        return Thread.currentThread().getName();
+    }
+
+    public static final String NAMED_EXECUTOR_ROUTE = "/api/blocking/named";
+    @HttpGet(route = NAMED_EXECUTOR_ROUTE)
+    @Blocking(EXECUTOR_NAME)
+    public ActionResult getNamedExecutorThreadName() {
+        return new ContentResult(Thread.currentThread().getName());
+    }
+
+    public static final String PARAMETER_ROUTE = "/api/blocking/parameter/:value";
+    @HttpGet(route = PARAMETER_ROUTE)
+    @Blocking
+    public int getParameter(@FromPath int value) {
+        return value;
+    }
+
+    public static final String VOID_ROUTE = "/api/blocking/void";
+    @HttpGet(route = VOID_ROUTE)
+    @Blocking
+    public void setThreadName(HttpResponse response) {
+        response.setTextBody(Thread.currentThread().getName());
+    }
+
+    public static final String ERROR_ROUTE = "/api/blocking/error";
+    @HttpGet(route = ERROR_ROUTE)
+    @Blocking
+    public String getError() {
+        throw new IllegalStateException("The action failed.");
+    }
+}
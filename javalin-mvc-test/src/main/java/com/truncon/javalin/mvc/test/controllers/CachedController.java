@@ -0,0 +1,86 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.*;
+import com.truncon.javalin.mvc.test.handlers.Authorize;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Controller
+public final class CachedController {
+    public static final String TOKEN_HEADER = "X-Token";
+    public static final String TOKEN = "secret";
+    // Every response includes a new count, to reveal when a cached response is sent instead.
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    public static final String CONTENT_ROUTE = "/api/cached/content/:id";
+    @HttpGet(route = CONTENT_ROUTE)
+    @Cached
+    public ActionResult getContent(@FromPath int id, @FromQuery String name) {
+        return new ContentResult(id + ":" + name + ":" + counter.incrementAndGet());
+    }
+
+    public static final String JSON_ROUTE = "/api/cached/json";
+    @HttpGet(route = JSON_ROUTE)
+    @Cached
+    public int getJson(String value) {
+        return counter.incrementAndGet();
+    }
+
+    public static final String AUTHORIZED_ROUTE = "/api/cached/authorized";
+    @HttpGet(route = AUTHORIZED_ROUTE)
+    @Before(handler = Authorize.class, arguments = { TOKEN_HEADER, TOKEN })
+    @Cached
+    public ActionResult getAuthorized() {
+        return new ContentResult(Integer.toString(counter.incrementAndGet()));
+    }
+
+    public static final String EXPIRING_ROUTE = "/api/cached/expiring";
+    @HttpGet(route = EXPIRING_ROUTE)
+    @Cached(ttl = 1, unit = TimeUnit.MILLISECONDS)
+    public ActionResult getExpiring() {
+        return new ContentResult(Integer.toString(counter.incrementAndGet()));
+    }
+
+    public static final String EVICTING_ROUTE = "/api/cached/evicting";
+    @HttpGet(route = EVICTING_ROUTE)
+    @Cached(maxEntries = 1)
+    public ActionResult getEvicting(@FromQuery String key) {
+        return new ContentResult(key + ":" + counter.incrementAndGet());
+    }
+
+    public static final String NOT_FOUND_ROUTE = "/api/cached/not-found";
+    @HttpGet(route = NOT_FOUND_ROUTE)
+    @Cached
+    public ActionResult getNotFound() {
+        return new ContentResult(Integer.toString(counter.incrementAndGet()), 404);
+    }
+
+    public static final String VALIDATED_ROUTE = "/api/cached/validated";
+    public static final String VALIDATED_ETAG = "\"validated\"";
+    public static final Instant VALIDATED_LAST_MODIFIED = Instant.parse("2020-01-01T00:00:00Z");
+    @HttpGet(route = VALIDATED_ROUTE)
+    @Cached
+    public ActionResult getValidated() {
+        return new ContentResult(Integer.toString(counter.incrementAndGet()))
+            .setETag(VALIDATED_ETAG)
+            .setLastModified(VALIDATED_LAST_MODIFIED);
+    }
+
+    public static final String BLOCKING_ROUTE = "/api/cached/blocking";
+    @HttpGet(route = BLOCKING_ROUTE)
+    @Blocking
+    @Cached
+    public int getBlocking() {
+        return counter.incrementAndGet();
+    }
+
+    public static final String FUTURE_ROUTE = "/api/cached/future";
+    @HttpGet(route = FUTURE_ROUTE)
+    @Cached
+    public CompletableFuture<ActionResult> getFuture() {
+        return CompletableFuture.supplyAsync(() -> new ContentResult(Integer.toString(counter.incrementAndGet())));
+    }
+}
@@ -0,0 +1,14 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.ws.*;
+
+@WsController(route = ClosingFeedController.ROUTE)
+@OutboundBuffer(maxBytes = 1, overflowPolicy = WsOverflowPolicy.CLOSE, flushDelay = 500)
+public final class ClosingFeedController {
+    public static final String ROUTE = "/ws/feed/closing";
+
+    @WsMessage
+    public void onMessage(WsMessageContext context) {
+        FeedController.feed(context);
+    }
+}
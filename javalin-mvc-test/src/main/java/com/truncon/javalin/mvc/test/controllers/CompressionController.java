@@ -0,0 +1,64 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.*;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Controller
+public final class CompressionController {
+    public static final String CONTENT = String.join(" ", Collections.nCopies(500, "compressible"));
+    public static final String SMALL_CONTENT = "small";
+    private static final AtomicInteger catalogBuilds = new AtomicInteger();
+
+    public static final String CONTENT_ROUTE = "/api/compression/content";
+    @HttpGet(route = CONTENT_ROUTE)
+    public ActionResult getContent() {
+        return new CompressedResult(new ContentResult(CONTENT));
+    }
+
+    public static final String SMALL_CONTENT_ROUTE = "/api/compression/small";
+    @HttpGet(route = SMALL_CONTENT_ROUTE)
+    public ActionResult getSmallContent() {
+        return new CompressedResult(new ContentResult(SMALL_CONTENT).setETag(SMALL_CONTENT));
+    }
+
+    public static final String VARIED_CONTENT_ROUTE = "/api/compression/varied";
+    @HttpGet(route = VARIED_CONTENT_ROUTE)
+    public ActionResult getVariedContent(HttpResponse response) {
+        response.setHeader("Vary", "Origin");
+        return new CompressedResult(new ContentResult(CONTENT));
+    }
+
+    public static final String ASYNC_CONTENT_ROUTE = "/api/compression/content/async";
+    @HttpGet(route = ASYNC_CONTENT_ROUTE)
+    public CompletableFuture<ActionResult> getContentAsync() {
+        return CompletableFuture.supplyAsync(() -> new CompressedResult(new ContentResult(CONTENT)));
+    }
+
+    public static final String CATALOG_ROUTE = "/api/compression/catalog";
+    @HttpGet(route = CATALOG_ROUTE)
+    public ActionResult getCatalog(String version) {
+        // Every build produces a different document, to reveal when the cached payload is reused.
+        String item = "item-" + catalogBuilds.incrementAndGet();
+        return new CompressedResult(new JsonResult(Collections.nCopies(500, item)), "catalog", version);
+    }
+
+    public static final String TAGGED_CONTENT_ROUTE = "/api/compression/tagged";
+    @HttpGet(route = TAGGED_CONTENT_ROUTE)
+    public ActionResult getTaggedContent() {
+        return new CompressedResult(new ContentResult(CONTENT).setETag("content"));
+    }
+
+    public static final String TAGGED_CATALOG_ROUTE = "/api/compression/tagged-catalog";
+    public static final Instant TAGGED_CATALOG_LAST_MODIFIED = Instant.parse("2020-01-01T00:00:00Z");
+    @HttpGet(route = TAGGED_CATALOG_ROUTE)
+    public ActionResult getTaggedCatalog(String version) {
+        JsonResult result = new JsonResult(Collections.nCopies(500, "item"))
+            .setETag(version)
+            .setLastModified(TAGGED_CATALOG_LAST_MODIFIED);
+        return new CompressedResult(result, "tagged-catalog", version);
+    }
+}
@@ -0,0 +1,64 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.*;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Controller
+public final class ConditionalController {
+    public static final String CONTENT = "Hello, World!!!";
+    public static final String VERSION = "v1";
+    public static final Instant LAST_MODIFIED = Instant.ofEpochSecond(1_600_000_000L);
+    private static final AtomicInteger serializations = new AtomicInteger();
+
+    public static int getSerializationCount() {
+        return serializations.get();
+    }
+
+    public static final String CONTENT_ROUTE = "/api/conditional/content";
+    @HttpGet(route = CONTENT_ROUTE)
+    public ActionResult getContent() {
+        return new ContentResult(CONTENT).setComputeETag(true);
+    }
+
+    // Characters taking two, three and four bytes in UTF-8, and an unpaired surrogate.
+    public static final String UNICODE_CONTENT = "h\u00e9llo \u20ac \ud83d\ude00 \ud800";
+    public static final String UNICODE_CONTENT_ROUTE = "/api/conditional/unicode";
+    @HttpGet(route = UNICODE_CONTENT_ROUTE)
+    public ActionResult getUnicodeContent() {
+        return new ContentResult(UNICODE_CONTENT).setComputeETag(true);
+    }
+
+    public static final String JSON_ROUTE = "/api/conditional/json";
+    @HttpGet(route = JSON_ROUTE)
+    public ActionResult getJson() {
+        return new JsonResult(new Document()).setComputeETag(true);
+    }
+
+    public static final String VERSION_ROUTE = "/api/conditional/version";
+    @HttpGet(route = VERSION_ROUTE)
+    public ActionResult getVersion() {
+        return new JsonResult(new Document()).setETag(VERSION);
+    }
+
+    public static final String LAST_MODIFIED_ROUTE = "/api/conditional/last-modified";
+    @HttpGet(route = LAST_MODIFIED_ROUTE)
+    public ActionResult getLastModified() {
+        return new ContentResult(CONTENT).setLastModified(LAST_MODIFIED);
+    }
+
+    public static final String ASYNC_ROUTE = "/api/conditional/async";
+    @HttpGet(route = ASYNC_ROUTE)
+    public CompletableFuture<ActionResult> getAsync() {
+        return CompletableFuture.supplyAsync(() -> new JsonResult(new Document()).setComputeETag(true));
+    }
+
+    public static final class Document {
+        public String getValue() {
+            serializations.incrementAndGet();
+            return CONTENT;
+        }
+    }
+}
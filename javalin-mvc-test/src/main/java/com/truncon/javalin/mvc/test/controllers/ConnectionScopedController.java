@@ -0,0 +1,23 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.ws.*;
+import com.truncon.javalin.mvc.test.services.MessageCounter;
+
+import javax.inject.Inject;
+
+@WsController(route = ConnectionScopedController.ROUTE)
+@ConnectionScoped
+public final class ConnectionScopedController {
+    public static final String ROUTE = "/ws/scoped";
+    private final MessageCounter counter;
+
+    @Inject
+    public ConnectionScopedController(MessageCounter counter) {
+        this.counter = counter;
+    }
+
+    @WsMessage
+    public WsActionResult onMessage() {
+        return new WsContentResult(Integer.toString(counter.increment()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.ws.*;
+
+@WsController(route = DroppingFeedController.ROUTE)
+@OutboundBuffer(maxBytes = 1, overflowPolicy = WsOverflowPolicy.DROP_OLDEST, flushDelay = 500)
+public final class DroppingFeedController {
+    public static final String ROUTE = "/ws/feed/dropping";
+
+    @WsMessage
+    public void onMessage(WsMessageContext context) {
+        FeedController.feed(context);
+    }
+}
@@ -0,0 +1,23 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.ws.*;
+
+// A tiny buffer makes the action block on the client several times.
+@WsController(route = FeedController.ROUTE)
+@OutboundBuffer(maxBytes = 16, overflowPolicy = WsOverflowPolicy.BLOCK)
+public final class FeedController {
+    public static final String ROUTE = "/ws/feed";
+
+    @WsMessage
+    public void onMessage(WsMessageContext context) {
+        feed(context);
+    }
+
+    static void feed(WsMessageContext context) {
+        int count = Integer.parseInt(context.getMessage());
+        WsResponse response = context.getResponse();
+        for (int index = 0; index != count; ++index) {
+            response.sendTextAsync(Integer.toString(index));
+        }
+    }
+}
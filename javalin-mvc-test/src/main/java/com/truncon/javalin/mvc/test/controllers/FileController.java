@@ -3,11 +3,17 @@ package com.truncon.javalin.mvc.test.controllers;
 import com.truncon.javalin.mvc.api.*;
 import com.truncon.javalin.mvc.test.models.FileUploadDetails;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 @Controller
 public final class FileController {
@@ -27,6 +33,21 @@ public final class FileController {
         return new DownloadResult(Files.newInputStream(path),CONTENT_TYPE).setFileName(CONTENT_DISPOSITION);
     }
 
+    public static final String GET_FILE_ROUTE = "/api/files/file";
+    @HttpGet(route = GET_FILE_ROUTE)
+    @HttpHead(route = GET_FILE_ROUTE)
+    public ActionResult getIndexFile() {
+        Path path = Paths.get("./public/index.html");
+        return new FileResult(path, CONTENT_TYPE);
+    }
+
+    public static final String GET_DOWNLOAD_FILE_ROUTE = "/api/files/download-file";
+    @HttpGet(route = GET_DOWNLOAD_FILE_ROUTE)
+    public ActionResult getIndexFileDownload() {
+        Path path = Paths.get("./public/index.html");
+        return new DownloadResult(path, CONTENT_TYPE).setFileName(CONTENT_DISPOSITION);
+    }
+
     public static final String POST_FILE_UPLOAD = "/api/files/upload";
     @HttpPost(route = POST_FILE_UPLOAD)
     public ActionResult postFileUpload(@Named("file") FileUpload upload) throws IOException {
@@ -36,4 +57,57 @@ public final class FileController {
         details.setLength(IOUtils.toByteArray(upload.getStream()).length);
         return new JsonResult(details);
     }
+
+    public static final String POST_STREAMED_UPLOAD = "/api/files/streamed-upload";
+    @HttpPost(route = POST_STREAMED_UPLOAD)
+    public ActionResult postStreamedUpload(MultipartStream parts) throws IOException {
+        List<FileUploadDetails> details = new ArrayList<>();
+        for (FileUpload part = parts.next(); part != null; part = parts.next()) {
+            details.add(getDetails(part));
+        }
+        return new JsonResult(details);
+    }
+
+    public static final String POST_STREAMED_PART = "/api/files/streamed-part";
+    @HttpPost(route = POST_STREAMED_PART)
+    public ActionResult postStreamedPart(MultipartStream parts) throws IOException {
+        // The parts before the file are held aside until they are asked for.
+        List<FileUploadDetails> details = new ArrayList<>();
+        try (MultipartStream stream = parts) {
+            details.add(getDetails(stream.getPart("file")));
+            for (FileUpload part = stream.next(); part != null; part = stream.next()) {
+                details.add(getDetails(part));
+            }
+        }
+        return new JsonResult(details);
+    }
+
+    public static final String POST_UNCLOSED_PART = "/api/files/unclosed-part";
+    public static volatile InputStream lastHeldStream;
+    @HttpPost(route = POST_UNCLOSED_PART)
+    public ActionResult postUnclosedPart(MultipartStream parts) throws IOException {
+        // The multipart stream is deliberately left open, along with the stream of the part held aside.
+        FileUploadDetails details = getDetails(parts.getPart("file"));
+        lastHeldStream = parts.getPart("held").getStream();
+        return new JsonResult(details);
+    }
+
+    public static final String POST_ECHOED_PART = "/api/files/echoed-part";
+    @HttpPost(route = POST_ECHOED_PART)
+    public ActionResult postEchoedPart(MultipartStream parts) throws IOException {
+        // The part held aside is streamed back after the action returns.
+        parts.getPart("file");
+        return new StreamResult(parts.getPart("held").getStream(), "application/octet-stream");
+    }
+
+    private static FileUploadDetails getDetails(FileUpload upload) throws IOException {
+        CheckedInputStream stream = new CheckedInputStream(upload.getStream(), new CRC32());
+        FileUploadDetails details = new FileUploadDetails();
+        details.setName(upload.getName());
+        details.setContentType(upload.getContentType());
+        details.setFileName(upload.getFileName());
+        details.setLength((int) IOUtils.copyLarge(stream, NullOutputStream.NULL_OUTPUT_STREAM));
+        details.setChecksum(stream.getChecksum().getValue());
+        return details;
+    }
 }
@@ -0,0 +1,38 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.ws.*;
+
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@WsController(route = FloodController.ROUTE)
+@OutboundBuffer(maxBytes = 4 * FloodController.MESSAGE_BYTES)
+public final class FloodController {
+    public static final String ROUTE = "/ws/flood";
+    // Every character takes two bytes in UTF-8.
+    public static final String MESSAGE = String.join("", Collections.nCopies(32 * 1024, "é"));
+    public static final int MESSAGE_BYTES = 64 * 1024;
+    public static final BlockingQueue<String> floodedSessionIds = new LinkedBlockingQueue<>();
+    public static final AtomicInteger droppedCount = new AtomicInteger();
+
+    @WsMessage
+    public void onMessage(WsMessageContext context) {
+        flood(context);
+    }
+
+    static void flood(WsMessageContext context) {
+        int count = Integer.parseInt(context.getMessage());
+        WsResponse response = context.getResponse();
+        for (int index = 0; index != count; ++index) {
+            response.sendTextAsync(MESSAGE).whenComplete((ignored, exception) -> {
+                if (exception instanceof CancellationException) {
+                    droppedCount.incrementAndGet();
+                }
+            });
+        }
+        floodedSessionIds.add(context.getSessionId());
+    }
+}
@@ -0,0 +1,17 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.ws.*;
+
+import java.util.concurrent.TimeUnit;
+
+// The messages are held in the buffer long enough to be counted.
+@WsController(route = HeldFloodController.ROUTE)
+@OutboundBuffer(flushDelay = 10, flushThreshold = Integer.MAX_VALUE, unit = TimeUnit.SECONDS)
+public final class HeldFloodController {
+    public static final String ROUTE = "/ws/flood/held";
+
+    @WsMessage
+    public void onMessage(WsMessageContext context) {
+        FloodController.flood(context);
+    }
+}
@@ -0,0 +1,38 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.*;
+import com.truncon.javalin.mvc.test.models.BoxedModel;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@Controller
+public final class JsonStreamController {
+    public static final String STREAM_ROUTE = "/api/json/stream";
+    @HttpGet(route = STREAM_ROUTE)
+    public Stream<Integer> getStream(int count) {
+        return IntStream.rangeClosed(1, count).boxed();
+    }
+
+    public static final String ITERATOR_ROUTE = "/api/json/iterator";
+    @HttpGet(route = ITERATOR_ROUTE)
+    public ActionResult getIterator() {
+        return new JsonResult(Arrays.asList("a", null, "c").iterator());
+    }
+
+    public static final String MODEL_ROUTE = "/api/json/model";
+    @HttpGet(route = MODEL_ROUTE)
+    public ActionResult getModel(String value) {
+        BoxedModel model = new BoxedModel();
+        model.setString(value);
+        return new JsonResult(model, 201, true);
+    }
+
+    public static final String ASYNC_STREAM_ROUTE = "/api/json/stream/async";
+    @HttpGet(route = ASYNC_STREAM_ROUTE)
+    public CompletableFuture<Stream<String>> getStreamAsync() {
+        return CompletableFuture.supplyAsync(() -> Stream.of("x", "y"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.*;
+import com.truncon.javalin.mvc.test.models.BoxedModel;
+import com.truncon.javalin.mvc.test.models.ContactModel;
+import com.truncon.javalin.mvc.test.models.FallbackModel;
+import com.truncon.javalin.mvc.test.models.PrimitiveModel;
+import com.truncon.javalin.mvc.test.models.PrivateFieldModel;
+
+@Controller
+public final class ObjectParameterController {
+    public static final String PRIMITIVE_QUERY_ROUTE = "/api/objects/query/primitive";
+    @HttpGet(route = PRIMITIVE_QUERY_ROUTE)
+    public ActionResult getPrimitiveModel(@FromQuery PrimitiveModel model) {
+        return new JsonResult(model);
+    }
+
+    public static final String BOXED_QUERY_ROUTE = "/api/objects/query/boxed";
+    @HttpGet(route = BOXED_QUERY_ROUTE)
+    public ActionResult getBoxedModel(@FromQuery BoxedModel model) {
+        return new JsonResult(model);
+    }
+
+    public static final String BOXED_HEADER_ROUTE = "/api/objects/header/boxed";
+    @HttpGet(route = BOXED_HEADER_ROUTE)
+    public ActionResult getBoxedModelFromHeaders(@FromHeader BoxedModel model) {
+        return new JsonResult(model);
+    }
+
+    public static final String PRIVATE_FIELD_QUERY_ROUTE = "/api/objects/query/private";
+    @HttpGet(route = PRIVATE_FIELD_QUERY_ROUTE)
+    public ActionResult getPrivateFieldModel(@FromQuery PrivateFieldModel model) {
+        return new JsonResult(model);
+    }
+
+    public static final String FALLBACK_QUERY_ROUTE = "/api/objects/query/fallback";
+    @HttpGet(route = FALLBACK_QUERY_ROUTE)
+    public ActionResult getFallbackModel(@FromQuery FallbackModel model) {
+        return new JsonResult(model);
+    }
+
+    public static final String CONTACT_QUERY_ROUTE = "/api/objects/query/contact";
+    @HttpGet(route = CONTACT_QUERY_ROUTE)
+    public ActionResult getContactModel(@FromQuery ContactModel model) {
+        return new JsonResult(model);
+    }
+}
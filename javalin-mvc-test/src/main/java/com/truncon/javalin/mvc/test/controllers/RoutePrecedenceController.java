@@ -0,0 +1,25 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.*;
+
+@Controller
+public final class RoutePrecedenceController {
+    // Routes are registered in the order they are declared, so the more specific routes come first.
+    public static final String FIXED_ROUTE = "/api/precedence/fixed";
+    @HttpGet(route = FIXED_ROUTE)
+    public String getFixed() {
+        return "fixed";
+    }
+
+    public static final String PARAMETER_ROUTE = "/api/precedence/:value";
+    @HttpGet(route = PARAMETER_ROUTE)
+    public String getParameter(@FromPath String value) {
+        return "parameter:" + value;
+    }
+
+    public static final String WILDCARD_ROUTE = "/api/precedence/*";
+    @HttpGet(route = WILDCARD_ROUTE)
+    public String getWildcard() {
+        return "wildcard";
+    }
+}
@@ -0,0 +1,21 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.*;
+import com.truncon.javalin.mvc.test.handlers.InstanceHeader;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Controller
+@Stateless
+public final class StatelessController {
+    public static final String HANDLER_HEADER = "X-Handler-Instance";
+    private static final AtomicInteger instanceCount = new AtomicInteger();
+    private final int instanceId = instanceCount.incrementAndGet();
+
+    public static final String ROUTE = "/api/stateless";
+    @HttpGet(route = ROUTE)
+    @Before(handler = InstanceHeader.class, arguments = { HANDLER_HEADER })
+    public int getInstanceId() {
+        return instanceId;
+    }
+}
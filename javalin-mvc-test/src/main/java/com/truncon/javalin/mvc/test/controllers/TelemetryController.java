@@ -0,0 +1,22 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.ws.*;
+
+import java.nio.ByteBuffer;
+
+@WsController(route = TelemetryController.ROUTE)
+public final class TelemetryController {
+    public static final String ROUTE = "/ws/telemetry";
+    private static final WsBufferPool POOL = new WsBufferPool();
+
+    @WsBinaryMessage
+    public WsActionResult onBinaryMessage(BinaryFrame frame) {
+        // Sends the bytes back in reverse order.
+        int length = frame.getLength();
+        ByteBuffer buffer = POOL.acquire(length);
+        for (int index = 0; index != length; ++index) {
+            buffer.put(index, frame.getByte(length - index - 1));
+        }
+        return new WsByteBufferResult(buffer, POOL);
+    }
+}
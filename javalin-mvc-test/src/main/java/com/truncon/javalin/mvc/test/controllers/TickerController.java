@@ -0,0 +1,49 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.ws.*;
+import com.truncon.javalin.mvc.ws.WsSessionRegistry;
+
+import java.util.Collections;
+
+@WsController(route = TickerController.ROUTE)
+public final class TickerController {
+    public static final String ROUTE = "/ws/ticker";
+    public static final String TOPIC = "ticker:ACME";
+    public static final String NEWS = String.join("", Collections.nCopies(64 * 1024, "x"));
+    public static final int NEWS_COUNT = 200;
+
+    @WsMessage
+    public WsActionResult onMessage(WsMessageContext context) {
+        if ("subscribe".equals(context.getMessage())) {
+            WsSessionRegistry.join(context.getSessionId(), TOPIC);
+            return new WsContentResult("subscribed");
+        }
+        if ("flood".equals(context.getMessage())) {
+            // Far more than a member that stopped reading can buffer.
+            for (int index = 0; index != NEWS_COUNT; ++index) {
+                WsSessionRegistry.broadcastText(TOPIC, NEWS);
+            }
+            return new WsContentResult("flooded");
+        }
+        int count = WsSessionRegistry.broadcastJson(TOPIC, new Tick("ACME", 42));
+        return new WsContentResult(Integer.toString(count));
+    }
+
+    public static final class Tick {
+        private final String symbol;
+        private final int price;
+
+        public Tick(String symbol, int price) {
+            this.symbol = symbol;
+            this.price = price;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public int getPrice() {
+            return price;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.truncon.javalin.mvc.test.controllers;
+
+import com.truncon.javalin.mvc.api.*;
+
+@Controller
+public final class ValueSourceController {
+    public static final String PATH_ROUTE = "/api/sources/path/:id";
+    @HttpGet(route = PATH_ROUTE)
+    public ActionResult getPathValue(@FromPath int id) {
+        return new ContentResult(Integer.toString(id));
+    }
+
+    public static final String QUERY_ROUTE = "/api/sources/query";
+    @HttpGet(route = QUERY_ROUTE)
+    public ActionResult getQueryValue(@FromQuery @Named("value") Long value) {
+        return new ContentResult(String.valueOf(value));
+    }
+
+    public static final String HEADER_ROUTE = "/api/sources/header";
+    @HttpGet(route = HEADER_ROUTE)
+    public ActionResult getHeaderValue(@FromHeader @Named("X-Value") String value) {
+        return new ContentResult(value);
+    }
+
+    public static final String COOKIE_ROUTE = "/api/sources/cookie";
+    @HttpGet(route = COOKIE_ROUTE)
+    public ActionResult getCookieValue(@FromCookie double value) {
+        return new ContentResult(Double.toString(value));
+    }
+}
@@ -0,0 +1,20 @@
+package com.truncon.javalin.mvc.test.handlers;
+
+import com.truncon.javalin.mvc.api.AsyncBeforeActionHandler;
+import com.truncon.javalin.mvc.api.HttpContext;
+
+import java.util.concurrent.CompletableFuture;
+
+public final class AsyncAuthorize implements AsyncBeforeActionHandler {
+    @Override
+    public CompletableFuture<Boolean> executeBeforeAsync(HttpContext context, String[] arguments) {
+        String token = context.getRequest().getHeader(arguments[0]);
+        // Simulates a call to a remote service completing on another thread.
+        return CompletableFuture.supplyAsync(() -> arguments[1].equals(token)).thenApply(authorized -> {
+            if (!authorized) {
+                context.getResponse().setStatusCode(401).setTextBody("Unauthorized");
+            }
+            return authorized;
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.truncon.javalin.mvc.test.handlers;
+
+import com.truncon.javalin.mvc.api.AsyncAfterActionHandler;
+import com.truncon.javalin.mvc.api.HttpContext;
+
+import java.util.concurrent.CompletableFuture;
+
+public final class AsyncHeader implements AsyncAfterActionHandler {
+    @Override
+    public CompletableFuture<Exception> executeAfterAsync(HttpContext context, String[] arguments, Exception exception) {
+        return CompletableFuture.supplyAsync(() -> {
+            context.getResponse().setHeader(arguments[0], arguments[1]);
+            return exception;
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.truncon.javalin.mvc.test.handlers;
+
+import com.truncon.javalin.mvc.api.BeforeActionHandler;
+import com.truncon.javalin.mvc.api.HttpContext;
+
+public final class Authorize implements BeforeActionHandler {
+    @Override
+    public boolean executeBefore(HttpContext context, String[] arguments) {
+        String token = context.getRequest().getHeader(arguments[0]);
+        if (!arguments[1].equals(token)) {
+            context.getResponse().setStatusCode(401).setTextBody("Unauthorized");
+            return false;
+        }
+        return true;
+    }
+}
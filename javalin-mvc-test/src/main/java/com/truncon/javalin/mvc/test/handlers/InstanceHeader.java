@@ -0,0 +1,19 @@
+package com.truncon.javalin.mvc.test.handlers;
+
+import com.truncon.javalin.mvc.api.BeforeActionHandler;
+import com.truncon.javalin.mvc.api.HttpContext;
+import com.truncon.javalin.mvc.api.Stateless;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Stateless
+public final class InstanceHeader implements BeforeActionHandler {
+    private static final AtomicInteger instanceCount = new AtomicInteger();
+    private final int instanceId = instanceCount.incrementAndGet();
+
+    @Override
+    public boolean executeBefore(HttpContext context, String[] arguments) {
+        context.getResponse().setHeader(arguments[0], Integer.toString(instanceId));
+        return true;
+    }
+}
@@ -0,0 +1,10 @@
+package com.truncon.javalin.mvc.test.models;
+
+public final class FallbackModel {
+    public String value;
+    public Integer number;
+
+    public void setValue(Integer value) {
+        this.number = value;
+    }
+}
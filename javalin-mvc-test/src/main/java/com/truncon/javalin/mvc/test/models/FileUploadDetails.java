@@ -1,9 +1,19 @@
 package com.truncon.javalin.mvc.test.models;
 
 public final class FileUploadDetails {
+    private String name;
     private String contentType;
     private String fileName;
     private int length;
+    private long checksum;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
 
     public String getContentType() {
         return contentType;
@@ -28,4 +38,12 @@ public final class FileUploadDetails {
     public void setLength(int length) {
         this.length = length;
     }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(long checksum) {
+        this.checksum = checksum;
+    }
 }
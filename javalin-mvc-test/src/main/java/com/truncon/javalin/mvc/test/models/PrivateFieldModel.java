@@ -0,0 +1,14 @@
+package com.truncon.javalin.mvc.test.models;
+
+public final class PrivateFieldModel {
+    private String name;
+    private int count;
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
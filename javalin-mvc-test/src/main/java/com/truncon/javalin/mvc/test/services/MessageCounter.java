@@ -0,0 +1,18 @@
+package com.truncon.javalin.mvc.test.services;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Singleton
+public final class MessageCounter {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Inject
+    public MessageCounter() {
+    }
+
+    public int increment() {
+        return count.incrementAndGet();
+    }
+}
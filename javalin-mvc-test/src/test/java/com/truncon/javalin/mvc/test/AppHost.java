@@ -15,6 +15,10 @@ public final class AppHost {
         return app.start().thenApply(v -> app);
     }
 
+    public App getApp() {
+        return app;
+    }
+
     private CompletableFuture<Void> start() throws IOException {
         return app.start();
     }
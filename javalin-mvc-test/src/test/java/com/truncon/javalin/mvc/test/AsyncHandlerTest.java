@@ -0,0 +1,87 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.AsyncHandlerController;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.truncon.javalin.mvc.test.QueryUtils.*;
+import static com.truncon.javalin.mvc.test.RouteBuilder.*;
+
+public final class AsyncHandlerTest {
+    @Test
+    public void testAsyncBefore_authorized() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(AsyncHandlerController.AUTHORIZED_ROUTE);
+            String json = Request.Get(route)
+                .addHeader(AsyncHandlerController.TOKEN_HEADER, AsyncHandlerController.TOKEN)
+                .execute()
+                .returnContent()
+                .asString();
+            Assert.assertEquals(Integer.valueOf(123), jsonParse(json, Integer.class));
+        }).join();
+    }
+
+    @Test
+    public void testAsyncBefore_cancelled() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(AsyncHandlerController.AUTHORIZED_ROUTE);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(401, response.getStatusLine().getStatusCode());
+            Assert.assertEquals("Unauthorized", EntityUtils.toString(response.getEntity()));
+        }).join();
+    }
+
+    @Test
+    public void testAsyncBefore_cancelled_controllerNotCreated() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(AsyncHandlerController.AUTHORIZED_ROUTE);
+            int instanceCount = AsyncHandlerController.instanceCount.get();
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(401, response.getStatusLine().getStatusCode());
+            Assert.assertEquals(instanceCount, AsyncHandlerController.instanceCount.get());
+        }).join();
+    }
+
+    @Test
+    public void testAsyncAfter_runsOnceFutureCompletes() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(AsyncHandlerController.AFTER_ROUTE);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            Assert.assertEquals(
+                AsyncHandlerController.AFTER_VALUE,
+                response.getFirstHeader(AsyncHandlerController.AFTER_HEADER).getValue());
+            Assert.assertEquals(Integer.valueOf(456), jsonParse(EntityUtils.toString(response.getEntity()), Integer.class));
+        }).join();
+    }
+
+    @Test
+    public void testAfter_receivesFutureException() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(AsyncHandlerController.FUTURE_ERROR_ROUTE);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(500, response.getStatusLine().getStatusCode());
+            Assert.assertEquals("An unexpected error has occurred.", EntityUtils.toString(response.getEntity()));
+        }).join();
+    }
+
+    @Test
+    public void testAsyncHandlers_blockingAction() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(AsyncHandlerController.BLOCKING_ROUTE);
+            HttpResponse response = Request.Get(route)
+                .addHeader(AsyncHandlerController.TOKEN_HEADER, AsyncHandlerController.TOKEN)
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            Assert.assertEquals(
+                AsyncHandlerController.AFTER_VALUE,
+                response.getFirstHeader(AsyncHandlerController.AFTER_HEADER).getValue());
+            String threadName = jsonParse(EntityUtils.toString(response.getEntity()), String.class);
+            Assert.assertTrue(threadName, threadName.startsWith("javalin-mvc-blocking-"));
+        }).join();
+    }
+}
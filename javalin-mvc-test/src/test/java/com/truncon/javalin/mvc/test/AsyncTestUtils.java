@@ -1,5 +1,7 @@
 package com.truncon.javalin.mvc.test;
 
+import org.apache.http.client.fluent.Executor;
+
 import java.io.IOException;
 import java.net.SocketException;
 import java.util.concurrent.CompletableFuture;
@@ -30,6 +32,8 @@ public class AsyncTestUtils {
             }
             Throwable error = ex;
             return a.close().handle((v, closeError) -> {
+                // The pooled connections of the fluent client point to the stopped server.
+                Executor.closeIdleConnections();
                 if (error != null) {
                     throw new CompletionException(error);
                 } else if (closeError != null) {
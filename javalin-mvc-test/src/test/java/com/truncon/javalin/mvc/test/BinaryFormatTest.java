@@ -0,0 +1,204 @@
+package com.truncon.javalin.mvc.test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.truncon.javalin.mvc.BinaryFormats;
+import com.truncon.javalin.mvc.test.controllers.BinaryController;
+import com.truncon.javalin.mvc.test.models.PrimitiveModel;
+import io.javalin.plugin.json.JavalinJackson;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static com.truncon.javalin.mvc.test.RouteBuilder.buildRoute;
+
+public final class BinaryFormatTest {
+    // Wrapping the root value tells the output of the registered mapper apart from plain JSON.
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .enable(SerializationFeature.WRAP_ROOT_VALUE)
+        .enable(DeserializationFeature.UNWRAP_ROOT_VALUE);
+    private static final ObjectMapper CBOR_MAPPER = new ObjectMapper(new CBORFactory());
+
+    @BeforeClass
+    public static void registerFormat() {
+        BinaryFormats.register(BinaryController.MEDIA_TYPE, MAPPER);
+    }
+
+    @AfterClass
+    public static void unregisterFormat() {
+        BinaryFormats.unregister(BinaryController.MEDIA_TYPE);
+    }
+
+    @Test
+    public void testAccept_binaryFormat() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BinaryController.MODEL_ROUTE);
+            HttpResponse response = Request.Get(route)
+                .addHeader("Accept", BinaryController.MEDIA_TYPE + ", application/json;q=0.5")
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            Assert.assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith(BinaryController.MEDIA_TYPE));
+            Assert.assertEquals("Accept", response.getFirstHeader("Vary").getValue());
+            byte[] content = EntityUtils.toByteArray(response.getEntity());
+            PrimitiveModel model = MAPPER.readValue(content, PrimitiveModel.class);
+            Assert.assertEquals(42, model.getInteger());
+            Assert.assertEquals(Long.MAX_VALUE, model.getLong());
+        }).join();
+    }
+
+    @Test
+    public void testAccept_json() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BinaryController.MODEL_ROUTE);
+            String[] accepts = {
+                "*/*",
+                "application/json",
+                BinaryController.MEDIA_TYPE + ";q=0.5, application/json",
+                BinaryController.MEDIA_TYPE + ";q=0"
+            };
+            for (String accept : accepts) {
+                HttpResponse response = Request.Get(route).addHeader("Accept", accept).execute().returnResponse();
+                Assert.assertTrue(accept, response.getFirstHeader("Content-Type").getValue().startsWith("application/json"));
+                PrimitiveModel model = QueryUtils.jsonParse(EntityUtils.toString(response.getEntity()), PrimitiveModel.class);
+                Assert.assertEquals(42, model.getInteger());
+            }
+        }).join();
+    }
+
+    @Test
+    public void testAccept_unavailableFormat() throws Exception {
+        Assert.assertFalse(BinaryFormats.isRegistered(BinaryFormats.MESSAGE_PACK));
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BinaryController.MODEL_ROUTE);
+            HttpResponse response = Request.Get(route)
+                .addHeader("Accept", BinaryFormats.MESSAGE_PACK)
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            Assert.assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith("application/json"));
+        }).join();
+    }
+
+    @Test
+    public void testAccept_cbor() throws Exception {
+        Assert.assertTrue(BinaryFormats.isRegistered(BinaryFormats.CBOR));
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BinaryController.MODEL_ROUTE);
+            HttpResponse response = Request.Get(route).addHeader("Accept", BinaryFormats.CBOR).execute().returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            Assert.assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith(BinaryFormats.CBOR));
+            PrimitiveModel model = CBOR_MAPPER.readValue(EntityUtils.toByteArray(response.getEntity()), PrimitiveModel.class);
+            Assert.assertEquals(42, model.getInteger());
+            Assert.assertTrue(model.getBoolean());
+            Assert.assertEquals(Long.MAX_VALUE, model.getLong());
+        }).join();
+    }
+
+    @Test
+    public void testContentType_cborBody() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BinaryController.ECHO_ROUTE);
+            byte[] body = CBOR_MAPPER.writeValueAsBytes(BinaryController.createModel());
+            HttpResponse response = Request.Post(route)
+                .bodyByteArray(body, ContentType.create(BinaryFormats.CBOR))
+                .addHeader("Accept", BinaryFormats.CBOR)
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            PrimitiveModel model = CBOR_MAPPER.readValue(EntityUtils.toByteArray(response.getEntity()), PrimitiveModel.class);
+            Assert.assertEquals(42, model.getInteger());
+            Assert.assertTrue(model.getBoolean());
+            Assert.assertEquals(Long.MAX_VALUE, model.getLong());
+        }).join();
+    }
+
+    @Test
+    public void testCbor_sharesJsonSettings() throws Exception {
+        ObjectMapper previous = JavalinJackson.getObjectMapper();
+        JavalinJackson.configure(new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategy.UPPER_CAMEL_CASE));
+        try {
+            byte[] content = BinaryFormats.write(BinaryFormats.CBOR, BinaryController.createModel());
+            JsonNode node = CBOR_MAPPER.readTree(content);
+            Assert.assertEquals(42, node.get("Integer").asInt());
+        } finally {
+            JavalinJackson.configure(previous);
+        }
+        byte[] content = BinaryFormats.write(BinaryFormats.CBOR, BinaryController.createModel());
+        Assert.assertEquals(42, CBOR_MAPPER.readTree(content).get("integer").asInt());
+    }
+
+    @Test
+    public void testAccept_async() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BinaryController.ASYNC_ROUTE);
+            HttpResponse response = Request.Get(route)
+                .addHeader("Accept", BinaryController.MEDIA_TYPE)
+                .execute()
+                .returnResponse();
+            Assert.assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith(BinaryController.MEDIA_TYPE));
+            PrimitiveModel model = MAPPER.readValue(EntityUtils.toByteArray(response.getEntity()), PrimitiveModel.class);
+            Assert.assertEquals(42, model.getInteger());
+
+            String etag = response.getFirstHeader("ETag").getValue();
+            HttpResponse notModified = Request.Get(route)
+                .addHeader("Accept", BinaryController.MEDIA_TYPE)
+                .addHeader("If-None-Match", etag)
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(304, notModified.getStatusLine().getStatusCode());
+        }).join();
+    }
+
+    @Test
+    public void testAccept_etagPerFormat() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BinaryController.TAGGED_ROUTE);
+            HttpResponse json = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals("\"model\"", json.getFirstHeader("ETag").getValue());
+            HttpResponse binary = Request.Get(route)
+                .addHeader("Accept", BinaryController.MEDIA_TYPE)
+                .execute()
+                .returnResponse();
+            Assert.assertEquals("\"model-javalin-mvc-test\"", binary.getFirstHeader("ETag").getValue());
+
+            HttpResponse jsonTag = Request.Get(route)
+                .addHeader("Accept", BinaryController.MEDIA_TYPE)
+                .addHeader("If-None-Match", "\"model\"")
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(200, jsonTag.getStatusLine().getStatusCode());
+            HttpResponse binaryTag = Request.Get(route)
+                .addHeader("Accept", BinaryController.MEDIA_TYPE)
+                .addHeader("If-None-Match", "\"model-javalin-mvc-test\"")
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(304, binaryTag.getStatusLine().getStatusCode());
+        }).join();
+    }
+
+    @Test
+    public void testContentType_binaryBody() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BinaryController.ECHO_ROUTE);
+            byte[] body = MAPPER.writeValueAsBytes(BinaryController.createModel());
+            HttpResponse response = Request.Post(route)
+                .bodyByteArray(body, ContentType.create(BinaryController.MEDIA_TYPE))
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            PrimitiveModel model = QueryUtils.jsonParse(EntityUtils.toString(response.getEntity()), PrimitiveModel.class);
+            Assert.assertEquals(42, model.getInteger());
+            Assert.assertTrue(model.getBoolean());
+        }).join();
+    }
+}
@@ -0,0 +1,57 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.BlockingController;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.truncon.javalin.mvc.test.QueryUtils.*;
+import static com.truncon.javalin.mvc.test.RouteBuilder.*;
+
+public final class BlockingTest {
+    @Test
+    public void testBlocking_runsOnDefaultExecutor() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BlockingController.THREAD_ROUTE);
+            String threadName = getGetJsonResponse(route, String.class);
+            Assert.assertTrue(threadName, threadName.startsWith("javalin-mvc-blocking-"));
+        }).join();
+    }
+
+    @Test
+    public void testBlocking_runsOnNamedExecutor() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BlockingController.NAMED_EXECUTOR_ROUTE);
+            String threadName = getStringResponse(route);
+            Assert.assertEquals(BlockingController.EXECUTOR_THREAD_NAME, threadName);
+        }).join();
+    }
+
+    @Test
+    public void testBlocking_bindsParameters() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BlockingController.PARAMETER_ROUTE, pathParams(param("value", "123")));
+            Integer value = getGetJsonResponse(route, Integer.class);
+            Assert.assertEquals(Integer.valueOf(123), value);
+        }).join();
+    }
+
+    @Test
+    public void testBlocking_voidAction() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BlockingController.VOID_ROUTE);
+            String threadName = getStringResponse(route);
+            Assert.assertTrue(threadName, threadName.startsWith("javalin-mvc-blocking-"));
+        }).join();
+    }
+
+    @Test
+    public void testBlocking_error() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(BlockingController.ERROR_ROUTE);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(500, response.getStatusLine().getStatusCode());
+        }).join();
+    }
+}
@@ -0,0 +1,158 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.CachedController;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.truncon.javalin.mvc.test.QueryUtils.getStringResponse;
+import static com.truncon.javalin.mvc.test.RouteBuilder.*;
+
+public final class CachedTest {
+    @Test
+    public void testCached_keyedByParameters() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route1 = buildRoute(
+                CachedController.CONTENT_ROUTE,
+                pathParams(param("id", "1")),
+                queryParams(param("name", "a")));
+            String route2 = buildRoute(
+                CachedController.CONTENT_ROUTE,
+                pathParams(param("id", "2")),
+                queryParams(param("name", "a")));
+            String route3 = buildRoute(
+                CachedController.CONTENT_ROUTE,
+                pathParams(param("id", "1")),
+                queryParams(param("name", "b")));
+            String first = getStringResponse(route1);
+            Assert.assertTrue(first, first.startsWith("1:a:"));
+            Assert.assertEquals(first, getStringResponse(route1));
+            String second = getStringResponse(route2);
+            Assert.assertTrue(second, second.startsWith("2:a:"));
+            Assert.assertNotEquals(first.substring(4), second.substring(4));
+            String third = getStringResponse(route3);
+            Assert.assertTrue(third, third.startsWith("1:b:"));
+            Assert.assertEquals(first, getStringResponse(route1));
+        }).join();
+    }
+
+    @Test
+    public void testCached_replaysContentType() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(CachedController.JSON_ROUTE, pathParams(), queryParams(param("value", "a")));
+            HttpResponse first = Request.Get(route).execute().returnResponse();
+            String firstBody = EntityUtils.toString(first.getEntity());
+            HttpResponse second = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(firstBody, EntityUtils.toString(second.getEntity()));
+            Assert.assertTrue(second.getFirstHeader("Content-Type").getValue().startsWith("application/json"));
+
+            String other = buildRoute(CachedController.JSON_ROUTE, pathParams(), queryParams(param("value", "b")));
+            Assert.assertNotEquals(firstBody, getStringResponse(other));
+        }).join();
+    }
+
+    @Test
+    public void testCached_beforeHandlersStillRun() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(CachedController.AUTHORIZED_ROUTE);
+            String first = Request.Get(route)
+                .addHeader(CachedController.TOKEN_HEADER, CachedController.TOKEN)
+                .execute()
+                .returnContent()
+                .asString();
+            HttpResponse unauthorized = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(401, unauthorized.getStatusLine().getStatusCode());
+            String second = Request.Get(route)
+                .addHeader(CachedController.TOKEN_HEADER, CachedController.TOKEN)
+                .execute()
+                .returnContent()
+                .asString();
+            Assert.assertEquals(first, second);
+        }).join();
+    }
+
+    @Test
+    public void testCached_expires() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(CachedController.EXPIRING_ROUTE);
+            String first = getStringResponse(route);
+            Thread.sleep(20);
+            Assert.assertNotEquals(first, getStringResponse(route));
+        }).join();
+    }
+
+    @Test
+    public void testCached_evicts() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String routeA = buildRoute(CachedController.EVICTING_ROUTE, pathParams(), queryParams(param("key", "a")));
+            String routeB = buildRoute(CachedController.EVICTING_ROUTE, pathParams(), queryParams(param("key", "b")));
+            String first = getStringResponse(routeA);
+            Assert.assertEquals(first, getStringResponse(routeA));
+            getStringResponse(routeB);
+            Assert.assertNotEquals(first, getStringResponse(routeA));
+        }).join();
+    }
+
+    @Test
+    public void testCached_errorsNotCached() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(CachedController.NOT_FOUND_ROUTE);
+            HttpResponse first = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(404, first.getStatusLine().getStatusCode());
+            HttpResponse second = Request.Get(route).execute().returnResponse();
+            Assert.assertNotEquals(EntityUtils.toString(first.getEntity()), EntityUtils.toString(second.getEntity()));
+        }).join();
+    }
+
+    @Test
+    public void testCached_hitAnswersNotModified() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(CachedController.VALIDATED_ROUTE);
+            HttpResponse first = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(CachedController.VALIDATED_ETAG, first.getFirstHeader("ETag").getValue());
+            String lastModified = first.getFirstHeader("Last-Modified").getValue();
+            String content = EntityUtils.toString(first.getEntity());
+
+            HttpResponse byETag = Request.Get(route)
+                .addHeader("If-None-Match", CachedController.VALIDATED_ETAG)
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(304, byETag.getStatusLine().getStatusCode());
+            Assert.assertEquals(CachedController.VALIDATED_ETAG, byETag.getFirstHeader("ETag").getValue());
+            Assert.assertNull(byETag.getEntity());
+
+            HttpResponse byDate = Request.Get(route)
+                .addHeader("If-Modified-Since", lastModified)
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(304, byDate.getStatusLine().getStatusCode());
+
+            HttpResponse stale = Request.Get(route)
+                .addHeader("If-None-Match", "\"stale\"")
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(200, stale.getStatusLine().getStatusCode());
+            Assert.assertEquals(content, EntityUtils.toString(stale.getEntity()));
+        }).join();
+    }
+
+    @Test
+    public void testCached_blocking() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(CachedController.BLOCKING_ROUTE);
+            HttpResponse first = Request.Get(route).execute().returnResponse();
+            Assert.assertTrue(first.getFirstHeader("Content-Type").getValue().startsWith("application/json"));
+            Assert.assertEquals(EntityUtils.toString(first.getEntity()), getStringResponse(route));
+        }).join();
+    }
+
+    @Test
+    public void testCached_future() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(CachedController.FUTURE_ROUTE);
+            Assert.assertEquals(getStringResponse(route), getStringResponse(route));
+        }).join();
+    }
+}
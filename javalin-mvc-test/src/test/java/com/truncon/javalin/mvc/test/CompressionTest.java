@@ -0,0 +1,213 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.CompressionController;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static com.truncon.javalin.mvc.test.QueryUtils.jsonParse;
+import static com.truncon.javalin.mvc.test.RouteBuilder.*;
+
+public final class CompressionTest {
+    @Test
+    public void testContent_gzip() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            Response response = get(buildRoute(CompressionController.CONTENT_ROUTE), "gzip, deflate");
+            Assert.assertEquals("gzip", response.encoding);
+            Assert.assertEquals("Accept-Encoding", response.vary);
+            Assert.assertTrue(response.body.length < CompressionController.CONTENT.length());
+            Assert.assertEquals(CompressionController.CONTENT, response.decode());
+        }).join();
+    }
+
+    @Test
+    public void testContent_deflatePreferred() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            Response response = get(buildRoute(CompressionController.CONTENT_ROUTE), "gzip;q=0.5, deflate");
+            Assert.assertEquals("deflate", response.encoding);
+            Assert.assertEquals(CompressionController.CONTENT, response.decode());
+        }).join();
+    }
+
+    @Test
+    public void testContent_identity() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            Response response = get(buildRoute(CompressionController.CONTENT_ROUTE), "identity");
+            Assert.assertNull(response.encoding);
+            Assert.assertEquals(CompressionController.CONTENT, response.decode());
+        }).join();
+    }
+
+    @Test
+    public void testSmallContent_notCompressed() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(CompressionController.SMALL_CONTENT_ROUTE);
+            Response response = get(route, "gzip");
+            Assert.assertNull(response.encoding);
+            Assert.assertEquals(CompressionController.SMALL_CONTENT, response.decode());
+            // The body is sent as-is, so it has the same entity tag as an uncompressed response.
+            Assert.assertEquals("\"small\"", response.etag);
+            Assert.assertEquals(304, getStatusCode(route, "gzip", "If-None-Match", "\"small\""));
+        }).join();
+    }
+
+    @Test
+    public void testContent_varyAppended() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            try (CloseableHttpClient client = HttpClients.custom().disableContentCompression().build()) {
+                HttpGet request = new HttpGet(buildRoute(CompressionController.VARIED_CONTENT_ROUTE));
+                request.setHeader("Accept-Encoding", "gzip");
+                HttpResponse response = client.execute(request);
+                EntityUtils.consume(response.getEntity());
+                Set<String> values = new HashSet<>();
+                for (Header header : response.getHeaders("Vary")) {
+                    for (String value : header.getValue().split(",")) {
+                        values.add(value.trim());
+                    }
+                }
+                Assert.assertEquals(new HashSet<>(Arrays.asList("Origin", "Accept-Encoding")), values);
+            }
+        }).join();
+    }
+
+    @Test
+    public void testContent_async() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            Response response = get(buildRoute(CompressionController.ASYNC_CONTENT_ROUTE), "gzip");
+            Assert.assertEquals("gzip", response.encoding);
+            Assert.assertEquals(CompressionController.CONTENT, response.decode());
+        }).join();
+    }
+
+    @Test
+    public void testCachedPayload_reusedUntilVersionChanges() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String version1 = buildRoute(
+                CompressionController.CATALOG_ROUTE,
+                pathParams(),
+                queryParams(param("version", "1")));
+            String version2 = buildRoute(
+                CompressionController.CATALOG_ROUTE,
+                pathParams(),
+                queryParams(param("version", "2")));
+            Response first = get(version1, "gzip");
+            Assert.assertEquals("gzip", first.encoding);
+            Assert.assertTrue(first.contentType.startsWith("application/json"));
+            String[] items = jsonParse(first.decode(), String[].class);
+            Assert.assertEquals(500, items.length);
+
+            Assert.assertEquals(first.decode(), get(version1, "gzip").decode());
+            Assert.assertEquals(first.decode(), get(version1, "deflate").decode());
+            Assert.assertEquals(first.decode(), get(version1, null).decode());
+
+            String[] updated = jsonParse(get(version2, "gzip").decode(), String[].class);
+            Assert.assertNotEquals(items[0], updated[0]);
+        }).join();
+    }
+
+    @Test
+    public void testContent_etagPerCoding() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(CompressionController.TAGGED_CONTENT_ROUTE);
+            Assert.assertEquals("\"content-gzip\"", get(route, "gzip").etag);
+            Assert.assertEquals("\"content-deflate\"", get(route, "deflate").etag);
+            Assert.assertEquals("\"content\"", get(route, null).etag);
+
+            Assert.assertEquals(304, getStatusCode(route, "gzip", "If-None-Match", "\"content-gzip\""));
+            Assert.assertEquals(200, getStatusCode(route, "gzip", "If-None-Match", "\"content\""));
+            Assert.assertEquals(200, getStatusCode(route, null, "If-None-Match", "\"content-gzip\""));
+        }).join();
+    }
+
+    @Test
+    public void testCachedPayload_validators() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(
+                CompressionController.TAGGED_CATALOG_ROUTE,
+                pathParams(),
+                queryParams(param("version", "1")));
+            Response response = get(route, "gzip");
+            Assert.assertEquals("\"1-gzip\"", response.etag);
+            Assert.assertEquals("\"1\"", get(route, null).etag);
+
+            Assert.assertEquals(304, getStatusCode(route, "gzip", "If-None-Match", "\"1-gzip\""));
+            Assert.assertEquals(200, getStatusCode(route, null, "If-None-Match", "\"1-gzip\""));
+            Assert.assertEquals(304, getStatusCode(route, "gzip", "If-Modified-Since", response.lastModified));
+        }).join();
+    }
+
+    private static int getStatusCode(String route, String acceptEncoding, String name, String value) throws IOException {
+        try (CloseableHttpClient client = HttpClients.custom().disableContentCompression().build()) {
+            HttpGet request = new HttpGet(route);
+            if (acceptEncoding != null) {
+                request.setHeader("Accept-Encoding", acceptEncoding);
+            }
+            request.setHeader(name, value);
+            HttpResponse response = client.execute(request);
+            EntityUtils.consume(response.getEntity());
+            return response.getStatusLine().getStatusCode();
+        }
+    }
+
+    private static Response get(String route, String acceptEncoding) throws IOException {
+        // The default client decompresses responses and hides the Content-Encoding header.
+        try (CloseableHttpClient client = HttpClients.custom().disableContentCompression().build()) {
+            HttpGet request = new HttpGet(route);
+            if (acceptEncoding != null) {
+                request.setHeader("Accept-Encoding", acceptEncoding);
+            }
+            HttpResponse response = client.execute(request);
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            return new Response(response);
+        }
+    }
+
+    private static final class Response {
+        private final String encoding;
+        private final String vary;
+        private final String contentType;
+        private final String etag;
+        private final String lastModified;
+        private final byte[] body;
+
+        public Response(HttpResponse response) throws IOException {
+            this.encoding = getHeader(response, "Content-Encoding");
+            this.vary = getHeader(response, "Vary");
+            this.contentType = getHeader(response, "Content-Type");
+            this.etag = getHeader(response, "ETag");
+            this.lastModified = getHeader(response, "Last-Modified");
+            this.body = EntityUtils.toByteArray(response.getEntity());
+        }
+
+        private static String getHeader(HttpResponse response, String name) {
+            Header header = response.getFirstHeader(name);
+            return header == null ? null : header.getValue();
+        }
+
+        public String decode() throws IOException {
+            InputStream stream = new ByteArrayInputStream(body);
+            if ("gzip".equals(encoding)) {
+                stream = new GZIPInputStream(stream);
+            } else if ("deflate".equals(encoding)) {
+                stream = new InflaterInputStream(stream);
+            }
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.ConditionalController;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static com.truncon.javalin.mvc.test.RouteBuilder.buildRoute;
+
+public final class ConditionalTest {
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    @Test
+    public void testContent_computedETag() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ConditionalController.CONTENT_ROUTE);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            Assert.assertEquals(ConditionalController.CONTENT, EntityUtils.toString(response.getEntity()));
+            String etag = response.getFirstHeader("ETag").getValue();
+            Assert.assertTrue(etag, etag.startsWith("\"") && etag.endsWith("\""));
+
+            HttpResponse notModified = Request.Get(route).addHeader("If-None-Match", etag).execute().returnResponse();
+            Assert.assertEquals(304, notModified.getStatusLine().getStatusCode());
+            Assert.assertEquals(etag, notModified.getFirstHeader("ETag").getValue());
+
+            HttpResponse modified = Request.Get(route).addHeader("If-None-Match", "\"other\"").execute().returnResponse();
+            Assert.assertEquals(200, modified.getStatusLine().getStatusCode());
+            Assert.assertEquals(ConditionalController.CONTENT, EntityUtils.toString(modified.getEntity()));
+        }).join();
+    }
+
+    @Test
+    public void testContent_computedETag_hashesUtf8() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ConditionalController.UNICODE_CONTENT_ROUTE);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            // The tag is the FNV-1a hash of the bytes sent.
+            long hash = 0xcbf29ce484222325L;
+            for (byte value : EntityUtils.toByteArray(response.getEntity())) {
+                hash = (hash ^ (value & 0xff)) * 0x100000001b3L;
+            }
+            Assert.assertEquals("\"" + Long.toHexString(hash) + "\"", response.getFirstHeader("ETag").getValue());
+        }).join();
+    }
+
+    @Test
+    public void testJson_computedETag() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ConditionalController.JSON_ROUTE);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            Assert.assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith("application/json"));
+            String etag = response.getFirstHeader("ETag").getValue();
+            Assert.assertEquals(etag, Request.Get(route).execute().returnResponse().getFirstHeader("ETag").getValue());
+
+            HttpResponse notModified = Request.Get(route).addHeader("If-None-Match", "W/" + etag).execute().returnResponse();
+            Assert.assertEquals(304, notModified.getStatusLine().getStatusCode());
+        }).join();
+    }
+
+    @Test
+    public void testJson_versionSkipsSerialization() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ConditionalController.VERSION_ROUTE);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            Assert.assertEquals("\"" + ConditionalController.VERSION + "\"", response.getFirstHeader("ETag").getValue());
+            EntityUtils.consume(response.getEntity());
+
+            int serializations = ConditionalController.getSerializationCount();
+            HttpResponse notModified = Request.Get(route)
+                .addHeader("If-None-Match", "\"" + ConditionalController.VERSION + "\"")
+                .execute()
+                .returnResponse();
+            Assert.assertEquals(304, notModified.getStatusLine().getStatusCode());
+            Assert.assertEquals(serializations, ConditionalController.getSerializationCount());
+        }).join();
+    }
+
+    @Test
+    public void testContent_lastModified() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ConditionalController.LAST_MODIFIED_ROUTE);
+            String lastModified = HTTP_DATE.format(ConditionalController.LAST_MODIFIED);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(lastModified, response.getFirstHeader("Last-Modified").getValue());
+
+            HttpResponse notModified = Request.Get(route).addHeader("If-Modified-Since", lastModified).execute().returnResponse();
+            Assert.assertEquals(304, notModified.getStatusLine().getStatusCode());
+
+            String earlier = HTTP_DATE.format(ConditionalController.LAST_MODIFIED.minusSeconds(60));
+            HttpResponse modified = Request.Get(route).addHeader("If-Modified-Since", earlier).execute().returnResponse();
+            Assert.assertEquals(200, modified.getStatusLine().getStatusCode());
+        }).join();
+    }
+
+    @Test
+    public void testJson_async() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ConditionalController.ASYNC_ROUTE);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            String etag = response.getFirstHeader("ETag").getValue();
+
+            HttpResponse notModified = Request.Get(route).addHeader("If-None-Match", etag).execute().returnResponse();
+            Assert.assertEquals(304, notModified.getStatusLine().getStatusCode());
+        }).join();
+    }
+}
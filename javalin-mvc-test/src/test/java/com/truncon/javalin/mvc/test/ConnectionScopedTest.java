@@ -0,0 +1,34 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.ConnectionScopedController;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public final class ConnectionScopedTest {
+    @Test
+    public void testConnectionScoped_reusesScopeForConnection() throws Exception {
+        AsyncTestUtils.runTest(app -> WsTestUtils.withClient(client -> {
+            Assert.assertEquals("1,2,3", sendMessages(client, 3));
+            // A new connection gets a new scope.
+            Assert.assertEquals("1", sendMessages(client, 1));
+        })).join();
+    }
+
+    private static String sendMessages(WebSocketClient client, int count) throws Exception {
+        try (WsTestUtils.Connection connection = WsTestUtils.connect(client, ConnectionScopedController.ROUTE)) {
+            StringBuilder builder = new StringBuilder();
+            for (int index = 0; index != count; ++index) {
+                connection.sendText("message");
+                String response = connection.getTextMessages().poll(5, TimeUnit.SECONDS);
+                if (builder.length() > 0) {
+                    builder.append(",");
+                }
+                builder.append(response);
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.ClosingFeedController;
+import com.truncon.javalin.mvc.test.controllers.DroppingFeedController;
+import com.truncon.javalin.mvc.test.controllers.FeedController;
+import com.truncon.javalin.mvc.test.controllers.FloodController;
+import com.truncon.javalin.mvc.test.controllers.HeldFloodController;
+import com.truncon.javalin.mvc.ws.WsOutbox;
+import com.truncon.javalin.mvc.ws.WsSessionRegistry;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+public final class FeedTest {
+    @Test
+    public void testSendAsync_sendsEveryMessageInOrder() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            withSession(FeedController.ROUTE, connection -> {
+                connection.sendText("500");
+                for (int index = 0; index != 500; ++index) {
+                    Assert.assertEquals(Integer.toString(index), connection.getTextMessages().poll(5, TimeUnit.SECONDS));
+                }
+            });
+        }).join();
+    }
+
+    @Test
+    public void testSendAsync_dropOldest() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            withSession(DroppingFeedController.ROUTE, connection -> {
+                connection.sendText("10");
+                Assert.assertEquals("9", connection.getTextMessages().poll(5, TimeUnit.SECONDS));
+                Assert.assertNull(connection.getTextMessages().poll(200, TimeUnit.MILLISECONDS));
+            });
+        }).join();
+    }
+
+    @Test
+    public void testSendAsync_close() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            withSession(ClosingFeedController.ROUTE, connection -> {
+                connection.sendText("2");
+                Assert.assertEquals(StatusCode.POLICY_VIOLATION, (int) connection.getCloseStatus().get(5, TimeUnit.SECONDS));
+                Assert.assertTrue(connection.getTextMessages().isEmpty());
+            });
+        }).join();
+    }
+
+    @Test
+    public void testSendAsync_dropOldest_clientNotReading() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            FloodController.floodedSessionIds.clear();
+            FloodController.droppedCount.set(0);
+            try (Socket socket = WsTestUtils.connectWithoutReading(FloodController.ROUTE)) {
+                // Far more than the socket buffers can absorb, so the connection stalls.
+                WsTestUtils.sendText(socket, "400");
+                String sessionId = FloodController.floodedSessionIds.poll(10, TimeUnit.SECONDS);
+                Assert.assertNotNull(sessionId);
+                WsOutbox outbox = WsSessionRegistry.getOutbox(sessionId);
+                Assert.assertTrue(outbox.getBufferedByteCount() <= outbox.getSettings().getMaxBufferedBytes());
+                Assert.assertTrue(FloodController.droppedCount.get() > 0);
+            }
+        }).join();
+    }
+
+    @Test
+    public void testSendAsync_textSizedAsUtf8() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            FloodController.floodedSessionIds.clear();
+            try (Socket socket = WsTestUtils.connectWithoutReading(HeldFloodController.ROUTE)) {
+                WsTestUtils.sendText(socket, "1");
+                String sessionId = FloodController.floodedSessionIds.poll(10, TimeUnit.SECONDS);
+                Assert.assertNotNull(sessionId);
+                Assert.assertEquals(FloodController.MESSAGE_BYTES, WsSessionRegistry.getOutbox(sessionId).getBufferedByteCount());
+            }
+        }).join();
+    }
+
+    private static void withSession(String route, SessionTest test) throws Exception {
+        WsTestUtils.withClient(client -> {
+            try (WsTestUtils.Connection connection = WsTestUtils.connect(client, route)) {
+                test.run(connection);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface SessionTest {
+        void run(WsTestUtils.Connection connection) throws Exception;
+    }
+}
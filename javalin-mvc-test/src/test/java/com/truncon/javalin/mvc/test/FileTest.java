@@ -1,5 +1,6 @@
 package com.truncon.javalin.mvc.test;
 
+import com.truncon.javalin.mvc.MultipartReader;
 import com.truncon.javalin.mvc.test.controllers.FileController;
 import com.truncon.javalin.mvc.test.models.FileUploadDetails;
 import org.apache.commons.io.IOUtils;
@@ -9,14 +10,20 @@ import org.apache.http.client.fluent.Request;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.HttpMultipartMode;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.util.EntityUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.CRC32;
 
 public final class FileTest {
     @Test
@@ -45,6 +52,113 @@ public final class FileTest {
         });
     }
 
+    @Test
+    public void testFileResult() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = RouteBuilder.buildRoute(FileController.GET_FILE_ROUTE);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            byte[] expected = Files.readAllBytes(Paths.get("./public/index.html"));
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            Assert.assertEquals(Integer.toString(expected.length), response.getFirstHeader("Content-Length").getValue());
+            Assert.assertEquals("bytes", response.getFirstHeader("Accept-Ranges").getValue());
+            Assert.assertNotNull(response.getFirstHeader("ETag"));
+            Assert.assertNotNull(response.getFirstHeader("Last-Modified"));
+            Assert.assertArrayEquals(expected, EntityUtils.toByteArray(response.getEntity()));
+        }).join();
+    }
+
+    @Test
+    public void testFileResult_head() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = RouteBuilder.buildRoute(FileController.GET_FILE_ROUTE);
+            HttpResponse response = Request.Head(route).execute().returnResponse();
+            long expected = Files.size(Paths.get("./public/index.html"));
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            Assert.assertEquals(Long.toString(expected), response.getFirstHeader("Content-Length").getValue());
+        }).join();
+    }
+
+    @Test
+    public void testFileResult_range() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = RouteBuilder.buildRoute(FileController.GET_FILE_ROUTE);
+            HttpResponse response = Request.Get(route).addHeader("Range", "bytes=5-14").execute().returnResponse();
+            byte[] file = Files.readAllBytes(Paths.get("./public/index.html"));
+            Assert.assertEquals(206, response.getStatusLine().getStatusCode());
+            Assert.assertEquals("bytes 5-14/" + file.length, response.getFirstHeader("Content-Range").getValue());
+            Assert.assertArrayEquals(Arrays.copyOfRange(file, 5, 15), EntityUtils.toByteArray(response.getEntity()));
+        }).join();
+    }
+
+    @Test
+    public void testFileResult_suffixRange() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = RouteBuilder.buildRoute(FileController.GET_FILE_ROUTE);
+            HttpResponse response = Request.Get(route).addHeader("Range", "bytes=-10").execute().returnResponse();
+            byte[] file = Files.readAllBytes(Paths.get("./public/index.html"));
+            Assert.assertEquals(206, response.getStatusLine().getStatusCode());
+            Assert.assertArrayEquals(Arrays.copyOfRange(file, file.length - 10, file.length), EntityUtils.toByteArray(response.getEntity()));
+        }).join();
+    }
+
+    @Test
+    public void testFileResult_unsatisfiableRange() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = RouteBuilder.buildRoute(FileController.GET_FILE_ROUTE);
+            long size = Files.size(Paths.get("./public/index.html"));
+            HttpResponse response = Request.Get(route).addHeader("Range", "bytes=" + size + "-").execute().returnResponse();
+            Assert.assertEquals(416, response.getStatusLine().getStatusCode());
+            Assert.assertEquals("bytes */" + size, response.getFirstHeader("Content-Range").getValue());
+        }).join();
+    }
+
+    @Test
+    public void testFileResult_ifNoneMatch() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = RouteBuilder.buildRoute(FileController.GET_FILE_ROUTE);
+            String etag = Request.Get(route).execute().returnResponse().getFirstHeader("ETag").getValue();
+            HttpResponse response = Request.Get(route).addHeader("If-None-Match", etag).execute().returnResponse();
+            Assert.assertEquals(304, response.getStatusLine().getStatusCode());
+        }).join();
+    }
+
+    @Test
+    public void testFileResult_ifModifiedSince() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = RouteBuilder.buildRoute(FileController.GET_FILE_ROUTE);
+            String lastModified = Request.Get(route).execute().returnResponse().getFirstHeader("Last-Modified").getValue();
+            HttpResponse response = Request.Get(route).addHeader("If-Modified-Since", lastModified).execute().returnResponse();
+            Assert.assertEquals(304, response.getStatusLine().getStatusCode());
+        }).join();
+    }
+
+    @Test
+    public void testFileResult_staleIfRange() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = RouteBuilder.buildRoute(FileController.GET_FILE_ROUTE);
+            HttpResponse response = Request.Get(route)
+                .addHeader("Range", "bytes=0-9")
+                .addHeader("If-Range", "\"stale\"")
+                .execute()
+                .returnResponse();
+            byte[] expected = Files.readAllBytes(Paths.get("./public/index.html"));
+            Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+            Assert.assertArrayEquals(expected, EntityUtils.toByteArray(response.getEntity()));
+        }).join();
+    }
+
+    @Test
+    public void testFileDownload_path() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = RouteBuilder.buildRoute(FileController.GET_DOWNLOAD_FILE_ROUTE);
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            String disposition = response.getFirstHeader("Content-Disposition").getValue();
+            Assert.assertEquals("attachment;fileName=" + FileController.CONTENT_DISPOSITION, disposition);
+            byte[] expected = Files.readAllBytes(Paths.get("./public/index.html"));
+            Assert.assertArrayEquals(expected, EntityUtils.toByteArray(response.getEntity()));
+        }).join();
+    }
+
     @Test
     public void testFileUpload() throws Exception {
         AsyncTestUtils.runTest(app -> {
@@ -65,4 +179,161 @@ public final class FileTest {
             Assert.assertEquals(fileData.length, actual.getLength());
         });
     }
+
+    @Test
+    public void testStreamedUpload() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = RouteBuilder.buildRoute(FileController.POST_STREAMED_UPLOAD);
+            byte[] large = getRandomBytes(5 * 1024 * 1024 + 17);
+            byte[] small = "<html></html>".getBytes(StandardCharsets.UTF_8);
+            MultipartEntityBuilder uploadBuilder = MultipartEntityBuilder.create();
+            uploadBuilder.addTextBody("description", "Two files");
+            uploadBuilder.addBinaryBody("large", large, ContentType.APPLICATION_OCTET_STREAM, "large.bin");
+            uploadBuilder.addBinaryBody("small", small, ContentType.TEXT_HTML, "small.html");
+            uploadBuilder.setMode(HttpMultipartMode.BROWSER_COMPATIBLE);
+            String json = Request.Post(route)
+                .body(uploadBuilder.build())
+                .execute()
+                .returnContent()
+                .asString(StandardCharsets.UTF_8);
+            FileUploadDetails[] actual = QueryUtils.jsonParse(json, FileUploadDetails[].class);
+            Assert.assertEquals(3, actual.length);
+            Assert.assertEquals("description", actual[0].getName());
+            Assert.assertNull(actual[0].getFileName());
+            Assert.assertEquals("Two files".length(), actual[0].getLength());
+            assertDetails(actual[1], "large", "large.bin", large);
+            assertDetails(actual[2], "small", "small.html", small);
+        }).join();
+    }
+
+    @Test
+    public void testStreamedUpload_heldParts() throws Exception {
+        int spillThreshold = MultipartReader.getSpillThreshold();
+        MultipartReader.setSpillThreshold(1_000);
+        try {
+            AsyncTestUtils.runTest(app -> {
+                String route = RouteBuilder.buildRoute(FileController.POST_STREAMED_PART);
+                byte[] spilled = getRandomBytes(100_000);
+                byte[] held = getRandomBytes(500);
+                byte[] file = getRandomBytes(10_000);
+                MultipartEntityBuilder uploadBuilder = MultipartEntityBuilder.create();
+                uploadBuilder.addBinaryBody("spilled", spilled, ContentType.APPLICATION_OCTET_STREAM, "spilled.bin");
+                uploadBuilder.addBinaryBody("held", held, ContentType.APPLICATION_OCTET_STREAM, "held.bin");
+                uploadBuilder.addBinaryBody("file", file, ContentType.APPLICATION_OCTET_STREAM, "file.bin");
+                uploadBuilder.setMode(HttpMultipartMode.BROWSER_COMPATIBLE);
+                String json = Request.Post(route)
+                    .body(uploadBuilder.build())
+                    .execute()
+                    .returnContent()
+                    .asString(StandardCharsets.UTF_8);
+                FileUploadDetails[] actual = QueryUtils.jsonParse(json, FileUploadDetails[].class);
+                Assert.assertEquals(3, actual.length);
+                assertDetails(actual[0], "file", "file.bin", file);
+                assertDetails(actual[1], "spilled", "spilled.bin", spilled);
+                assertDetails(actual[2], "held", "held.bin", held);
+            }).join();
+        } finally {
+            MultipartReader.setSpillThreshold(spillThreshold);
+        }
+    }
+
+    @Test
+    public void testStreamedUpload_heldPartStreamedBack() throws Exception {
+        int spillThreshold = MultipartReader.getSpillThreshold();
+        MultipartReader.setSpillThreshold(1_000);
+        try {
+            AsyncTestUtils.runTest(app -> {
+                String route = RouteBuilder.buildRoute(FileController.POST_ECHOED_PART);
+                byte[] held = getRandomBytes(100_000);
+                MultipartEntityBuilder uploadBuilder = MultipartEntityBuilder.create();
+                uploadBuilder.addBinaryBody("held", held, ContentType.APPLICATION_OCTET_STREAM, "held.bin");
+                uploadBuilder.addBinaryBody("file", getRandomBytes(10_000), ContentType.APPLICATION_OCTET_STREAM, "file.bin");
+                uploadBuilder.setMode(HttpMultipartMode.BROWSER_COMPATIBLE);
+                byte[] echoed = Request.Post(route)
+                    .body(uploadBuilder.build())
+                    .execute()
+                    .returnContent()
+                    .asBytes();
+                // The temporary file of the part is only deleted once the response has been written.
+                Assert.assertArrayEquals(held, echoed);
+            }).join();
+        } finally {
+            MultipartReader.setSpillThreshold(spillThreshold);
+        }
+    }
+
+    @Test
+    public void testStreamedUpload_closedWhenActionDoesNot() throws Exception {
+        int spillThreshold = MultipartReader.getSpillThreshold();
+        MultipartReader.setSpillThreshold(1_000);
+        try {
+            AsyncTestUtils.runTest(app -> {
+                String route = RouteBuilder.buildRoute(FileController.POST_UNCLOSED_PART);
+                byte[] file = getRandomBytes(10_000);
+                MultipartEntityBuilder uploadBuilder = MultipartEntityBuilder.create();
+                uploadBuilder.addBinaryBody("held", getRandomBytes(100_000), ContentType.APPLICATION_OCTET_STREAM, "held.bin");
+                uploadBuilder.addBinaryBody("file", file, ContentType.APPLICATION_OCTET_STREAM, "file.bin");
+                uploadBuilder.setMode(HttpMultipartMode.BROWSER_COMPATIBLE);
+                String json = Request.Post(route)
+                    .body(uploadBuilder.build())
+                    .execute()
+                    .returnContent()
+                    .asString(StandardCharsets.UTF_8);
+                assertDetails(QueryUtils.jsonParse(json, FileUploadDetails.class), "file", "file.bin", file);
+                // The part held aside was written to a temporary file, which is deleted once its stream is closed.
+                // The stream is closed once the response is written, which can be just after the client receives it.
+                Assert.assertTrue("The stream of the part held aside should have been closed.", isClosedWithin(FileController.lastHeldStream, 5_000));
+            }).join();
+        } finally {
+            MultipartReader.setSpillThreshold(spillThreshold);
+        }
+    }
+
+    @Test
+    public void testStreamedUpload_partTooLarge() throws Exception {
+        long maxPartSize = MultipartReader.getMaxPartSize();
+        MultipartReader.setMaxPartSize(1_000);
+        try {
+            AsyncTestUtils.runTest(app -> {
+                String route = RouteBuilder.buildRoute(FileController.POST_STREAMED_UPLOAD);
+                MultipartEntityBuilder uploadBuilder = MultipartEntityBuilder.create();
+                uploadBuilder.addBinaryBody("file", getRandomBytes(10_000), ContentType.APPLICATION_OCTET_STREAM, "file.bin");
+                HttpResponse response = Request.Post(route)
+                    .body(uploadBuilder.build())
+                    .execute()
+                    .returnResponse();
+                Assert.assertEquals(413, response.getStatusLine().getStatusCode());
+            }).join();
+        } finally {
+            MultipartReader.setMaxPartSize(maxPartSize);
+        }
+    }
+
+    private static boolean isClosedWithin(InputStream stream, long millis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + millis;
+        do {
+            try {
+                stream.read();
+            } catch (IOException exception) {
+                return true;
+            }
+            Thread.sleep(10);
+        } while (System.currentTimeMillis() < deadline);
+        return false;
+    }
+
+    private static byte[] getRandomBytes(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    private static void assertDetails(FileUploadDetails details, String name, String fileName, byte[] data) {
+        CRC32 checksum = new CRC32();
+        checksum.update(data);
+        Assert.assertEquals(name, details.getName());
+        Assert.assertEquals(fileName, details.getFileName());
+        Assert.assertEquals(data.length, details.getLength());
+        Assert.assertEquals(checksum.getValue(), details.getChecksum());
+    }
 }
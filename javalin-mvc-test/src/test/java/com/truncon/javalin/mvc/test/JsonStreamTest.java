@@ -0,0 +1,74 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.JsonStreamController;
+import com.truncon.javalin.mvc.test.models.BoxedModel;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.truncon.javalin.mvc.test.QueryUtils.getStringResponse;
+import static com.truncon.javalin.mvc.test.QueryUtils.jsonParse;
+import static com.truncon.javalin.mvc.test.RouteBuilder.*;
+
+public final class JsonStreamTest {
+    @Test
+    public void testStream() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(
+                JsonStreamController.STREAM_ROUTE,
+                Collections.emptyMap(),
+                queryParams(param("count", "5")));
+            String response = getStringResponse(route);
+            Assert.assertEquals("[1,2,3,4,5]", response);
+        }).join();
+    }
+
+    @Test
+    public void testStream_empty() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(
+                JsonStreamController.STREAM_ROUTE,
+                Collections.emptyMap(),
+                queryParams(param("count", "0")));
+            String response = getStringResponse(route);
+            Assert.assertEquals("[]", response);
+        }).join();
+    }
+
+    @Test
+    public void testIterator() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(JsonStreamController.ITERATOR_ROUTE);
+            String response = getStringResponse(route);
+            Assert.assertEquals("[\"a\",null,\"c\"]", response);
+        }).join();
+    }
+
+    @Test
+    public void testStreamingModel() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(
+                JsonStreamController.MODEL_ROUTE,
+                Collections.emptyMap(),
+                queryParams(param("value", "Hello")));
+            HttpResponse response = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(201, response.getStatusLine().getStatusCode());
+            Assert.assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith("application/json"));
+            BoxedModel model = jsonParse(EntityUtils.toString(response.getEntity()), BoxedModel.class);
+            Assert.assertEquals("Hello", model.getString());
+        }).join();
+    }
+
+    @Test
+    public void testStream_async() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(JsonStreamController.ASYNC_STREAM_ROUTE);
+            String response = getStringResponse(route);
+            Assert.assertEquals("[\"x\",\"y\"]", response);
+        }).join();
+    }
+}
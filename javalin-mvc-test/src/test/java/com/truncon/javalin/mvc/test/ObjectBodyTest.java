@@ -1,8 +1,13 @@
 package com.truncon.javalin.mvc.test;
 
+import com.truncon.javalin.mvc.JsonBodyReader;
 import com.truncon.javalin.mvc.test.controllers.ObjectBodyController;
 import com.truncon.javalin.mvc.test.models.BoxedModel;
 import com.truncon.javalin.mvc.test.models.PrimitiveModel;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -13,6 +18,7 @@ import java.util.Date;
 import java.util.UUID;
 
 import static com.truncon.javalin.mvc.test.QueryUtils.getPostJsonResponse;
+import static com.truncon.javalin.mvc.test.QueryUtils.jsonStringify;
 import static com.truncon.javalin.mvc.test.RouteBuilder.*;
 
 public final class ObjectBodyTest {
@@ -87,4 +93,35 @@ public final class ObjectBodyTest {
             Assert.assertEquals(model.getUuid(), response.getUuid());
         }).join();
     }
+
+    @Test
+    public void testLargeBody() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            BoxedModel model = new BoxedModel();
+            model.setString(StringUtils.repeat('a', 100_000));
+            String route = buildRoute(ObjectBodyController.BOXED_BODY_ROUTE);
+            BoxedModel response = getPostJsonResponse(route, model, BoxedModel.class);
+            Assert.assertEquals(model.getString(), response.getString());
+        }).join();
+    }
+
+    @Test
+    public void testBodyTooLarge() throws Exception {
+        long maxBodySize = JsonBodyReader.getMaxBodySize();
+        JsonBodyReader.setMaxBodySize(1_000);
+        try {
+            AsyncTestUtils.runTest(app -> {
+                BoxedModel model = new BoxedModel();
+                model.setString(StringUtils.repeat('a', 2_000));
+                String route = buildRoute(ObjectBodyController.BOXED_BODY_ROUTE);
+                HttpResponse response = Request.Post(route)
+                    .bodyString(jsonStringify(model), ContentType.APPLICATION_JSON)
+                    .execute()
+                    .returnResponse();
+                Assert.assertEquals(413, response.getStatusLine().getStatusCode());
+            }).join();
+        } finally {
+            JsonBodyReader.setMaxBodySize(maxBodySize);
+        }
+    }
 }
@@ -0,0 +1,134 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.ObjectParameterController;
+import com.truncon.javalin.mvc.test.models.BoxedModel;
+import com.truncon.javalin.mvc.test.models.PrimitiveModel;
+import org.apache.http.client.fluent.Request;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.truncon.javalin.mvc.test.QueryUtils.getGetJsonResponse;
+import static com.truncon.javalin.mvc.test.QueryUtils.jsonParse;
+import static com.truncon.javalin.mvc.test.RouteBuilder.*;
+
+public final class ObjectParameterTest {
+    @Test
+    public void testPrimitiveModel_fromQuery() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(
+                ObjectParameterController.PRIMITIVE_QUERY_ROUTE,
+                Collections.emptyMap(),
+                queryParams(
+                    param("boolean", "true"),
+                    param("integer", Integer.toString(Integer.MAX_VALUE)),
+                    param("long", Long.toString(Long.MAX_VALUE)),
+                    param("char", "x")));
+            PrimitiveModel response = getGetJsonResponse(route, PrimitiveModel.class);
+            Assert.assertTrue(response.getBoolean());
+            Assert.assertEquals(Integer.MAX_VALUE, response.getInteger());
+            Assert.assertEquals(Long.MAX_VALUE, response.getLong());
+            Assert.assertEquals('x', response.getChar());
+        }).join();
+    }
+
+    @Test
+    public void testBoxedModel_fromQuery() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            UUID uuid = UUID.randomUUID();
+            String route = buildRoute(
+                ObjectParameterController.BOXED_QUERY_ROUTE,
+                Collections.emptyMap(),
+                queryParams(
+                    param("STRING", "Hello"),
+                    param("integer", "123"),
+                    param("double", "not a number"),
+                    param("uuid", uuid.toString())));
+            BoxedModel response = getGetJsonResponse(route, BoxedModel.class);
+            Assert.assertEquals("Hello", response.getString());
+            Assert.assertEquals(Integer.valueOf(123), response.getInteger());
+            Assert.assertNull(response.getDouble());
+            Assert.assertEquals(uuid, response.getUuid());
+        }).join();
+    }
+
+    @Test
+    public void testBoxedModel_fromHeaders() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ObjectParameterController.BOXED_HEADER_ROUTE);
+            String json = Request.Get(route)
+                .addHeader("String", "Goodbye")
+                .addHeader("Long", "42")
+                .execute()
+                .returnContent()
+                .asString(StandardCharsets.UTF_8);
+            BoxedModel response = jsonParse(json, BoxedModel.class);
+            Assert.assertEquals("Goodbye", response.getString());
+            Assert.assertEquals(Long.valueOf(42), response.getLong());
+        }).join();
+    }
+
+    @Test
+    public void testPrivateFieldModel_fromQuery() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(
+                ObjectParameterController.PRIVATE_FIELD_QUERY_ROUTE,
+                Collections.emptyMap(),
+                queryParams(param("name", "Bob"), param("count", "3")));
+            Map<?, ?> response = getGetJsonResponse(route, Map.class);
+            Assert.assertEquals("Bob", response.get("name"));
+            Assert.assertEquals(3, response.get("count"));
+        }).join();
+    }
+
+    @Test
+    public void testFallbackModel_setterTakesValue() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(
+                ObjectParameterController.FALLBACK_QUERY_ROUTE,
+                Collections.emptyMap(),
+                queryParams(param("value", "12")));
+            Map<?, ?> response = getGetJsonResponse(route, Map.class);
+            Assert.assertEquals(12, response.get("number"));
+            Assert.assertNull(response.get("value"));
+        }).join();
+    }
+
+    @Test
+    public void testFallbackModel_fieldTakesBlankValue() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(
+                ObjectParameterController.FALLBACK_QUERY_ROUTE,
+                Collections.emptyMap(),
+                queryParams(param("value", " ")));
+            Map<?, ?> response = getGetJsonResponse(route, Map.class);
+            Assert.assertNull(response.get("number"));
+            Assert.assertEquals(" ", response.get("value"));
+        }).join();
+    }
+
+    @Test
+    public void testContactModel_fromQuery() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            UUID id = UUID.randomUUID();
+            String route = buildRoute(
+                ObjectParameterController.CONTACT_QUERY_ROUTE,
+                Collections.emptyMap(),
+                queryParams(
+                    param("id", id.toString()),
+                    param("name", "Alice"),
+                    param("age", "42"),
+                    param("birthDate", "1980-01-02")));
+            Map<?, ?> response = getGetJsonResponse(route, Map.class);
+            Assert.assertEquals(id.toString(), response.get("id"));
+            Assert.assertEquals("Alice", response.get("name"));
+            Assert.assertNull(response.get("email"));
+            Assert.assertEquals(42, response.get("age"));
+            Assert.assertNotNull(response.get("birthDate"));
+        }).join();
+    }
+}
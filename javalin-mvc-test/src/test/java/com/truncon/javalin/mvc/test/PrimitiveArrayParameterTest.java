@@ -1,9 +1,13 @@
 package com.truncon.javalin.mvc.test;
 
 import com.truncon.javalin.mvc.test.controllers.PrimitiveArrayParameterController;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.truncon.javalin.mvc.test.QueryUtils.*;
 import static com.truncon.javalin.mvc.test.RouteBuilder.*;
 
@@ -34,6 +38,21 @@ public final class PrimitiveArrayParameterTest {
         }).join();
     }
 
+    @Test
+    public void testInteger_manyValues() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            int[] expected = new int[500];
+            List<Pair<String, String>> params = new ArrayList<>();
+            for (int index = 0; index != expected.length; ++index) {
+                expected[index] = index * 1000;
+                params.add(param("value", Integer.toString(expected[index])));
+            }
+            String route = buildRoute(PrimitiveArrayParameterController.INTEGER_ROUTE, pathParams(), params);
+            int[] actual = getGetJsonResponse(route, int[].class);
+            Assert.assertArrayEquals(expected, actual);
+        }).join();
+    }
+
     @Test
     public void testDouble() throws Exception {
         AsyncTestUtils.runTest(app -> {
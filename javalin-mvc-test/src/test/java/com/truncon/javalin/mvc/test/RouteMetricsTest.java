@@ -0,0 +1,67 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.DefaultRouteMetrics;
+import com.truncon.javalin.mvc.api.RoutePhase;
+import com.truncon.javalin.mvc.test.controllers.CachedController;
+import com.truncon.javalin.mvc.test.controllers.StatelessController;
+import com.truncon.javalin.mvc.test.controllers.ValueSourceController;
+import org.apache.http.client.fluent.Request;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.truncon.javalin.mvc.test.RouteBuilder.*;
+
+public final class RouteMetricsTest {
+    @Test
+    public void testMetrics_recordsEachPhase() throws Exception {
+        AsyncTestUtils.runTest(host -> {
+            String route = buildRoute(StatelessController.ROUTE);
+            Request.Get(route).execute().discardContent();
+
+            DefaultRouteMetrics metrics = host.getApp().getRouteMetrics();
+            int routeId = getRouteId(metrics, "GET " + StatelessController.ROUTE);
+            Assert.assertEquals(1, metrics.getHistogram(routeId, RoutePhase.Before).getCount());
+            Assert.assertEquals(0, metrics.getHistogram(routeId, RoutePhase.Binding).getCount());
+            Assert.assertEquals(1, metrics.getHistogram(routeId, RoutePhase.Action).getCount());
+            Assert.assertEquals(1, metrics.getHistogram(routeId, RoutePhase.Result).getCount());
+            Assert.assertEquals(0, metrics.getHistogram(routeId, RoutePhase.After).getCount());
+        }).join();
+    }
+
+    @Test
+    public void testMetrics_recordsCancelledBefore() throws Exception {
+        AsyncTestUtils.runTest(host -> {
+            String route = buildRoute(CachedController.AUTHORIZED_ROUTE);
+            Request.Get(route).execute().discardContent();
+
+            DefaultRouteMetrics metrics = host.getApp().getRouteMetrics();
+            int routeId = getRouteId(metrics, "GET " + CachedController.AUTHORIZED_ROUTE);
+            Assert.assertEquals(1, metrics.getHistogram(routeId, RoutePhase.Before).getCount());
+            Assert.assertEquals(0, metrics.getHistogram(routeId, RoutePhase.Action).getCount());
+        }).join();
+    }
+
+    @Test
+    public void testMetrics_recordsBinding() throws Exception {
+        AsyncTestUtils.runTest(host -> {
+            String route = buildRoute(ValueSourceController.PATH_ROUTE, pathParams(param("id", "123")));
+            Request.Get(route).execute().discardContent();
+            Request.Get(route).execute().discardContent();
+
+            DefaultRouteMetrics metrics = host.getApp().getRouteMetrics();
+            int routeId = getRouteId(metrics, "GET " + ValueSourceController.PATH_ROUTE);
+            DefaultRouteMetrics.Histogram binding = metrics.getHistogram(routeId, RoutePhase.Binding);
+            Assert.assertEquals(2, binding.getCount());
+            Assert.assertTrue(binding.getPercentileNanos(100) >= binding.getTotalNanos() / 2);
+        }).join();
+    }
+
+    private static int getRouteId(DefaultRouteMetrics metrics, String name) {
+        for (int routeId = 0; routeId != metrics.getRouteCount(); ++routeId) {
+            if (name.equals(metrics.getRouteName(routeId))) {
+                return routeId;
+            }
+        }
+        throw new AssertionError("The route " + name + " was not registered.");
+    }
+}
@@ -0,0 +1,37 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.RoutePrecedenceController;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static com.truncon.javalin.mvc.test.QueryUtils.getGetJsonResponse;
+import static com.truncon.javalin.mvc.test.RouteBuilder.buildRoute;
+
+public final class RoutePrecedenceTest {
+    @Test
+    public void testFixedRoute_matchedBeforeParameter() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(RoutePrecedenceController.FIXED_ROUTE);
+            String actual = getGetJsonResponse(route, String.class);
+            Assert.assertEquals("fixed", actual);
+        }).join();
+    }
+
+    @Test
+    public void testParameterRoute_matchedBeforeWildcard() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute("/api/precedence/other");
+            String actual = getGetJsonResponse(route, String.class);
+            Assert.assertEquals("parameter:other", actual);
+        }).join();
+    }
+
+    @Test
+    public void testWildcardRoute_matchesRemainingPaths() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute("/api/precedence/other/path");
+            String actual = getGetJsonResponse(route, String.class);
+            Assert.assertEquals("wildcard", actual);
+        }).join();
+    }
+}
@@ -0,0 +1,33 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.StatelessController;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static com.truncon.javalin.mvc.test.RouteBuilder.buildRoute;
+
+public final class StatelessTest {
+    @Test
+    public void testStateless_sharesInstances() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(StatelessController.ROUTE);
+            HttpResponse first = Request.Get(route).execute().returnResponse();
+            HttpResponse second = Request.Get(route).execute().returnResponse();
+            Assert.assertEquals(getBody(first), getBody(second));
+            Assert.assertEquals(getHandlerInstance(first), getHandlerInstance(second));
+        }).join();
+    }
+
+    private static String getBody(HttpResponse response) throws IOException {
+        return EntityUtils.toString(response.getEntity());
+    }
+
+    private static String getHandlerInstance(HttpResponse response) {
+        return response.getFirstHeader(StatelessController.HANDLER_HEADER).getValue();
+    }
+}
@@ -0,0 +1,24 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.TelemetryController;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+public final class TelemetryTest {
+    @Test
+    public void testBinaryFrame_pooledResult() throws Exception {
+        AsyncTestUtils.runTest(app -> WsTestUtils.withClient(client -> {
+            try (WsTestUtils.Connection connection = WsTestUtils.connect(client, TelemetryController.ROUTE)) {
+                // The second and third messages reuse the pooled buffer of the first.
+                for (int count = 0; count != 3; ++count) {
+                    connection.sendBinary(ByteBuffer.wrap(new byte[] { 1, 2, 3, (byte) count }));
+                    byte[] response = connection.getBinaryMessages().poll(5, TimeUnit.SECONDS);
+                    Assert.assertArrayEquals(new byte[] { (byte) count, 3, 2, 1 }, response);
+                }
+            }
+        })).join();
+    }
+}
@@ -0,0 +1,85 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.TickerController;
+import com.truncon.javalin.mvc.ws.WsSessionRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public final class TickerTest {
+    @Test
+    public void testBroadcast_sendsToGroupMembers() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            WsTestUtils.withClient(client -> {
+                List<WsTestUtils.Connection> subscribers = new ArrayList<>();
+                for (int index = 0; index != 2; ++index) {
+                    WsTestUtils.Connection subscriber = WsTestUtils.connect(client, TickerController.ROUTE);
+                    subscriber.sendText("subscribe");
+                    Assert.assertEquals("subscribed", subscriber.getTextMessages().poll(5, TimeUnit.SECONDS));
+                    subscribers.add(subscriber);
+                }
+                WsTestUtils.Connection publisher = WsTestUtils.connect(client, TickerController.ROUTE);
+                // The client can finish connecting before the server has registered the session.
+                awaitMemberCount(TickerController.ROUTE, 3);
+                Assert.assertEquals(2, WsSessionRegistry.getMemberCount(TickerController.TOPIC));
+
+                publisher.sendText("publish");
+                Assert.assertEquals("2", publisher.getTextMessages().poll(5, TimeUnit.SECONDS));
+                for (WsTestUtils.Connection subscriber : subscribers) {
+                    String message = subscriber.getTextMessages().poll(5, TimeUnit.SECONDS);
+                    Map<?, ?> tick = QueryUtils.jsonParse(message, Map.class);
+                    Assert.assertEquals("ACME", tick.get("symbol"));
+                    Assert.assertEquals(42, tick.get("price"));
+                }
+                Assert.assertNull(publisher.getTextMessages().poll(100, TimeUnit.MILLISECONDS));
+            });
+            // Closed sessions leave every group.
+            awaitMemberCount(TickerController.ROUTE, 0);
+            Assert.assertEquals(0, WsSessionRegistry.getMemberCount(TickerController.TOPIC));
+        }).join();
+    }
+
+    @Test
+    public void testBroadcast_stalledMemberDoesNotBlock() throws Exception {
+        AsyncTestUtils.runTest(app -> WsTestUtils.withClient(client -> {
+            try (Socket stalled = WsTestUtils.connectWithoutReading(TickerController.ROUTE)) {
+                WsTestUtils.sendText(stalled, "subscribe");
+                WsTestUtils.Connection subscriber = WsTestUtils.connect(client, TickerController.ROUTE);
+                subscriber.sendText("subscribe");
+                BlockingQueue<String> subscriberMessages = subscriber.getTextMessages();
+                Assert.assertEquals("subscribed", subscriberMessages.poll(5, TimeUnit.SECONDS));
+                WsTestUtils.Connection publisher = WsTestUtils.connect(client, TickerController.ROUTE);
+                BlockingQueue<String> publisherMessages = publisher.getTextMessages();
+                awaitMemberCount(TickerController.TOPIC, 2);
+
+                // Under the default BLOCK policy, a broadcast waiting on the stalled member would never return.
+                publisher.sendText("flood");
+                Assert.assertEquals("flooded", publisherMessages.poll(10, TimeUnit.SECONDS));
+                // Let the subscriber that reads catch up on the news that was not dropped for it.
+                while (subscriberMessages.poll(500, TimeUnit.MILLISECONDS) != null) {
+                    // Discard the news.
+                }
+
+                // The outbox of the stalled member is still full, so only the other subscriber gets the tick.
+                publisher.sendText("publish");
+                Assert.assertEquals("1", publisherMessages.poll(5, TimeUnit.SECONDS));
+                Map<?, ?> tick = QueryUtils.jsonParse(subscriberMessages.poll(5, TimeUnit.SECONDS), Map.class);
+                Assert.assertEquals("ACME", tick.get("symbol"));
+            }
+        })).join();
+    }
+
+    private static void awaitMemberCount(String group, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (WsSessionRegistry.getMemberCount(group) != count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(count, WsSessionRegistry.getMemberCount(group));
+    }
+}
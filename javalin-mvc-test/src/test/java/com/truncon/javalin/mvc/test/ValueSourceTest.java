@@ -0,0 +1,80 @@
+package com.truncon.javalin.mvc.test;
+
+import com.truncon.javalin.mvc.test.controllers.ValueSourceController;
+import org.apache.http.client.fluent.Request;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static com.truncon.javalin.mvc.test.QueryUtils.getStringResponse;
+import static com.truncon.javalin.mvc.test.RouteBuilder.*;
+
+public final class ValueSourceTest {
+    @Test
+    public void testPath() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ValueSourceController.PATH_ROUTE, pathParams(param("id", "123")));
+            String response = getStringResponse(route);
+            Assert.assertEquals("123", response);
+        }).join();
+    }
+
+    @Test
+    public void testQuery_caseInsensitive() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String value = Long.toString(Long.MAX_VALUE);
+            String route = buildRoute(
+                ValueSourceController.QUERY_ROUTE,
+                Collections.emptyMap(),
+                queryParams(param("VALUE", value)));
+            String response = getStringResponse(route);
+            Assert.assertEquals(value, response);
+        }).join();
+    }
+
+    @Test
+    public void testQuery_missing() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ValueSourceController.QUERY_ROUTE);
+            String response = getStringResponse(route);
+            Assert.assertEquals("null", response);
+        }).join();
+    }
+
+    @Test
+    public void testHeader() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ValueSourceController.HEADER_ROUTE);
+            String response = Request.Get(route)
+                .addHeader("x-value", "Hello")
+                .execute()
+                .returnContent()
+                .asString(StandardCharsets.UTF_8);
+            Assert.assertEquals("Hello", response);
+        }).join();
+    }
+
+    @Test
+    public void testHeader_missing() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ValueSourceController.HEADER_ROUTE);
+            String response = getStringResponse(route);
+            Assert.assertEquals("", response);
+        }).join();
+    }
+
+    @Test
+    public void testCookie() throws Exception {
+        AsyncTestUtils.runTest(app -> {
+            String route = buildRoute(ValueSourceController.COOKIE_ROUTE);
+            String response = Request.Get(route)
+                .addHeader("Cookie", "value=1.5")
+                .execute()
+                .returnContent()
+                .asString(StandardCharsets.UTF_8);
+            Assert.assertEquals("1.5", response);
+        }).join();
+    }
+}
@@ -0,0 +1,141 @@
+package com.truncon.javalin.mvc.test;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WebSocketAdapter;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+import org.junit.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.truncon.javalin.mvc.test.RouteBuilder.buildRoute;
+
+public final class WsTestUtils {
+    private WsTestUtils() {
+    }
+
+    // Starts a WebSocket client for the test, stopping it, along with its connections, afterward.
+    public static void withClient(ClientTest test) throws Exception {
+        WebSocketClient client = new WebSocketClient();
+        client.start();
+        try {
+            test.run(client);
+        } finally {
+            client.stop();
+        }
+    }
+
+    // Connects to the endpoint at the given route, collecting the messages it sends.
+    public static Connection connect(WebSocketClient client, String path) throws Exception {
+        String route = buildRoute(path).replaceFirst("^http", "ws");
+        Connection connection = new Connection();
+        connection.session = client.connect(connection.socket, new URI(route)).get(5, TimeUnit.SECONDS);
+        return connection;
+    }
+
+    // Opens a WebSocket connection that reads nothing after the handshake, so the writes of the server
+    // stall once the socket buffers are full.
+    public static Socket connectWithoutReading(String path) throws Exception {
+        URI uri = new URI(buildRoute(path));
+        Socket socket = new Socket();
+        // A small receive window makes the writes of the server stall sooner.
+        socket.setReceiveBufferSize(4096);
+        socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), 5000);
+        String handshake = "GET " + uri.getPath() + " HTTP/1.1\r\n"
+            + "Host: " + uri.getHost() + ":" + uri.getPort() + "\r\n"
+            + "Upgrade: websocket\r\n"
+            + "Connection: Upgrade\r\n"
+            + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n"
+            + "Sec-WebSocket-Version: 13\r\n\r\n";
+        socket.getOutputStream().write(handshake.getBytes(StandardCharsets.US_ASCII));
+        // Read the response headers, and nothing after them.
+        InputStream input = socket.getInputStream();
+        StringBuilder response = new StringBuilder();
+        while (response.length() < 4 || !response.substring(response.length() - 4).equals("\r\n\r\n")) {
+            int value = input.read();
+            if (value == -1) {
+                throw new IOException("The connection closed during the handshake.");
+            }
+            response.append((char) value);
+        }
+        Assert.assertTrue(response.toString(), response.toString().startsWith("HTTP/1.1 101"));
+        return socket;
+    }
+
+    // Sends a text message of up to 125 bytes over a connection opened by connectWithoutReading.
+    public static void sendText(Socket socket, String text) throws IOException {
+        // Client frames must be masked; a mask of zeros leaves the payload as-is.
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        OutputStream output = socket.getOutputStream();
+        output.write(new byte[] { (byte) 0x81, (byte) (0x80 | payload.length), 0, 0, 0, 0 });
+        output.write(payload);
+        output.flush();
+    }
+
+    @FunctionalInterface
+    public interface ClientTest {
+        void run(WebSocketClient client) throws Exception;
+    }
+
+    public static final class Connection implements AutoCloseable {
+        private final BlockingQueue<String> textMessages = new LinkedBlockingQueue<>();
+        private final BlockingQueue<byte[]> binaryMessages = new LinkedBlockingQueue<>();
+        private final CompletableFuture<Integer> closeStatus = new CompletableFuture<>();
+        private final WebSocketAdapter socket = new WebSocketAdapter() {
+            @Override
+            public void onWebSocketText(String message) {
+                textMessages.add(message);
+            }
+
+            @Override
+            public void onWebSocketBinary(byte[] payload, int offset, int length) {
+                binaryMessages.add(Arrays.copyOfRange(payload, offset, offset + length));
+            }
+
+            @Override
+            public void onWebSocketClose(int statusCode, String reason) {
+                closeStatus.complete(statusCode);
+            }
+        };
+        private Session session;
+
+        private Connection() {
+        }
+
+        public void sendText(String message) throws IOException {
+            session.getRemote().sendString(message);
+        }
+
+        public void sendBinary(ByteBuffer data) throws IOException {
+            session.getRemote().sendBytes(data);
+        }
+
+        public BlockingQueue<String> getTextMessages() {
+            return textMessages;
+        }
+
+        public BlockingQueue<byte[]> getBinaryMessages() {
+            return binaryMessages;
+        }
+
+        public CompletableFuture<Integer> getCloseStatus() {
+            return closeStatus;
+        }
+
+        @Override
+        public void close() {
+            session.close();
+        }
+    }
+}